@@ -0,0 +1,23 @@
+package com.github.nidorx.http;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks com o GC profiler habilitado, para reportar a alocação por operação (gc.alloc.rate.norm).
+ * <p>
+ * Aceita os mesmos argumentos da linha de comando do JMH.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions cmd = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder()
+                .parent(cmd)
+                .addProfiler(GCProfiler.class)
+                .build()
+        ).run();
+    }
+}
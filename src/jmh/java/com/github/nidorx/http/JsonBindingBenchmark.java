@@ -0,0 +1,72 @@
+package com.github.nidorx.http;
+
+import com.github.nidorx.http.gson.Gson;
+import com.github.nidorx.http.util.ParameterizedTypeReference;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Conversão do corpo das respostas com {@link HttpResponse#fromJson()}, e dos DTOs com os adapters reflexivos
+ * (ReflectiveTypeAdapterFactory)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBindingBenchmark {
+
+    private static final ParameterizedTypeReference<List<Payloads.Repository>> REPOSITORIES =
+            new ParameterizedTypeReference<List<Payloads.Repository>>() {
+            };
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private final Gson gson = new Gson();
+
+    private List<Payloads.Repository> repositories;
+
+    private String json;
+
+    private byte[] body;
+
+    @Setup
+    public void setup() {
+        repositories = Payloads.repositories(size);
+        json = gson.toJson(repositories);
+        body = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private HttpResponse response() {
+        final HttpResponse response = new HttpResponse();
+        response.statusCode = 200;
+        response.data = body;
+        return response;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> responseUntyped() throws Exception {
+        return response().fromJsonToList();
+    }
+
+    @Benchmark
+    public List<Payloads.Repository> responseTyped() throws Exception {
+        return response().fromJson(REPOSITORIES);
+    }
+
+    @Benchmark
+    public List<Payloads.Repository> reflectiveRead() {
+        return gson.fromJson(json, REPOSITORIES.getType());
+    }
+
+    @Benchmark
+    public String reflectiveWrite() {
+        return gson.toJson(repositories);
+    }
+}
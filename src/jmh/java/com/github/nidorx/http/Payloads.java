@@ -0,0 +1,77 @@
+package com.github.nidorx.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Payloads usados nos benchmarks, no formato de uma lista de repositórios da API do GitHub
+ */
+final class Payloads {
+
+    private static final String[] LANGUAGES = {"Java", "Go", "Rust", "JavaScript", "Python", null};
+
+    private Payloads() {
+    }
+
+    static List<Repository> repositories(final int size) {
+        final Random random = new Random(42);
+        final List<Repository> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final Repository repo = new Repository();
+            repo.id = 10_000_000L + random.nextInt(1_000_000);
+            repo.name = "repository-" + i;
+            repo.fullName = "nidorx/repository-" + i;
+            repo.description = "A very small HTTP client for Java using HttpURLConnection, with \"quotes\" and é ü ç #" + i;
+            repo.fork = random.nextBoolean();
+            repo.url = "https://api.github.com/repos/nidorx/repository-" + i;
+            repo.createdAt = "2019-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10) + "T12:34:56Z";
+            repo.size = random.nextInt(100_000);
+            repo.stargazersCount = random.nextInt(5_000);
+            repo.score = random.nextDouble() * 100;
+            repo.language = LANGUAGES[random.nextInt(LANGUAGES.length)];
+            repo.topics = new ArrayList<>();
+            for (int t = 0, n = random.nextInt(5); t < n; t++) {
+                repo.topics.add("topic-" + random.nextInt(50));
+            }
+            repo.owner = new Owner();
+            repo.owner.id = 1_000_000L + random.nextInt(1000);
+            repo.owner.login = "user" + random.nextInt(1000);
+            repo.owner.siteAdmin = random.nextInt(100) == 0;
+            list.add(repo);
+        }
+        return list;
+    }
+
+    static Map<String, String> form(final int size) {
+        final Map<String, String> form = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            form.put("field_" + i, "value with spaces & symbols = ção " + i);
+        }
+        return form;
+    }
+
+    static final class Repository {
+        long id;
+        String name;
+        String fullName;
+        String description;
+        boolean fork;
+        String url;
+        String createdAt;
+        int size;
+        int stargazersCount;
+        double score;
+        String language;
+        List<String> topics;
+        Owner owner;
+    }
+
+    static final class Owner {
+        long id;
+        String login;
+        boolean siteAdmin;
+    }
+}
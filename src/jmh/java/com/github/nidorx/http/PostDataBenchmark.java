@@ -0,0 +1,43 @@
+package com.github.nidorx.http;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração do corpo das requisições POST/PUT, em JSON e form-urlencoded
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PostDataBenchmark {
+
+    @Param({"10", "1000"})
+    public int size;
+
+    private List<Payloads.Repository> json;
+
+    private Map<String, String> form;
+
+    @Setup
+    public void setup() {
+        json = Payloads.repositories(size);
+        form = Payloads.form(size);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return HttpRequest.generatePostData(json, HttpRequest.APPLICATION_JSON);
+    }
+
+    @Benchmark
+    public byte[] form() throws IOException {
+        return HttpRequest.generatePostData(form, HttpRequest.APPLICATION_X_WWW_FORM_URLENCODED);
+    }
+}
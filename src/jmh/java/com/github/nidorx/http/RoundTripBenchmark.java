@@ -0,0 +1,72 @@
+package com.github.nidorx.http;
+
+import com.github.nidorx.http.gson.Gson;
+import com.github.nidorx.http.server.StubResponse;
+import com.github.nidorx.http.server.StubServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Execução completa de {@link HttpRequest#execute()} contra um {@link StubServer} local
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundTripBenchmark {
+
+    private StubServer server;
+
+    private List<Payloads.Repository> body;
+
+    @Setup
+    public void setup() throws Exception {
+        final String json = new Gson().toJson(Payloads.repositories(100));
+        body = Payloads.repositories(10);
+
+        server = StubServer.start()
+                .route("/json", StubResponse.json(json))
+                .route("/gzip", StubResponse.json(json).gzip())
+                .route("/post", StubResponse.status(204));
+    }
+
+    @TearDown
+    public void tearDown() {
+        server.close();
+    }
+
+    @Benchmark
+    public Map<String, Object> getJson() throws Exception {
+        return HttpRequest.build(server.url("/json"))
+                .execute((response, context) -> response.fromJsonToList().get(0));
+    }
+
+    @Benchmark
+    public Map<String, Object> getGzip() throws Exception {
+        return HttpRequest.build(server.url("/gzip"))
+                .execute((response, context) -> response.fromJsonToList().get(0));
+    }
+
+    @Benchmark
+    public int postJson() throws Exception {
+        return HttpRequest.build(server.url("/post"))
+                .method("POST")
+                .contentType(HttpRequest.APPLICATION_JSON)
+                .data(body)
+                .execute()
+                .statusCode;
+    }
+
+    @Benchmark
+    public byte[] getBinary() throws Exception {
+        return HttpRequest.build(server.url("/json"))
+                .binary(true)
+                .execute()
+                .data;
+    }
+}
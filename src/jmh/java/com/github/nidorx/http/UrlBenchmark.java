@@ -0,0 +1,56 @@
+package com.github.nidorx.http;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.UnsupportedEncodingException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Montagem da url final: substituição dos path params e geração da query string
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UrlBenchmark {
+
+    private HttpRequest request;
+
+    private Map<String, List<String>> query;
+
+    @Setup
+    public void setup() {
+        request = HttpRequest.build("https://api.github.com/repos/{USER}/{REPO}/issues/{NUMBER}/comments")
+                .path("USER", "nidorx")
+                .path("REPO", "http-request")
+                .path("NUMBER", "42")
+                .query("per_page", "100")
+                .query("page", "3")
+                .query("since", "2019-01-01T00:00:00Z")
+                .query("labels", "bug,help wanted");
+
+        query = new HashMap<>();
+        for (int i = 0; i < 8; i++) {
+            final List<String> values = new ArrayList<>();
+            values.add("value " + i);
+            values.add("ação/" + i);
+            query.put("param" + i, values);
+        }
+    }
+
+    @Benchmark
+    public String finalUrl() throws UnsupportedEncodingException {
+        return request.getFinalUrl();
+    }
+
+    @Benchmark
+    public String queryString() throws UnsupportedEncodingException {
+        return HttpRequest.getQueryString(query);
+    }
+}
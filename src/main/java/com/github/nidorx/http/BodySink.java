@@ -0,0 +1,20 @@
+package com.github.nidorx.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Consome o corpo de uma resposta de sucesso (status 2xx) em streaming, sem mantê-lo em memória. O
+ * {@link HttpResponse#data} fica nulo. Os redirecionamentos (3xx, incluindo 304) e os erros não são entregues ao
+ * consumidor, o corpo é mantido em {@link HttpResponse#data}.
+ */
+@FunctionalInterface
+interface BodySink {
+
+    /**
+     * @param response resposta, com status e headers
+     * @param body     corpo já decodificado (Content-Encoding)
+     * @throws IOException
+     */
+    void accept(HttpResponse response, InputStream body) throws IOException;
+}
@@ -0,0 +1,122 @@
+package com.github.nidorx.http;
+
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Repassa os eventos para diversos listeners
+ */
+final class CompositeEventListener implements HttpEventListener {
+
+    private final HttpEventListener[] listeners;
+
+    CompositeEventListener(final List<HttpEventListener> listeners) {
+        this.listeners = listeners.toArray(new HttpEventListener[0]);
+    }
+
+    @Override
+    public void callStart(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.callStart(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void dnsStart(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.dnsStart(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void dnsEnd(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.dnsEnd(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void connectStart(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.connectStart(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void secureConnectStart(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.secureConnectStart(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void secureConnectEnd(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.secureConnectEnd(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void connectEnd(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.connectEnd(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void requestWriteStart(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.requestWriteStart(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void requestWriteEnd(final HttpCall call, final long nanoTime, final long bytesSent) {
+        for (HttpEventListener listener : listeners) {
+            listener.requestWriteEnd(call, nanoTime, bytesSent);
+        }
+    }
+
+    @Override
+    public void firstByte(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.firstByte(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void bodyEnd(final HttpCall call, final long nanoTime, final long bytesReceived, final long decodeNanos,
+                        final long bytesDecoded) {
+        for (HttpEventListener listener : listeners) {
+            listener.bodyEnd(call, nanoTime, bytesReceived, decodeNanos, bytesDecoded);
+        }
+    }
+
+    @Override
+    public void callEnd(final HttpCall call, final long nanoTime) {
+        for (HttpEventListener listener : listeners) {
+            listener.callEnd(call, nanoTime);
+        }
+    }
+
+    @Override
+    public void callFailed(final HttpCall call, final long nanoTime, final Exception error) {
+        for (HttpEventListener listener : listeners) {
+            listener.callFailed(call, nanoTime, error);
+        }
+    }
+
+    @Override
+    public void bindStart(final HttpCall call, final long nanoTime, final Type type) {
+        for (HttpEventListener listener : listeners) {
+            listener.bindStart(call, nanoTime, type);
+        }
+    }
+
+    @Override
+    public void bindEnd(final HttpCall call, final long nanoTime, final Type type) {
+        for (HttpEventListener listener : listeners) {
+            listener.bindEnd(call, nanoTime, type);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.nidorx.http;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Decodes a response body sent with a "Content-Encoding"
+ *
+ * @see HttpRequest#addContentDecoder(String, ContentDecoder)
+ */
+@FunctionalInterface
+public interface ContentDecoder {
+
+    /**
+     * @param in the encoded body
+     * @return the stream of the decoded body. Closing it must close the encoded stream and release the resources used
+     * @throws IOException
+     */
+    InputStream decode(InputStream in) throws IOException;
+}
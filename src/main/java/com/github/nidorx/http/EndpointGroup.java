@@ -0,0 +1,333 @@
+package com.github.nidorx.http;
+
+import java.io.Closeable;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A group of equivalent endpoints (base urls) for the same service, with round-robin selection and active health
+ * checking.
+ * <p>
+ * When a health check is configured, each endpoint is probed in background and taken out of the selection after
+ * {@link #unhealthyThreshold(int)} consecutive failures, returning after {@link #healthyThreshold(int)} consecutive
+ * successes. If no endpoint is healthy, the selection falls back to all endpoints.
+ * <p>
+ * The endpoints of a group are probed one at a time, each probe bounded by {@link #timeout(int)}. Groups that share a
+ * host also share its limit of {@link #maxProbesPerHost(int)} probes in flight, so the checks do not become a load
+ * source themselves.
+ *
+ * <pre>
+ * EndpointGroup group = EndpointGroup.of("http://10.0.0.1:8080", "http://10.0.0.2:8080")
+ *         .healthCheck("/health")
+ *         .interval(5000)
+ *         .start();
+ *
+ * Map&lt;String, Object&gt; user = group.request("/users/{ID}")
+ *         .path("ID", "1")
+ *         .execute()
+ *         .fromJson();
+ * </pre>
+ *
+ * @author Alex Rodin <contato@alexrodin.info>
+ */
+public final class EndpointGroup implements Closeable {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    /**
+     * Probes em andamento por host (host:porta), compartilhado entre todos os grupos
+     */
+    private static final ConcurrentMap<String, AtomicInteger> PROBES_IN_FLIGHT = new ConcurrentHashMap<>();
+
+    private final List<Endpoint> endpoints;
+
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile Endpoint[] healthy;
+
+    private String healthCheckPath;
+
+    private long interval = 10000;
+
+    private int timeout = 2000;
+
+    private int healthyThreshold = 2;
+
+    private int unhealthyThreshold = 3;
+
+    private int maxProbesPerHost = 1;
+
+    private ScheduledExecutorService scheduler;
+
+    private ScheduledFuture<?> task;
+
+    private EndpointGroup(final List<Endpoint> endpoints) {
+        this.endpoints = Collections.unmodifiableList(endpoints);
+        this.healthy = endpoints.toArray(new Endpoint[0]);
+    }
+
+    public static EndpointGroup of(final String... baseUrls) {
+        if (baseUrls == null || baseUrls.length == 0) {
+            throw new IllegalArgumentException("At least one endpoint is required");
+        }
+        final List<Endpoint> endpoints = new ArrayList<>(baseUrls.length);
+        for (String baseUrl : baseUrls) {
+            endpoints.add(new Endpoint(baseUrl));
+        }
+        return new EndpointGroup(endpoints);
+    }
+
+    /**
+     * Path requested on each endpoint to check its health. A response with status 2xx is considered healthy.
+     *
+     * @param path
+     * @return
+     */
+    public EndpointGroup healthCheck(final String path) {
+        this.healthCheckPath = path;
+        return this;
+    }
+
+    /**
+     * Interval between health checks, in milliseconds. Default is 10 seconds
+     *
+     * @param interval
+     * @return
+     */
+    public EndpointGroup interval(final long interval) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Interval must be positive");
+        }
+        this.interval = interval;
+        return this;
+    }
+
+    /**
+     * Timeout of each health check request, in milliseconds, applied to the connection, to each read and to the whole
+     * request. Default is 2 seconds
+     *
+     * @param timeout
+     * @return
+     */
+    public EndpointGroup timeout(final int timeout) {
+        this.timeout = timeout;
+        return this;
+    }
+
+    /**
+     * Consecutive successful checks required to put an unhealthy endpoint back in the selection. Default is 2
+     *
+     * @param healthyThreshold
+     * @return
+     */
+    public EndpointGroup healthyThreshold(final int healthyThreshold) {
+        if (healthyThreshold < 1) {
+            throw new IllegalArgumentException("Threshold must be at least 1");
+        }
+        this.healthyThreshold = healthyThreshold;
+        return this;
+    }
+
+    /**
+     * Consecutive failed checks required to take a healthy endpoint out of the selection. Default is 3
+     *
+     * @param unhealthyThreshold
+     * @return
+     */
+    public EndpointGroup unhealthyThreshold(final int unhealthyThreshold) {
+        if (unhealthyThreshold < 1) {
+            throw new IllegalArgumentException("Threshold must be at least 1");
+        }
+        this.unhealthyThreshold = unhealthyThreshold;
+        return this;
+    }
+
+    /**
+     * Maximum number of health checks in flight for the same host, counting the probes of all groups. When the limit
+     * is reached the probe is skipped, without changing the state of the endpoint. Default is 1
+     *
+     * @param maxProbesPerHost
+     * @return
+     */
+    public EndpointGroup maxProbesPerHost(final int maxProbesPerHost) {
+        if (maxProbesPerHost < 1) {
+            throw new IllegalArgumentException("Max probes per host must be at least 1");
+        }
+        this.maxProbesPerHost = maxProbesPerHost;
+        return this;
+    }
+
+    /**
+     * Starts the background health checks. Does nothing if no health check path was defined.
+     *
+     * @return
+     */
+    public synchronized EndpointGroup start() {
+        if (healthCheckPath == null || task != null) {
+            return this;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "http-request-health-" + THREAD_COUNT.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        task = scheduler.scheduleWithFixedDelay(this::checkAll, 0, interval, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    /**
+     * Stops the background health checks
+     */
+    @Override
+    public synchronized void close() {
+        if (task != null) {
+            task.cancel(true);
+            task = null;
+        }
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Selects the base url for the next request (round-robin between the healthy endpoints)
+     *
+     * @return
+     */
+    public String select() {
+        Endpoint[] candidates = healthy;
+        if (candidates.length == 0) {
+            // Nenhum endpoint saudável, distribui entre todos
+            return endpoints.get((next.getAndIncrement() & Integer.MAX_VALUE) % endpoints.size()).baseUrl;
+        }
+        return candidates[(next.getAndIncrement() & Integer.MAX_VALUE) % candidates.length].baseUrl;
+    }
+
+    /**
+     * Creates a request for the given path on the next selected endpoint
+     *
+     * @param path
+     * @return
+     */
+    public HttpRequest request(final String path) {
+        return HttpRequest.build(select() + path);
+    }
+
+    /**
+     * @param baseUrl
+     * @return true if the endpoint is currently part of the selection
+     */
+    public boolean isHealthy(final String baseUrl) {
+        for (Endpoint endpoint : endpoints) {
+            if (endpoint.baseUrl.equals(baseUrl)) {
+                return endpoint.healthy;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Os endpoints são checados em série por uma única thread, então existe no máximo um probe em andamento por
+     * grupo. O limite por host vale entre os grupos
+     */
+    private void checkAll() {
+        for (Endpoint endpoint : endpoints) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            check(endpoint);
+        }
+    }
+
+    private void check(final Endpoint endpoint) {
+        final AtomicInteger inFlight = PROBES_IN_FLIGHT.computeIfAbsent(endpoint.host, host -> new AtomicInteger());
+        if (inFlight.incrementAndGet() > maxProbesPerHost) {
+            // O host já está sendo checado por outro grupo, esta rodada é ignorada
+            inFlight.decrementAndGet();
+            return;
+        }
+
+        boolean success;
+        try {
+            // O deadline limita o probe inteiro, um servidor que aceita a conexão e não responde não trava a checagem
+            success = HttpRequest.build(endpoint.baseUrl + healthCheckPath)
+                    .timeout(timeout)
+                    .readTimeout(timeout)
+                    .deadline(timeout)
+                    .execute()
+                    .isSuccess();
+        } catch (Exception e) {
+            success = false;
+        } finally {
+            inFlight.decrementAndGet();
+        }
+
+        boolean changed = false;
+        if (success) {
+            endpoint.failures = 0;
+            if (!endpoint.healthy && ++endpoint.successes >= healthyThreshold) {
+                endpoint.healthy = true;
+                changed = true;
+            }
+        } else {
+            endpoint.successes = 0;
+            if (endpoint.healthy && ++endpoint.failures >= unhealthyThreshold) {
+                endpoint.healthy = false;
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            List<Endpoint> list = new ArrayList<>(endpoints.size());
+            for (Endpoint e : endpoints) {
+                if (e.healthy) {
+                    list.add(e);
+                }
+            }
+            healthy = list.toArray(new Endpoint[0]);
+        }
+    }
+
+    private static final class Endpoint {
+
+        final String baseUrl;
+
+        /**
+         * host:porta, chave do limite de probes por host
+         */
+        final String host;
+
+        volatile boolean healthy = true;
+
+        int successes;
+
+        int failures;
+
+        Endpoint(final String baseUrl) {
+            this.baseUrl = baseUrl;
+            this.host = host(baseUrl);
+        }
+
+        private static String host(final String baseUrl) {
+            try {
+                final URL url = new URL(baseUrl);
+                return url.getHost().toLowerCase(Locale.ROOT) + ":" + (url.getPort() != -1 ? url.getPort() : url.getDefaultPort());
+            } catch (MalformedURLException e) {
+                // O probe falha de qualquer forma
+                return baseUrl;
+            }
+        }
+    }
+}
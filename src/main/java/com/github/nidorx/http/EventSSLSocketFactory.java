@@ -0,0 +1,83 @@
+package com.github.nidorx.http;
+
+import javax.net.ssl.SSLSocketFactory;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * SSLSocketFactory usada quando existe um {@link HttpEventListener}, para identificar o início do handshake TLS.
+ * <p>
+ * Não implementa {@link #createSocket()}, fazendo com que o HttpsURLConnection conecte um socket TCP comum e depois
+ * crie a camada TLS sobre ele, em {@link #createSocket(Socket, String, int, boolean)}.
+ * <p>
+ * Existe uma única instância por factory original, para não impedir o reuso das conexões keep-alive (o cache de
+ * conexões do HttpsURLConnection compara a factory).
+ */
+final class EventSSLSocketFactory extends SSLSocketFactory {
+
+    private static final Map<SSLSocketFactory, EventSSLSocketFactory> INSTANCES = new ConcurrentHashMap<>();
+
+    /**
+     * Chamada sendo conectada na thread atual
+     */
+    static final ThreadLocal<HttpCall> CURRENT_CALL = new ThreadLocal<>();
+
+    private final SSLSocketFactory delegate;
+
+    private EventSSLSocketFactory(final SSLSocketFactory delegate) {
+        this.delegate = delegate;
+    }
+
+    static SSLSocketFactory wrap(final SSLSocketFactory factory) {
+        if (factory instanceof EventSSLSocketFactory) {
+            return factory;
+        }
+        return INSTANCES.computeIfAbsent(factory, EventSSLSocketFactory::new);
+    }
+
+    @Override
+    public Socket createSocket(final Socket socket, final String host, final int port, final boolean autoClose)
+            throws IOException {
+        final HttpCall call = CURRENT_CALL.get();
+        if (call != null) {
+            call.secureConnectStart = System.nanoTime();
+            call.listener.secureConnectStart(call, call.secureConnectStart);
+        }
+        return delegate.createSocket(socket, host, port, autoClose);
+    }
+
+    @Override
+    public String[] getDefaultCipherSuites() {
+        return delegate.getDefaultCipherSuites();
+    }
+
+    @Override
+    public String[] getSupportedCipherSuites() {
+        return delegate.getSupportedCipherSuites();
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port) throws IOException {
+        return delegate.createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(final String host, final int port, final InetAddress localHost, final int localPort)
+            throws IOException {
+        return delegate.createSocket(host, port, localHost, localPort);
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress host, final int port) throws IOException {
+        return delegate.createSocket(host, port);
+    }
+
+    @Override
+    public Socket createSocket(final InetAddress address, final int port, final InetAddress localAddress,
+                               final int localPort) throws IOException {
+        return delegate.createSocket(address, port, localAddress, localPort);
+    }
+}
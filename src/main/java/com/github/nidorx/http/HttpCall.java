@@ -0,0 +1,187 @@
+package com.github.nidorx.http;
+
+/**
+ * A single execution of a {@link HttpRequest}, passed to the {@link HttpEventListener} callbacks.
+ * <p>
+ * Keeps the timestamps ({@link System#nanoTime()}) of each phase already executed, so listeners can compute durations
+ * without keeping state. A timestamp is zero when the phase did not happen (ex. TLS handshake on http or on a reused
+ * keep-alive connection, request body without data).
+ * <p>
+ * The DNS and connect phases are always recorded, as {@link java.net.HttpURLConnection} does not tell when a
+ * keep-alive connection is reused: in that case DNS is answered by the cache of the JVM and connect only takes the
+ * connection from the pool, so both are close to zero.
+ */
+public final class HttpCall {
+
+    final String url;
+
+    final String method;
+
+    final HttpEventListener listener;
+
+    String finalUrl;
+
+    String host;
+
+    int statusCode;
+
+    long callStart;
+
+    long dnsStart;
+
+    long dnsEnd;
+
+    long connectStart;
+
+    long connectEnd;
+
+    long secureConnectStart;
+
+    long secureConnectEnd;
+
+    long requestWriteStart;
+
+    long requestWriteEnd;
+
+    long firstByte;
+
+    long bodyEnd;
+
+    long callEnd;
+
+    long decodeNanos;
+
+    long bindNanos;
+
+    long bytesSent;
+
+    long bytesReceived;
+
+    long bytesDecoded;
+
+    HttpCall(final String url, final String method, final HttpEventListener listener) {
+        this.url = url;
+        this.method = method;
+        this.listener = listener;
+    }
+
+    /**
+     * @return the url template of the request, before replacing the path params (ex. "/users/{ID}")
+     */
+    public String getUrl() {
+        return url;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * @return the url requested, with the path and query params
+     */
+    public String getFinalUrl() {
+        return finalUrl;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * @return the response status code, zero before the response headers are received
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public long getCallStart() {
+        return callStart;
+    }
+
+    public long getDnsStart() {
+        return dnsStart;
+    }
+
+    public long getDnsEnd() {
+        return dnsEnd;
+    }
+
+    public long getConnectStart() {
+        return connectStart;
+    }
+
+    public long getConnectEnd() {
+        return connectEnd;
+    }
+
+    public long getSecureConnectStart() {
+        return secureConnectStart;
+    }
+
+    public long getSecureConnectEnd() {
+        return secureConnectEnd;
+    }
+
+    public long getRequestWriteStart() {
+        return requestWriteStart;
+    }
+
+    public long getRequestWriteEnd() {
+        return requestWriteEnd;
+    }
+
+    /**
+     * @return the timestamp when the status line and headers of the response were received
+     */
+    public long getFirstByte() {
+        return firstByte;
+    }
+
+    public long getBodyEnd() {
+        return bodyEnd;
+    }
+
+    public long getCallEnd() {
+        return callEnd;
+    }
+
+    /**
+     * @return the time spent decoding the body (ex. gzip), in nanoseconds. Decoding is interleaved with the body read
+     */
+    public long getDecodeNanos() {
+        return decodeNanos;
+    }
+
+    /**
+     * @return the total time spent binding the JSON body with {@link HttpResponse#fromJson()}, in nanoseconds
+     */
+    public long getBindNanos() {
+        return bindNanos;
+    }
+
+    /**
+     * @return the size of the request body sent
+     */
+    public long getBytesSent() {
+        return bytesSent;
+    }
+
+    /**
+     * @return the size of the response body received from the network, before decoding
+     */
+    public long getBytesReceived() {
+        return bytesReceived;
+    }
+
+    /**
+     * @return the size of the response body after decoding (ex. gzip)
+     */
+    public long getBytesDecoded() {
+        return bytesDecoded;
+    }
+
+    @Override
+    public String toString() {
+        return method + " " + (finalUrl != null ? finalUrl : url);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.nidorx.http;
+
+import java.lang.reflect.Type;
+
+/**
+ * Listener for the phases of the execution of a {@link HttpRequest}.
+ * <p>
+ * All timestamps are from {@link System#nanoTime()}. Callbacks are executed in the thread doing the request (the JSON
+ * bind callbacks in the thread calling {@link HttpResponse#fromJson()}), so implementations must be fast and
+ * thread-safe.
+ * <p>
+ * {@link java.net.HttpURLConnection} does not expose the boundaries between DNS, TCP and TLS, so they are measured
+ * around them: DNS is resolved (and cached by the JVM) before connecting, the TLS handshake starts when the TCP socket
+ * is layered and ends when the connection is established.
+ *
+ * @see HttpRequest#eventListener(HttpEventListener)
+ * @see HttpRequest#addGlobalEventListener(HttpEventListener)
+ */
+public interface HttpEventListener {
+
+    default void callStart(HttpCall call, long nanoTime) {
+    }
+
+    default void dnsStart(HttpCall call, long nanoTime) {
+    }
+
+    default void dnsEnd(HttpCall call, long nanoTime) {
+    }
+
+    default void connectStart(HttpCall call, long nanoTime) {
+    }
+
+    default void secureConnectStart(HttpCall call, long nanoTime) {
+    }
+
+    default void secureConnectEnd(HttpCall call, long nanoTime) {
+    }
+
+    default void connectEnd(HttpCall call, long nanoTime) {
+    }
+
+    default void requestWriteStart(HttpCall call, long nanoTime) {
+    }
+
+    default void requestWriteEnd(HttpCall call, long nanoTime, long bytesSent) {
+    }
+
+    /**
+     * The status line and headers of the response were received
+     */
+    default void firstByte(HttpCall call, long nanoTime) {
+    }
+
+    /**
+     * The response body was fully read
+     *
+     * @param bytesReceived size of the body received from the network
+     * @param decodeNanos   time spent decoding the body (ex. gzip) while reading
+     * @param bytesDecoded  size of the body after decoding
+     */
+    default void bodyEnd(HttpCall call, long nanoTime, long bytesReceived, long decodeNanos, long bytesDecoded) {
+    }
+
+    default void callEnd(HttpCall call, long nanoTime) {
+    }
+
+    /**
+     * The call failed, instead of {@link #callEnd(HttpCall, long)}
+     *
+     * @param error the {@link java.io.IOException} of the connection, or the exception thrown while creating the body
+     *              of the request or consuming the response
+     */
+    default void callFailed(HttpCall call, long nanoTime, Exception error) {
+    }
+
+    default void bindStart(HttpCall call, long nanoTime, Type type) {
+    }
+
+    default void bindEnd(HttpCall call, long nanoTime, Type type) {
+    }
+}
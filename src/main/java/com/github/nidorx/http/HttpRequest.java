@@ -1,19 +1,34 @@
 package com.github.nidorx.http;
 
 import com.github.nidorx.http.util.BiConsumerThrowable;
+import com.github.nidorx.http.util.BufferPool;
 import com.github.nidorx.http.util.Callback;
+import com.github.nidorx.http.util.DeflatingOutputStream;
+import com.github.nidorx.http.util.InflatingInputStream;
+import com.github.nidorx.http.util.MeteredInputStream;
 import com.github.nidorx.http.gson.Gson;
 
 import javax.activation.UnsupportedDataTypeException;
+import javax.net.ssl.HttpsURLConnection;
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPInputStream;
+import java.util.zip.Deflater;
 
 /**
  * Objeto padrão para consultas http
@@ -46,11 +61,43 @@ public final class HttpRequest {
 
     public static final String APPLICATION_X_WWW_FORM_URLENCODED = "application/x-www-form-urlencoded; charset=UTF-8";
 
+    public static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+
     private static final Gson OBJECT_MAPPER = new Gson();
     /**
      * Salva a compilação dos regex usados para fazer alteração no PATH de endpoints
      */
     private static final Map<String, Pattern> PATH_REGEX_CACHED = new ConcurrentHashMap<>();
+    /**
+     * Deadline (System.nanoTime) da requisição em execução na thread atual, herdado pelas requisições feitas dentro
+     * dos callbacks
+     */
+    private static final ThreadLocal<Long> CURRENT_DEADLINE = new ThreadLocal<>();
+    /**
+     * Listeners notificados em todas as requisições
+     */
+    private static final List<HttpEventListener> GLOBAL_LISTENERS = new CopyOnWriteArrayList<>();
+    /**
+     * Decodificadores de corpo por Content-Encoding, na ordem de preferência do Accept-Encoding. Substituído a cada
+     * alteração (copy on write)
+     */
+    private static volatile Map<String, ContentDecoder> CONTENT_DECODERS = Collections.emptyMap();
+    /**
+     * Valor do header Accept-Encoding, gerado a partir dos decodificadores registrados
+     */
+    private static volatile String ACCEPT_ENCODING;
+    /**
+     * Maior corpo (Content-Length) alocado de uma só vez, acima disso a leitura é feita em blocos
+     */
+    private static final int MAX_PREALLOCATED_BODY = 8 * 1024 * 1024;
+    /**
+     * Tamanho dos blocos usados na leitura de corpos de tamanho desconhecido
+     */
+    private static final int BODY_CHUNK_SIZE = 64 * 1024;
+    /**
+     * Tamanho dos chunks no envio de corpos comprimidos
+     */
+    private static final int COMPRESSED_CHUNK_SIZE = 16 * 1024;
     /**
      * Permite a depuração dos detalhes da requisição sendo efetuada
      */
@@ -68,8 +115,28 @@ public final class HttpRequest {
 
     private int timeout;
 
+    private int readTimeout;
+
+    private long deadline;
+
+    private volatile boolean canceled;
+
+    private volatile HttpURLConnection connection;
+
     private boolean binary;
 
+    private boolean eagerContent;
+
+    private String compressEncoding;
+
+    private int compressMinSize;
+
+    private int compressLevel;
+
+    private BodySink bodySink;
+
+    private Path uploadFile;
+
     private String method;
 
     private String userAgent;
@@ -78,6 +145,8 @@ public final class HttpRequest {
 
     private CookieManager cookieManager;
 
+    private HttpEventListener eventListener;
+
     private BiConsumerThrowable<HttpResponse, Map<String, Object>> onError;
 
     private BiConsumerThrowable<HttpResponse, Map<String, Object>> onSuccess;
@@ -99,10 +168,85 @@ public final class HttpRequest {
         this.cookieManager = new CookieManager();
     }
 
+    static {
+        final Map<String, ContentDecoder> decoders = new LinkedHashMap<>();
+        decoders.put("gzip", InflatingInputStream::gzip);
+        decoders.put("deflate", InflatingInputStream::deflate);
+        setContentDecoders(decoders);
+    }
+
     public static HttpRequest build(String baseUrl) {
         return new HttpRequest(baseUrl);
     }
 
+    /**
+     * Adds a listener notified of the execution phases of all requests
+     *
+     * @param listener
+     */
+    public static void addGlobalEventListener(final HttpEventListener listener) {
+        if (listener != null) {
+            GLOBAL_LISTENERS.add(listener);
+        }
+    }
+
+    public static void removeGlobalEventListener(final HttpEventListener listener) {
+        GLOBAL_LISTENERS.remove(listener);
+    }
+
+    /**
+     * Registers a decoder for the response bodies with the given "Content-Encoding", also advertised in the
+     * "Accept-Encoding" header of all requests. Replaces the current decoder of the encoding, if any.
+     * <p>
+     * "gzip" and "deflate" are registered by default.
+     *
+     * @param encoding
+     * @param decoder
+     */
+    public static synchronized void addContentDecoder(final String encoding, final ContentDecoder decoder) {
+        final Map<String, ContentDecoder> decoders = new LinkedHashMap<>(CONTENT_DECODERS);
+        decoders.put(encoding.trim().toLowerCase(Locale.ROOT), decoder);
+        setContentDecoders(decoders);
+    }
+
+    public static synchronized void removeContentDecoder(final String encoding) {
+        final Map<String, ContentDecoder> decoders = new LinkedHashMap<>(CONTENT_DECODERS);
+        decoders.remove(encoding.trim().toLowerCase(Locale.ROOT));
+        setContentDecoders(decoders);
+    }
+
+    private static void setContentDecoders(final Map<String, ContentDecoder> decoders) {
+        ACCEPT_ENCODING = decoders.isEmpty() ? "identity" : String.join(", ", decoders.keySet());
+        CONTENT_DECODERS = Collections.unmodifiableMap(decoders);
+    }
+
+    /**
+     * Aplica os decodificadores do Content-Encoding, na ordem inversa da codificação
+     *
+     * @param inputStream
+     * @param contentEncoding
+     * @return o stream decodificado, ou null quando alguma codificação não é suportada
+     * @throws IOException
+     */
+    private static InputStream decode(InputStream inputStream, final String contentEncoding) throws IOException {
+        final Map<String, ContentDecoder> decoders = CONTENT_DECODERS;
+        final String[] encodings = contentEncoding.split(",");
+        for (String encoding : encodings) {
+            encoding = encoding.trim().toLowerCase(Locale.ROOT);
+            if (!encoding.isEmpty() && !encoding.equals("identity") && !decoders.containsKey(encoding)) {
+                return null;
+            }
+        }
+        for (int i = encodings.length - 1; i >= 0; i--) {
+            final String encoding = encodings[i].trim().toLowerCase(Locale.ROOT);
+            final ContentDecoder decoder = decoders.get(encoding);
+            if (decoder != null) {
+                inputStream = decoder.decode(inputStream);
+            }
+        }
+        return inputStream;
+    }
+
     /**
      * Gera a query string para compor a url final
      *
@@ -134,11 +278,13 @@ public final class HttpRequest {
 
     /**
      * Gera os bytes quando o tipo de requisição for um POST ou PUT
+     * <p>
+     * Package-private para os benchmarks
      *
      * @param postData
      * @return
      */
-    private static byte[] generatePostData(Object postData, final String contentType) throws IOException {
+    static byte[] generatePostData(Object postData, final String contentType) throws IOException {
 
         if (postData == null) {
             return null;
@@ -202,7 +348,7 @@ public final class HttpRequest {
     }
 
     /**
-     * Define o timeout da requisição. Padrao de 30 segundos
+     * Define o timeout de conexão da requisição. Padrao de 30 segundos
      *
      * @param timeout
      * @return
@@ -212,6 +358,49 @@ public final class HttpRequest {
         return this;
     }
 
+    /**
+     * Maximum time, in milliseconds, waiting for data from the server (time to first byte and between reads of the
+     * body). Zero (default) waits indefinitely.
+     *
+     * @param readTimeout
+     * @return
+     */
+    public HttpRequest readTimeout(final int readTimeout) {
+        this.readTimeout = readTimeout;
+        return this;
+    }
+
+    /**
+     * Total time, in milliseconds, of the request: connect, time to first byte and body read. When exceeded, the
+     * connection is aborted and a {@link SocketTimeoutException} is thrown. Zero (default) disables the deadline.
+     * <p>
+     * Requests executed inside the callbacks ({@link #success}, {@link #error}, {@link #complete} and
+     * {@link #execute(Callback)}) are bounded by the remaining time of this deadline.
+     *
+     * @param deadline
+     * @return
+     */
+    public HttpRequest deadline(final long deadline) {
+        this.deadline = deadline;
+        return this;
+    }
+
+    /**
+     * Aborts the request in execution, closing the underlying connection. Any later execution of this request fails
+     * immediately.
+     */
+    public void cancel() {
+        this.canceled = true;
+        final HttpURLConnection conn = this.connection;
+        if (conn != null) {
+            conn.disconnect();
+        }
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
 
     /**
      * Define que o resultado esperado é um binário. Ex. Download
@@ -224,6 +413,108 @@ public final class HttpRequest {
         return this;
     }
 
+    /**
+     * Decodifica o corpo ao receber a resposta, preenchendo o campo {@link HttpResponse#content}. Apenas para o código
+     * que ainda lê o campo, {@link HttpResponse#getContent()} decodifica o corpo sob demanda
+     *
+     * @param eagerContent
+     * @return
+     */
+    public HttpRequest eagerContent(final boolean eagerContent) {
+        this.eagerContent = eagerContent;
+        return this;
+    }
+
+    /**
+     * Compresses the POST/PUT body with gzip (default level) when it has at least minSize bytes
+     *
+     * @param minSize
+     * @return
+     * @see #compress(String, int, int)
+     */
+    public HttpRequest compress(final int minSize) {
+        return compress(DeflatingOutputStream.GZIP, minSize, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * Compresses the POST/PUT body when it has at least minSize bytes, sending the "Content-Encoding" header. The
+     * server must support the encoding.
+     * <p>
+     * The compressed body is streamed with chunked transfer encoding, so redirects and authentication retries are not
+     * followed for these requests (HttpRetryException).
+     *
+     * @param encoding "gzip" or "deflate", null to disable
+     * @param minSize  smaller bodies are sent uncompressed
+     * @param level    compression level, from 0 to 9 or -1 for the default level
+     * @return
+     */
+    public HttpRequest compress(final String encoding, final int minSize, final int level) {
+        if (encoding != null && !DeflatingOutputStream.isSupported(encoding)) {
+            throw new IllegalArgumentException("Unsupported encoding: " + encoding);
+        }
+        if (level < -1 || level > 9) {
+            throw new IllegalArgumentException("Invalid compression level: " + level);
+        }
+        this.compressEncoding = encoding;
+        this.compressMinSize = minSize;
+        this.compressLevel = level;
+        return this;
+    }
+
+    /**
+     * Writes the body of a successful response (status 2xx) directly to the file, replacing it. The body is not kept
+     * in {@link HttpResponse#data}. The file is not opened for redirects (3xx, including 304 Not Modified) and errors,
+     * so an existing file is kept, and their bodies are kept in {@link HttpResponse#data}, as usual.
+     *
+     * @param target
+     * @return
+     */
+    public HttpRequest downloadTo(final Path target) {
+        return bodySink((response, body) -> {
+            try (FileChannel channel = FileChannel.open(target,
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                final byte[] buffer = BufferPool.DEFAULT.acquire(BODY_CHUNK_SIZE);
+                try {
+                    final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+                    int n;
+                    while ((n = body.read(buffer, 0, buffer.length)) != -1) {
+                        wrapper.clear().limit(n);
+                        while (wrapper.hasRemaining()) {
+                            channel.write(wrapper);
+                        }
+                    }
+                } finally {
+                    BufferPool.DEFAULT.release(buffer);
+                }
+            }
+        });
+    }
+
+    /**
+     * Sends the file as the body of the POST/PUT request, streamed with its exact size (or compressed, see
+     * {@link #compress(String, int, int)}). Replaces the {@link #data(Object)}. The content type defaults to
+     * "application/octet-stream".
+     *
+     * @param file
+     * @return
+     */
+    public HttpRequest uploadFrom(final Path file) {
+        this.uploadFile = file;
+        return this;
+    }
+
+    /**
+     * Consome o corpo das respostas de sucesso (2xx) em streaming, ao invés de mantê-lo em {@link HttpResponse#data}.
+     * Redirecionamentos e erros são lidos normalmente
+     *
+     * @param bodySink
+     * @return
+     */
+    HttpRequest bodySink(final BodySink bodySink) {
+        this.bodySink = bodySink;
+        return this;
+    }
+
     /**
      * Define o UserAgent
      *
@@ -259,6 +550,17 @@ public final class HttpRequest {
         return this;
     }
 
+    /**
+     * Listener notified of the execution phases of this request (in addition to the global listeners)
+     *
+     * @param eventListener
+     * @return
+     */
+    public HttpRequest eventListener(final HttpEventListener eventListener) {
+        this.eventListener = eventListener;
+        return this;
+    }
+
     /**
      * Permite definir parametros do path
      *
@@ -485,23 +787,55 @@ public final class HttpRequest {
     }
 
     public <T> T execute(final Callback<HttpResponse, Map<String, Object>, T> callback) throws Exception {
-        final HttpResponse response = executeRequest();
+        final Long inherited = CURRENT_DEADLINE.get();
+        final long deadlineNanos = deadlineNanos(inherited);
+        final HttpResponse response = executeRequest(deadlineNanos);
         final Map<String, Object> context = new HashMap<>();
-        if (response.statusCode < 400 && onSuccess != null) {
-            // On success
-            onSuccess.accept(response, context);
-        } else if (response.statusCode >= 400 && onError != null) {
-            // On Error
-            onError.accept(response, context);
+
+        // As requisições feitas dentro dos callbacks herdam o deadline desta requisição
+        if (deadlineNanos != 0) {
+            CURRENT_DEADLINE.set(deadlineNanos);
         }
+        try {
+            if (response.statusCode < 400 && onSuccess != null) {
+                // On success
+                onSuccess.accept(response, context);
+            } else if (response.statusCode >= 400 && onError != null) {
+                // On Error
+                onError.accept(response, context);
+            }
 
-        // On Complete
-        if (onComplete != null) {
-            onComplete.accept(response, context);
+            // On Complete
+            if (onComplete != null) {
+                onComplete.accept(response, context);
+            }
+
+            // Callback
+            return callback.apply(response, context);
+        } finally {
+            if (inherited == null) {
+                CURRENT_DEADLINE.remove();
+            } else {
+                CURRENT_DEADLINE.set(inherited);
+            }
         }
+    }
 
-        // Callback
-        return callback.apply(response, context);
+    /**
+     * Calcula o deadline (System.nanoTime) efetivo da requisição, considerando o deadline herdado
+     *
+     * @param inherited
+     * @return 0 quando não existe deadline
+     */
+    private long deadlineNanos(final Long inherited) {
+        long nanos = 0;
+        if (this.deadline > 0) {
+            nanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(this.deadline);
+        }
+        if (inherited != null && (nanos == 0 || inherited - nanos < 0)) {
+            nanos = inherited;
+        }
+        return nanos;
     }
 
     /**
@@ -522,19 +856,68 @@ public final class HttpRequest {
         return finalUrl;
     }
 
+    /**
+     * @return o listener desta requisição, combinado com os listeners globais. Null quando não existe nenhum
+     */
+    private HttpEventListener resolveEventListener() {
+        if (GLOBAL_LISTENERS.isEmpty()) {
+            return eventListener;
+        }
+        final List<HttpEventListener> listeners = new ArrayList<>(GLOBAL_LISTENERS);
+        if (eventListener != null) {
+            listeners.add(eventListener);
+        }
+        return listeners.size() == 1 ? listeners.get(0) : new CompositeEventListener(listeners);
+    }
+
+    /**
+     * Tempo restante até o deadline, em milisegundos
+     *
+     * @param deadlineNanos
+     * @return
+     * @throws SocketTimeoutException se o deadline já foi excedido
+     */
+    private static int remainingMillis(final long deadlineNanos) throws SocketTimeoutException {
+        final long remaining = TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        if (remaining <= 0) {
+            throw new SocketTimeoutException("Deadline exceeded");
+        }
+        return (int) Math.min(remaining, Integer.MAX_VALUE);
+    }
+
     /**
      * Executa a requisição
+     *
+     * @param deadlineNanos deadline da requisição (System.nanoTime), 0 quando não existe
      */
-    private <T> HttpResponse executeRequest() throws IOException {
+    private HttpResponse executeRequest(final long deadlineNanos) throws IOException {
+        if (canceled) {
+            throw new IOException("Request canceled");
+        }
+
         final String finalUrl = getFinalUrl();
+        final URL connUrl = new URL(finalUrl);
+
+        final HttpEventListener listener = resolveEventListener();
+        final HttpCall call = listener == null ? null : new HttpCall(url, method, listener);
+        if (call != null) {
+            call.finalUrl = finalUrl;
+            call.host = connUrl.getHost();
+            call.callStart = System.nanoTime();
+            listener.callStart(call, call.callStart);
+        }
 
-        Reader reader = null;
-        BufferedReader in = null;
         InputStream inputStream = null;
         DataOutputStream out = null;
+        ScheduledFuture<?> watchdog = null;
+        // Escrito pela thread do watchdog
+        final AtomicBoolean expired = new AtomicBoolean();
         try {
-            final URL connUrl = new URL(finalUrl);
             final HttpURLConnection connection = (HttpURLConnection) connUrl.openConnection();
+            this.connection = connection;
+            if (canceled) {
+                throw new IOException("Request canceled");
+            }
 
             if (method.equals("PATCH")) {
                 // https://stackoverflow.com/a/32503192
@@ -558,11 +941,16 @@ public final class HttpRequest {
 
             connection.setRequestProperty(HEADER_USER_AGENT, this.userAgent);
             connection.setRequestProperty(HEADER_CONTENT_LANGUAGE, "en-US");
-            connection.setRequestProperty(HEADER_ACCEPT_ENCODING, "gzip");
+            connection.setRequestProperty(HEADER_ACCEPT_ENCODING, ACCEPT_ENCODING);
 
 
             if (method.equals("POST") || method.equals("PUT")) {
-                connection.setRequestProperty(HEADER_CONTENT_TYPE, contentType);
+                // Arquivos não são enviados como formulário
+                connection.setRequestProperty(HEADER_CONTENT_TYPE,
+                        uploadFile != null && APPLICATION_X_WWW_FORM_URLENCODED.equals(contentType)
+                                ? APPLICATION_OCTET_STREAM
+                                : contentType
+                );
             }
 
             // Setar os headers da conexão (Sobrescreve os já definidos)
@@ -594,31 +982,117 @@ public final class HttpRequest {
             }
 
             // Timeout de requisição
-            if (this.timeout >= 0) {
-                connection.setConnectTimeout(this.timeout);
+            int connectTimeout = this.timeout;
+            int readTimeout = this.readTimeout;
+            if (deadlineNanos != 0) {
+                final int remaining = remainingMillis(deadlineNanos);
+                connectTimeout = connectTimeout > 0 ? Math.min(connectTimeout, remaining) : remaining;
+                readTimeout = readTimeout > 0 ? Math.min(readTimeout, remaining) : remaining;
+
+                // Aborta a conexão quando o deadline for excedido, mesmo que o servidor continue enviando dados
+                watchdog = Watchdog.SCHEDULER.schedule(() -> {
+                    expired.set(true);
+                    connection.disconnect();
+                }, deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            if (connectTimeout >= 0) {
+                connection.setConnectTimeout(connectTimeout);
+            }
+            if (readTimeout > 0) {
+                connection.setReadTimeout(readTimeout);
             }
 
-            // Enviar dados, formulário
-            if ((method.equals("POST") || method.equals("PUT")) && this.data != null) {
+            // Dados, formulário. Gerados antes de conectar, para definir o modo de envio
+            byte[] data = null;
+            long uploadSize = -1;
+            boolean compressed = false;
+            if ((method.equals("POST") || method.equals("PUT")) && (this.data != null || uploadFile != null)) {
                 connection.setDoOutput(true);
-                final byte[] data = generatePostData(this.data, this.contentType);
-                connection.setRequestProperty("Content-Length", Integer.toString(data.length));
+                if (uploadFile != null) {
+                    uploadSize = Files.size(uploadFile);
+                } else {
+                    data = generatePostData(this.data, this.contentType);
+                    uploadSize = data.length;
+                }
+                compressed = compressEncoding != null && uploadSize >= compressMinSize;
+                if (compressed) {
+                    // Comprime durante o envio, sem bufferizar o corpo novamente
+                    connection.setRequestProperty("Content-Encoding", compressEncoding);
+                    connection.setChunkedStreamingMode(COMPRESSED_CHUNK_SIZE);
+                } else if (uploadFile != null) {
+                    // Envia o arquivo direto para o socket, sem o buffer interno do HttpURLConnection
+                    connection.setFixedLengthStreamingMode(uploadSize);
+                } else {
+                    connection.setRequestProperty("Content-Length", Integer.toString(data.length));
+                }
 
                 if (DEBUG) {
-                    System.out.println("    Content-Length: " + data.length);
-                    debugPostData(this.data, this.contentType);
+                    if (compressed) {
+                        System.out.println("    Content-Encoding: " + compressEncoding);
+                    }
+                    System.out.println("    Content-Length: " + uploadSize);
+                    if (uploadFile != null) {
+                        System.out.println("    File: " + uploadFile);
+                    } else {
+                        debugPostData(this.data, this.contentType);
+                    }
                 }
+            }
 
-                out = new DataOutputStream(connection.getOutputStream());
-                out.write(data);
-                out.close();
+            if (call != null) {
+                connect(call, connUrl, connection);
             }
 
-            final HttpResponse response = new HttpResponse();
+            // Enviar dados, formulário
+            if (uploadSize >= 0) {
+                if (call != null) {
+                    call.requestWriteStart = System.nanoTime();
+                    listener.requestWriteStart(call, call.requestWriteStart);
+                }
+
+                long bytesSent = uploadSize;
+                if (compressed) {
+                    final DeflatingOutputStream deflating = DeflatingOutputStream.create(
+                            compressEncoding, connection.getOutputStream(), compressLevel
+                    );
+                    try {
+                        if (uploadFile != null) {
+                            writeFile(uploadFile, deflating);
+                        } else {
+                            deflating.write(data);
+                        }
+                    } finally {
+                        deflating.close();
+                    }
+                    bytesSent = deflating.getCompressedSize();
+                } else {
+                    out = new DataOutputStream(connection.getOutputStream());
+                    if (uploadFile != null) {
+                        writeFile(uploadFile, out);
+                    } else {
+                        out.write(data);
+                    }
+                    out.close();
+                }
+
+                if (call != null) {
+                    call.bytesSent = bytesSent;
+                    call.requestWriteEnd = System.nanoTime();
+                    listener.requestWriteEnd(call, call.requestWriteEnd, call.bytesSent);
+                }
+            }
 
+            final HttpResponse response = new HttpResponse();
+            response.call = call;
 
             response.statusCode = connection.getResponseCode();
 
+            if (call != null) {
+                call.statusCode = response.statusCode;
+                call.firstByte = System.nanoTime();
+                listener.firstByte(call, call.firstByte);
+            }
+
             if (response.statusCode < 400) {
                 // Informational || OK || Redirect
                 inputStream = connection.getInputStream();
@@ -627,8 +1101,32 @@ public final class HttpRequest {
                 inputStream = connection.getErrorStream();
             }
 
-            if ("gzip".equals(connection.getContentEncoding())) {
-                inputStream = new GZIPInputStream(inputStream);
+            if (inputStream == null) {
+                // Resposta de erro sem corpo
+                inputStream = new ByteArrayInputStream(new byte[0]);
+            }
+
+            // Mede os bytes recebidos e o tempo gasto na decodificação (leitura total - leitura da rede)
+            MeteredInputStream received = null;
+            MeteredInputStream decoded = null;
+            if (call != null) {
+                inputStream = received = new MeteredInputStream(inputStream);
+            }
+
+            final String contentEncoding = connection.getContentEncoding();
+            boolean encoded = false;
+            if (contentEncoding != null) {
+                final InputStream decodedStream = decode(inputStream, contentEncoding);
+                // Codificação não suportada, mantém o corpo original
+                encoded = decodedStream != null && decodedStream != inputStream;
+                if (encoded) {
+                    inputStream = decodedStream;
+                }
+            }
+            if (encoded) {
+                if (received != null) {
+                    inputStream = decoded = new MeteredInputStream(inputStream);
+                }
             }
 
 
@@ -660,48 +1158,209 @@ public final class HttpRequest {
             // Seta a referencia para o gerenciador de cookie usado na resposta
             response.cookieManager = this.cookieManager;
 
-            if (this.binary) {
-                ByteArrayOutputStream buffer = new ByteArrayOutputStream();
-
-                int nRead;
-                byte[] data = new byte[16384];
-
-                while ((nRead = inputStream.read(data, 0, data.length)) != -1) {
-                    buffer.write(data, 0, nRead);
-                }
-
-                response.data = buffer.toByteArray();
+            if (bodySink != null && response.statusCode >= 200 && response.statusCode < 300) {
+                // Corpo consumido em streaming
+                bodySink.accept(response, inputStream);
             } else {
+                // Sem codificação, o Content-Length é o tamanho exato do corpo. O texto é decodificado sob demanda
+                response.data = readBody(inputStream, !encoded ? connection.getContentLengthLong() : -1);
+            }
+            response.binary = this.binary;
+            if (this.eagerContent && !this.binary && response.data != null) {
+                // Compatibilidade com o campo público HttpResponse.content
+                response.getContent();
+            }
 
-                // Accept-Encoding : gzip
-                reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8);
-
-                in = new BufferedReader(reader);
-                final StringBuilder body = new StringBuilder();
-                String inputLine;
-                while ((inputLine = in.readLine()) != null) {
-                    body.append(inputLine);
-                    body.append('\r');
+            if (call != null) {
+                call.bodyEnd = System.nanoTime();
+                if (received != null) {
+                    call.bytesReceived = received.getBytes();
+                    call.bytesDecoded = received.getBytes();
+                }
+                if (decoded != null) {
+                    call.bytesDecoded = decoded.getBytes();
+                    call.decodeNanos = Math.max(0, decoded.getNanos() - received.getNanos());
                 }
-                response.content = body.toString();
+                listener.bodyEnd(call, call.bodyEnd, call.bytesReceived, call.decodeNanos, call.bytesDecoded);
+                call.callEnd = System.nanoTime();
+                listener.callEnd(call, call.callEnd);
             }
 
-
             return response;
+        } catch (IOException e) {
+            IOException error = e;
+            if (canceled) {
+                error = new IOException("Request canceled", e);
+            } else if (expired.get()) {
+                error = new SocketTimeoutException("Deadline exceeded");
+                error.initCause(e);
+            }
+            if (call != null) {
+                call.callEnd = System.nanoTime();
+                listener.callFailed(call, call.callEnd, error);
+            }
+            throw error;
+        } catch (RuntimeException e) {
+            // Ex. JsonIOException na geração dos dados ou erro do BodySink. Quando o próprio callEnd falha, o listener
+            // já foi notificado
+            if (call != null && call.callEnd == 0) {
+                call.callEnd = System.nanoTime();
+                listener.callFailed(call, call.callEnd, e);
+            }
+            throw e;
         } finally {
+            if (watchdog != null) {
+                watchdog.cancel(false);
+            }
+            this.connection = null;
             if (out != null) {
                 out.close();
             }
-            if (in != null) {
-                in.close();
-            }
-            if (reader != null) {
-                reader.close();
-            }
             if (inputStream != null) {
                 inputStream.close();
             }
         }
     }
-}
 
+    /**
+     * Abre a conexão de forma explícita, notificando o listener sobre as fases de DNS, conexão e handshake TLS
+     *
+     * @param call
+     * @param connUrl
+     * @param connection
+     * @throws IOException
+     */
+    private static void connect(final HttpCall call, final URL connUrl, final HttpURLConnection connection)
+            throws IOException {
+        final HttpEventListener listener = call.listener;
+
+        // Resolve o DNS antes de conectar, a conexão usa o resultado do cache de DNS da JVM
+        call.dnsStart = System.nanoTime();
+        listener.dnsStart(call, call.dnsStart);
+        InetAddress.getAllByName(call.host);
+        call.dnsEnd = System.nanoTime();
+        listener.dnsEnd(call, call.dnsEnd);
+
+        if (connection instanceof HttpsURLConnection) {
+            final HttpsURLConnection https = (HttpsURLConnection) connection;
+            https.setSSLSocketFactory(EventSSLSocketFactory.wrap(https.getSSLSocketFactory()));
+        }
+
+        call.connectStart = System.nanoTime();
+        listener.connectStart(call, call.connectStart);
+        EventSSLSocketFactory.CURRENT_CALL.set(call);
+        try {
+            connection.connect();
+        } finally {
+            EventSSLSocketFactory.CURRENT_CALL.remove();
+        }
+        final long now = System.nanoTime();
+        if (call.secureConnectStart != 0) {
+            call.secureConnectEnd = now;
+            listener.secureConnectEnd(call, now);
+        }
+        call.connectEnd = now;
+        listener.connectEnd(call, now);
+    }
+
+    /**
+     * Copia o arquivo para o corpo da requisição, usando um buffer do {@link BufferPool}
+     *
+     * @param file
+     * @param out
+     * @throws IOException
+     */
+    private static void writeFile(final Path file, final OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            final byte[] buffer = BufferPool.DEFAULT.acquire(BODY_CHUNK_SIZE);
+            try {
+                final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+                int n;
+                while ((n = channel.read(wrapper)) != -1) {
+                    out.write(buffer, 0, n);
+                    wrapper.clear();
+                }
+            } finally {
+                BufferPool.DEFAULT.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Lê todo o corpo da resposta.
+     * <p>
+     * Quando o tamanho é conhecido, lê direto no array final. Caso contrário, lê em blocos obtidos do
+     * {@link BufferPool} e copia uma única vez para o array de tamanho exato.
+     *
+     * @param inputStream
+     * @param contentLength tamanho do corpo, -1 quando desconhecido
+     * @return
+     * @throws IOException
+     */
+    private static byte[] readBody(final InputStream inputStream, final long contentLength) throws IOException {
+        if (contentLength == 0) {
+            return new byte[0];
+        }
+
+        if (contentLength > 0 && contentLength <= MAX_PREALLOCATED_BODY) {
+            final byte[] data = new byte[(int) contentLength];
+            int total = 0;
+            int nRead;
+            while (total < data.length && (nRead = inputStream.read(data, total, data.length - total)) != -1) {
+                total += nRead;
+            }
+            // Conexão encerrada antes do fim do corpo
+            return total == data.length ? data : Arrays.copyOf(data, total);
+        }
+
+        final List<byte[]> chunks = new ArrayList<>();
+        try {
+            byte[] chunk = BufferPool.DEFAULT.acquire(BODY_CHUNK_SIZE);
+            chunks.add(chunk);
+            long total = 0;
+            int position = 0;
+            int nRead;
+            while ((nRead = inputStream.read(chunk, position, chunk.length - position)) != -1) {
+                position += nRead;
+                total += nRead;
+                if (position == chunk.length) {
+                    chunk = BufferPool.DEFAULT.acquire(BODY_CHUNK_SIZE);
+                    chunks.add(chunk);
+                    position = 0;
+                }
+            }
+            if (total > Integer.MAX_VALUE - 8) {
+                throw new IOException("Response body too large: " + total + " bytes");
+            }
+
+            final byte[] data = new byte[(int) total];
+            int offset = 0;
+            for (byte[] c : chunks) {
+                final int length = (int) Math.min(c.length, total - offset);
+                System.arraycopy(c, 0, data, offset, length);
+                offset += length;
+            }
+            return data;
+        } finally {
+            for (byte[] c : chunks) {
+                BufferPool.DEFAULT.release(c);
+            }
+        }
+    }
+
+    /**
+     * Agendador usado para abortar as requisições que excedem o deadline
+     */
+    private static final class Watchdog {
+
+        static final ScheduledThreadPoolExecutor SCHEDULER = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "http-request-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        static {
+            SCHEDULER.setRemoveOnCancelPolicy(true);
+        }
+    }
+}
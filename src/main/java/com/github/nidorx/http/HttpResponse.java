@@ -3,11 +3,32 @@ package com.github.nidorx.http;
 
 import com.github.nidorx.http.util.ParameterizedTypeReference;
 import com.github.nidorx.http.gson.Gson;
+import com.github.nidorx.http.gson.JsonDocument;
+import com.github.nidorx.http.gson.JsonElement;
+import com.github.nidorx.http.gson.JsonIOException;
+import com.github.nidorx.http.gson.JsonProjection;
+import com.github.nidorx.http.gson.JsonSyntaxException;
+import com.github.nidorx.http.gson.TypeAdapter;
+import com.github.nidorx.http.gson.internal.Streams;
+import com.github.nidorx.http.gson.reflect.TypeToken;
+import com.github.nidorx.http.gson.stream.JsonReader;
+import com.github.nidorx.http.gson.stream.MalformedJsonException;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.lang.reflect.Type;
 import java.net.CookieManager;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -22,49 +43,328 @@ public class HttpResponse {
 
     public Map<String, List<String>> headers;
 
-    public String content;
-
+    /**
+     * Corpo da resposta, sem decodificação de charset
+     */
     public byte[] data;
 
     public CookieManager cookieManager;
 
+    /**
+     * Execução que gerou esta resposta, null quando não existe {@link HttpEventListener}
+     */
+    HttpCall call;
 
-    public Map<String, Object> fromJson() throws Exception {
-        if (content == null || content.isEmpty()) {
-            return null;
+    /**
+     * Resposta de uma requisição {@link HttpRequest#binary(boolean)}, não é decodificada para texto
+     */
+    boolean binary;
+
+    /**
+     * Corpo da resposta decodificado para texto, preenchido ao receber a resposta somente com
+     * {@link HttpRequest#eagerContent(boolean)}, ou após a primeira chamada de {@link #getContent()}
+     *
+     * @deprecated use {@link #getContent()}, que decodifica o corpo com o charset do Content-Type
+     */
+    @Deprecated
+    public volatile String content;
+
+    /**
+     * Árvore do corpo, lida uma única vez na primeira conversão, usada por todas as conversões seguintes. Acesso
+     * protegido pelo lock da resposta
+     */
+    private JsonElement tree;
+
+    /**
+     * Documento lazy do corpo, criado sob demanda por {@link #getJsonDocument()}
+     */
+    private JsonDocument document;
+
+    /**
+     * Decodes the body using the charset of the Content-Type header (UTF-8 when absent). The body is decoded only
+     * once, on the first call (or when received, with {@link HttpRequest#eagerContent(boolean)}), and is also
+     * available in {@link #content}
+     *
+     * @return the body as text, null for binary requests
+     */
+    public String getContent() {
+        String text = content;
+        if (text == null && data != null && !binary) {
+            synchronized (this) {
+                text = content;
+                if (text == null) {
+                    content = text = decode(data, getCharset());
+                }
+            }
         }
-        return OBJECT_MAPPER.fromJson(content, HashMap.class);
+        return text;
     }
 
-    public <T> T fromJson(Class<T> classOfT) throws Exception {
-        if (content == null || content.isEmpty()) {
+    /**
+     * @param name
+     * @return the first value of the header, ignoring the case of the name
+     */
+    public String getHeader(final String name) {
+        if (headers == null) {
             return null;
         }
-        return OBJECT_MAPPER.fromJson(content, classOfT);
+        for (Map.Entry<String, List<String>> entry : headers.entrySet()) {
+            if (name.equalsIgnoreCase(entry.getKey()) && entry.getValue() != null && !entry.getValue().isEmpty()) {
+                return entry.getValue().get(0);
+            }
+        }
+        return null;
     }
 
-    public <T> T fromJson(Type typeOfT) throws Exception {
-        if (content == null || content.isEmpty()) {
-            return null;
+    /**
+     * @return the charset declared in the Content-Type header, UTF-8 when absent or not supported
+     */
+    public Charset getCharset() {
+        final String contentType = getHeader(HttpRequest.HEADER_CONTENT_TYPE);
+        if (contentType != null) {
+            for (String param : contentType.split(";")) {
+                param = param.trim();
+                if (param.regionMatches(true, 0, "charset=", 0, 8)) {
+                    String name = param.substring(8).trim();
+                    if (name.length() > 1 && name.charAt(0) == '"' && name.charAt(name.length() - 1) == '"') {
+                        name = name.substring(1, name.length() - 1);
+                    }
+                    try {
+                        return Charset.forName(name);
+                    } catch (IllegalArgumentException e) {
+                        // Charset inválido ou não suportado
+                        break;
+                    }
+                }
+            }
         }
-        return OBJECT_MAPPER.fromJson(content, typeOfT);
+        return StandardCharsets.UTF_8;
+    }
+
+
+    /**
+     * The body is read only once, into the tree of {@link #getJsonTree()}, shared by all the conversions of the
+     * response. Each call returns a new object, that can be changed without affecting the other callers
+     *
+     * @return the body as a map, null when the body is empty
+     */
+    public Map<String, Object> fromJson() throws Exception {
+        return bind(HashMap.class);
     }
 
+    /**
+     * @return a new object converted from the tree of the body, see {@link #fromJson()}
+     */
+    public <T> T fromJson(Class<T> classOfT) throws Exception {
+        return bind(classOfT);
+    }
+
+    /**
+     * @return a new object converted from the tree of the body, see {@link #fromJson()}
+     */
+    public <T> T fromJson(Type typeOfT) throws Exception {
+        return bind(typeOfT);
+    }
+
+    /**
+     * @return a new object converted from the tree of the body, see {@link #fromJson()}
+     */
     public <T> T fromJson(ParameterizedTypeReference<T> parameterizedTypeReferenceOfT) throws Exception {
-        if (content == null || content.isEmpty()) {
-            return null;
-        }
-        return OBJECT_MAPPER.fromJson(content, parameterizedTypeReferenceOfT.getType());
+        return bind(parameterizedTypeReferenceOfT.getType());
     }
 
+    /**
+     * @return a new list converted from the tree of the body, see {@link #fromJson()}
+     */
     public List<Map<String, Object>> fromJsonToList() throws Exception {
-        if (content == null || content.isEmpty()) {
-            return null;
+        return bind(ArrayList.class);
+    }
+
+    /**
+     * @return the body parsed as a JSON tree, null when the body is empty
+     */
+    public JsonElement getJsonTree() {
+        synchronized (this) {
+            if (tree == null && data != null && data.length > 0) {
+                tree = parse(JsonElement.class, null);
+            }
+            return tree;
+        }
+    }
+
+    /**
+     * Parses the body as a lazy {@link JsonDocument}, that only records the position of the values. Reading a few
+     * fields of a large body does not create a tree of objects. The document of an UTF-8 body is read directly from
+     * its bytes
+     *
+     * @return the document of the body, null when the body is empty
+     */
+    public JsonDocument getJsonDocument() {
+        synchronized (this) {
+            if (document == null && data != null && data.length > 0) {
+                final Charset charset = getCharset();
+                if (binary || charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII)) {
+                    document = JsonDocument.parse(data);
+                } else {
+                    document = JsonDocument.parse(getContent());
+                }
+            }
+            return document;
         }
-        return OBJECT_MAPPER.fromJson(content, ArrayList.class);
+    }
+
+    /**
+     * Reads only the values at the JSON paths, ex. {@code $.data.items[*].id}, skipping the rest of the body without
+     * parsing it. See {@link JsonProjection} for the syntax of the paths
+     *
+     * @param paths
+     * @return the values of each path, in the order of the body, with empty lists when the body is empty
+     */
+    public Map<String, List<JsonElement>> project(final String... paths) {
+        // Caminhos repetidos são lidos uma única vez
+        final Map<String, List<JsonElement>> result = new LinkedHashMap<>(paths.length * 2);
+        for (String path : paths) {
+            if (!result.containsKey(path)) {
+                result.put(path, new ArrayList<>());
+            }
+        }
+        final JsonProjection projection = JsonProjection.compile(result.keySet().toArray(new String[0]));
+        final List<List<JsonElement>> values = new ArrayList<>(result.values());
+        project(projection, JsonElement.class, (path, in) -> values.get(path).add(Streams.parse(in)));
+        return result;
+    }
+
+    /**
+     * Binds only the values at the JSON path, ex. {@code $.data.items[*]}, directly from the body, skipping the rest of
+     * the body without parsing it. See {@link JsonProjection} for the syntax of the path
+     *
+     * @param path
+     * @param typeOfT
+     * @param <T>
+     * @return the values of the path, in the order of the body, empty when the body is empty
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> project(final String path, final Type typeOfT) {
+        final TypeAdapter<T> adapter = (TypeAdapter<T>) OBJECT_MAPPER.getAdapter(TypeToken.get(typeOfT));
+        final List<T> result = new ArrayList<>();
+        project(JsonProjection.compile(path), typeOfT, (index, in) -> result.add(adapter.read(in)));
+        return result;
+    }
+
+    public <T> List<T> project(final String path, final Class<T> classOfT) {
+        return project(path, (Type) classOfT);
     }
 
     public boolean isSuccess() {
         return (statusCode >= 200 && statusCode < 300);
     }
+
+    /**
+     * @return the execution of the request that generated this response, when there is a {@link HttpEventListener}
+     */
+    public HttpCall getCall() {
+        return call;
+    }
+
+    /**
+     * Decodifica todo o conteúdo de uma só vez, em um buffer dimensionado pelo tamanho dos bytes
+     *
+     * @param bytes
+     * @param charset
+     * @return
+     */
+    private static String decode(final byte[] bytes, final Charset charset) {
+        if (bytes.length == 0) {
+            return "";
+        }
+        final CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        final CharBuffer out = CharBuffer.allocate((int) Math.ceil(bytes.length * (double) decoder.maxCharsPerByte()));
+        decoder.decode(ByteBuffer.wrap(bytes), out, true);
+        decoder.flush(out);
+        return new String(out.array(), 0, out.position());
+    }
+
+    /**
+     * @return leitor direto sobre os bytes do corpo, com o charset da resposta
+     */
+    private Reader reader() {
+        return new InputStreamReader(new ByteArrayInputStream(data), getCharset());
+    }
+
+    /**
+     * Converte o corpo para o tipo informado, cada chamada retorna um novo objeto.
+     * <p>
+     * Os bytes são lidos uma única vez, para a {@link JsonElement} usada em todas as conversões
+     *
+     * @param typeOfT
+     * @param <T>
+     * @return
+     */
+    private synchronized <T> T bind(Type typeOfT) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        if (tree == null) {
+            tree = parse(JsonElement.class, null);
+        }
+        return parse(typeOfT, tree);
+    }
+
+    /**
+     * @param typeOfT
+     * @param source  árvore já lida, null para ler do corpo
+     * @param <T>
+     * @return
+     */
+    private <T> T parse(final Type typeOfT, final JsonElement source) {
+        if (call == null) {
+            return source != null ? OBJECT_MAPPER.fromJson(source, typeOfT) : OBJECT_MAPPER.fromJson(reader(), typeOfT);
+        }
+
+        final long start = System.nanoTime();
+        call.listener.bindStart(call, start, typeOfT);
+        try {
+            return source != null ? OBJECT_MAPPER.fromJson(source, typeOfT) : OBJECT_MAPPER.fromJson(reader(), typeOfT);
+        } finally {
+            final long end = System.nanoTime();
+            synchronized (call) {
+                call.bindNanos += end - start;
+            }
+            call.listener.bindEnd(call, end, typeOfT);
+        }
+    }
+
+    /**
+     * Lê o corpo com a projeção, sem modo leniente
+     *
+     * @param projection
+     * @param typeOfT    tipo informado nos eventos de conversão
+     * @param handler
+     */
+    private void project(final JsonProjection projection, final Type typeOfT, final JsonProjection.Handler handler) {
+        if (data == null || data.length == 0) {
+            return;
+        }
+        final long start = System.nanoTime();
+        if (call != null) {
+            call.listener.bindStart(call, start, typeOfT);
+        }
+        try {
+            projection.read(new JsonReader(reader()), handler);
+        } catch (MalformedJsonException | IllegalStateException | NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        } catch (IOException e) {
+            throw new JsonIOException(e);
+        } finally {
+            if (call != null) {
+                final long end = System.nanoTime();
+                synchronized (call) {
+                    call.bindNanos += end - start;
+                }
+                call.listener.bindEnd(call, end, typeOfT);
+            }
+        }
+    }
 }
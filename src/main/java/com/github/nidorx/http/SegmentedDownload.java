@@ -0,0 +1,469 @@
+package com.github.nidorx.http;
+
+import com.github.nidorx.http.util.BufferPool;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Downloads a file in parallel byte ranges, written with positional writes into a preallocated file.
+ * <p>
+ * The size and the support for ranges are probed with a "Range: bytes=0-0" request. When the server does not support
+ * ranges, the file is downloaded with a single request. The progress of each segment is saved in a sidecar file
+ * ("&lt;target&gt;.progress"), so a failed download is resumed by the next call, if the resource did not change (same
+ * size and ETag or Last-Modified). Each segment is retried from where it stopped.
+ *
+ * <pre>
+ * long size = SegmentedDownload.of("https://example.com/artifact.zip")
+ *         .segments(8)
+ *         .download(Paths.get("artifact.zip"));
+ * </pre>
+ *
+ * @author Alex Rodin <contato@alexrodin.info>
+ */
+public final class SegmentedDownload {
+
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Bytes recebidos entre cada gravação do arquivo de progresso
+     */
+    private static final long SAVE_INTERVAL = 8 * 1024 * 1024;
+
+    private final Supplier<HttpRequest> requests;
+
+    private int segments = 4;
+
+    private long minSegmentSize = 1024 * 1024;
+
+    private int retries = 3;
+
+    private SegmentedDownload(final Supplier<HttpRequest> requests) {
+        this.requests = requests;
+    }
+
+    public static SegmentedDownload of(final String url) {
+        return new SegmentedDownload(() -> HttpRequest.build(url));
+    }
+
+    /**
+     * @param requests creates the request of each segment (headers, cookies, timeouts)
+     * @return
+     */
+    public static SegmentedDownload of(final Supplier<HttpRequest> requests) {
+        return new SegmentedDownload(requests);
+    }
+
+    /**
+     * @param segments max number of parallel connections
+     * @return
+     */
+    public SegmentedDownload segments(final int segments) {
+        if (segments < 1) {
+            throw new IllegalArgumentException("segments must be positive");
+        }
+        this.segments = segments;
+        return this;
+    }
+
+    /**
+     * Smaller files are downloaded with fewer segments
+     *
+     * @param minSegmentSize
+     * @return
+     */
+    public SegmentedDownload minSegmentSize(final long minSegmentSize) {
+        this.minSegmentSize = Math.max(1, minSegmentSize);
+        return this;
+    }
+
+    /**
+     * @param retries attempts of each segment after the first failure
+     * @return
+     */
+    public SegmentedDownload retries(final int retries) {
+        this.retries = Math.max(0, retries);
+        return this;
+    }
+
+    /**
+     * @param target
+     * @return the size of the file
+     * @throws IOException
+     */
+    public long download(final Path target) throws IOException {
+        final Path progressFile = target.resolveSibling(target.getFileName() + ".progress");
+
+        final Probe probe = probe(target);
+        if (probe == null) {
+            // Sem suporte a ranges, o arquivo já foi baixado pela requisição de teste
+            Files.deleteIfExists(progressFile);
+            return Files.size(target);
+        }
+
+        List<Segment> plan = resume(progressFile, target, probe);
+        if (plan == null) {
+            plan = plan(probe.length);
+            try (RandomAccessFile file = new RandomAccessFile(target.toFile(), "rw")) {
+                file.setLength(probe.length);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.WRITE)) {
+            final Transfer transfer = new Transfer(channel, probe, plan, progressFile);
+            transfer.saveProgress();
+            transfer.run();
+            channel.force(false);
+        }
+        Files.deleteIfExists(progressFile);
+        return probe.length;
+    }
+
+    /**
+     * Requisição de teste, obtém o tamanho e o validador do recurso
+     *
+     * @param target
+     * @return null quando o servidor não suporta ranges, o corpo completo é gravado no destino
+     * @throws IOException
+     */
+    private Probe probe(final Path target) throws IOException {
+        final HttpResponse response = execute(requests.get()
+                .method("GET")
+                .header("Range", "bytes=0-0")
+                .header(HttpRequest.HEADER_ACCEPT_ENCODING, "identity")
+                .bodySink((resp, body) -> {
+                    if (resp.statusCode == 206) {
+                        while (body.read() >= 0) {
+                            // descarta o primeiro byte
+                        }
+                        return;
+                    }
+                    try (OutputStream out = Files.newOutputStream(target)) {
+                        final byte[] buffer = BufferPool.DEFAULT.acquire(BUFFER_SIZE);
+                        try {
+                            int n;
+                            while ((n = body.read(buffer)) != -1) {
+                                out.write(buffer, 0, n);
+                            }
+                        } finally {
+                            BufferPool.DEFAULT.release(buffer);
+                        }
+                    }
+                }));
+
+        if (response.statusCode == 416) {
+            // Range inválido para um arquivo vazio
+            Files.write(target, new byte[0]);
+            return null;
+        }
+        if (response.statusCode >= 300) {
+            throw new IOException("Unexpected status " + response.statusCode + " downloading " + target.getFileName());
+        }
+        if (response.statusCode != 206) {
+            return null;
+        }
+
+        // Content-Range: bytes 0-0/12345
+        final String contentRange = response.getHeader("Content-Range");
+        final int slash = contentRange == null ? -1 : contentRange.lastIndexOf('/');
+        final long length;
+        try {
+            length = slash < 0 ? -1 : Long.parseLong(contentRange.substring(slash + 1).trim());
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid Content-Range: " + contentRange);
+        }
+        if (length < 0) {
+            throw new IOException("Unknown resource size, Content-Range: " + contentRange);
+        }
+
+        // If-Range exige um ETag forte
+        String validator = response.getHeader("ETag");
+        if (validator == null || validator.startsWith("W/")) {
+            validator = response.getHeader("Last-Modified");
+        }
+        return new Probe(length, validator);
+    }
+
+    private List<Segment> plan(final long length) {
+        final int count = (int) Math.max(1, Math.min(segments, (length + minSegmentSize - 1) / minSegmentSize));
+        final long size = (length + count - 1) / count;
+        final List<Segment> plan = new ArrayList<>(count);
+        for (long start = 0; start < length; start += size) {
+            plan.add(new Segment(start, Math.min(start + size, length) - 1, start));
+        }
+        return plan;
+    }
+
+    /**
+     * Segmentos de um download anterior do mesmo recurso
+     *
+     * @return null quando não existe progresso salvo ou quando o recurso foi alterado
+     */
+    private static List<Segment> resume(final Path progressFile, final Path target, final Probe probe) {
+        if (probe.validator == null || !Files.exists(progressFile) || !Files.exists(target)) {
+            return null;
+        }
+        final Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(progressFile)) {
+            properties.load(in);
+            if (Long.parseLong(properties.getProperty("length")) != probe.length
+                    || !probe.validator.equals(properties.getProperty("validator"))
+                    || Files.size(target) != probe.length) {
+                return null;
+            }
+            final int count = Integer.parseInt(properties.getProperty("segments"));
+            final List<Segment> plan = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                // start-end:position
+                final String value = properties.getProperty("segment." + i);
+                final int dash = value.indexOf('-');
+                final int colon = value.indexOf(':');
+                plan.add(new Segment(
+                        Long.parseLong(value.substring(0, dash)),
+                        Long.parseLong(value.substring(dash + 1, colon)),
+                        Long.parseLong(value.substring(colon + 1))
+                ));
+            }
+            return plan;
+        } catch (IOException | RuntimeException e) {
+            // Progresso inválido, reinicia o download
+            return null;
+        }
+    }
+
+    private static HttpResponse execute(final HttpRequest request) throws IOException {
+        try {
+            return request.execute();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static final class Probe {
+
+        final long length;
+
+        final String validator;
+
+        Probe(final long length, final String validator) {
+            this.length = length;
+            this.validator = validator;
+        }
+    }
+
+    private static final class Segment {
+
+        final long start;
+
+        final long end;
+
+        /**
+         * Próximo byte a ser baixado
+         */
+        volatile long position;
+
+        Segment(final long start, final long end, final long position) {
+            this.start = start;
+            this.end = end;
+            this.position = position;
+        }
+    }
+
+    /**
+     * Execução de um download, com os segmentos baixados em paralelo
+     */
+    private final class Transfer {
+
+        final FileChannel channel;
+
+        final Probe probe;
+
+        final List<Segment> plan;
+
+        final Path progressFile;
+
+        final AtomicLong unsaved = new AtomicLong();
+
+        Transfer(final FileChannel channel, final Probe probe, final List<Segment> plan, final Path progressFile) {
+            this.channel = channel;
+            this.probe = probe;
+            this.plan = plan;
+            this.progressFile = progressFile;
+        }
+
+        void run() throws IOException {
+            final List<Segment> pending = new ArrayList<>();
+            for (Segment segment : plan) {
+                if (segment.position <= segment.end) {
+                    pending.add(segment);
+                }
+            }
+            if (pending.isEmpty()) {
+                return;
+            }
+
+            final ExecutorService executor = Executors.newFixedThreadPool(pending.size(), runnable -> {
+                final Thread thread = new Thread(runnable, "http-download-" + THREAD_COUNT.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            try {
+                final List<Future<?>> futures = new ArrayList<>(pending.size());
+                for (Segment segment : pending) {
+                    futures.add(executor.submit(() -> {
+                        download(segment);
+                        return null;
+                    }));
+                }
+
+                // Aguarda todos os segmentos, para salvar o progresso de todos antes de falhar
+                IOException error = null;
+                for (Future<?> future : futures) {
+                    try {
+                        future.get();
+                    } catch (ExecutionException e) {
+                        final IOException cause = e.getCause() instanceof IOException
+                                ? (IOException) e.getCause()
+                                : new IOException(e.getCause());
+                        if (error == null) {
+                            error = cause;
+                        } else {
+                            error.addSuppressed(cause);
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Download interrupted");
+                    }
+                }
+                if (error != null) {
+                    saveProgress();
+                    throw error;
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        void download(final Segment segment) throws IOException {
+            for (int attempt = 0; ; attempt++) {
+                try {
+                    fetch(segment);
+                    saveProgress();
+                    return;
+                } catch (IOException e) {
+                    if (attempt >= retries) {
+                        throw e;
+                    }
+                    try {
+                        Thread.sleep(100L << Math.min(attempt, 6));
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException("Download interrupted");
+                    }
+                }
+            }
+        }
+
+        /**
+         * Baixa o restante do segmento, a partir da posição atual
+         */
+        void fetch(final Segment segment) throws IOException {
+            final HttpRequest request = requests.get()
+                    .method("GET")
+                    .header("Range", "bytes=" + segment.position + "-" + segment.end)
+                    .header(HttpRequest.HEADER_ACCEPT_ENCODING, "identity")
+                    .bodySink((response, body) -> {
+                        if (response.statusCode != 206) {
+                            throw new IOException("Resource changed or range not supported, status "
+                                    + response.statusCode);
+                        }
+                        write(segment, body);
+                    });
+            if (probe.validator != null) {
+                request.header("If-Range", probe.validator);
+            }
+
+            final HttpResponse response = execute(request);
+            if (response.statusCode != 206) {
+                throw new IOException("Unexpected status " + response.statusCode);
+            }
+            if (segment.position <= segment.end) {
+                throw new EOFException("Segment " + segment.start + "-" + segment.end + " ended at "
+                        + segment.position);
+            }
+        }
+
+        void write(final Segment segment, final InputStream body) throws IOException {
+            final byte[] buffer = BufferPool.DEFAULT.acquire(BUFFER_SIZE);
+            try {
+                final ByteBuffer wrapper = ByteBuffer.wrap(buffer);
+                long position = segment.position;
+                int n;
+                while (position <= segment.end
+                        && (n = body.read(buffer, 0, (int) Math.min(buffer.length, segment.end - position + 1))) != -1) {
+                    wrapper.clear().limit(n);
+                    while (wrapper.hasRemaining()) {
+                        position += channel.write(wrapper, position);
+                    }
+                    segment.position = position;
+                    if (unsaved.addAndGet(n) >= SAVE_INTERVAL) {
+                        saveProgress();
+                    }
+                }
+            } finally {
+                BufferPool.DEFAULT.release(buffer);
+            }
+        }
+
+        /**
+         * Grava o progresso de todos os segmentos, substituindo o arquivo de forma atômica. Os bytes recebidos são
+         * gravados em disco antes, para que o progresso nunca indique bytes que seriam perdidos em uma queda
+         */
+        synchronized void saveProgress() throws IOException {
+            unsaved.set(0);
+            if (probe.validator == null) {
+                // Sem validador não é possível retomar com segurança
+                return;
+            }
+            final Properties properties = new Properties();
+            properties.setProperty("length", Long.toString(probe.length));
+            properties.setProperty("validator", probe.validator);
+            properties.setProperty("segments", Integer.toString(plan.size()));
+            for (int i = 0; i < plan.size(); i++) {
+                final Segment segment = plan.get(i);
+                properties.setProperty("segment." + i, segment.start + "-" + segment.end + ":" + segment.position);
+            }
+            // As posições foram lidas antes, os bytes até elas já foram escritos no canal
+            channel.force(false);
+            final Path temp = progressFile.resolveSibling(progressFile.getFileName() + ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, null);
+            }
+            Files.move(temp, progressFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+}
@@ -98,6 +98,7 @@ public final class Gson {
   static final boolean DEFAULT_SERIALIZE_NULLS = false;
   static final boolean DEFAULT_COMPLEX_MAP_KEYS = false;
   static final boolean DEFAULT_SPECIALIZE_FLOAT_VALUES = false;
+  static final boolean DEFAULT_NUMERIC_ARRAYS_AS_PRIMITIVE_ARRAYS = false;
 
   private static final com.github.nidorx.http.gson.reflect.TypeToken<?> NULL_KEY_SURROGATE = com.github.nidorx.http.gson.reflect.TypeToken.get(Object.class);
   private static final String JSON_NON_EXECUTABLE_PREFIX = ")]}'\n";
@@ -129,6 +130,7 @@ public final class Gson {
   final boolean prettyPrinting;
   final boolean lenient;
   final boolean serializeSpecialFloatingPointValues;
+  final boolean numericArraysAsPrimitiveArrays;
   final String datePattern;
   final int dateStyle;
   final int timeStyle;
@@ -175,7 +177,7 @@ public final class Gson {
         Collections.<Type, InstanceCreator<?>>emptyMap(), DEFAULT_SERIALIZE_NULLS,
         DEFAULT_COMPLEX_MAP_KEYS, DEFAULT_JSON_NON_EXECUTABLE, DEFAULT_ESCAPE_HTML,
         DEFAULT_PRETTY_PRINT, DEFAULT_LENIENT, DEFAULT_SPECIALIZE_FLOAT_VALUES,
-        LongSerializationPolicy.DEFAULT, null, DateFormat.DEFAULT, DateFormat.DEFAULT,
+        DEFAULT_NUMERIC_ARRAYS_AS_PRIMITIVE_ARRAYS, LongSerializationPolicy.DEFAULT, null, DateFormat.DEFAULT, DateFormat.DEFAULT,
         Collections.<TypeAdapterFactory>emptyList(), Collections.<TypeAdapterFactory>emptyList(),
         Collections.<TypeAdapterFactory>emptyList());
   }
@@ -184,7 +186,7 @@ public final class Gson {
        Map<Type, InstanceCreator<?>> instanceCreators, boolean serializeNulls,
        boolean complexMapKeySerialization, boolean generateNonExecutableGson, boolean htmlSafe,
        boolean prettyPrinting, boolean lenient, boolean serializeSpecialFloatingPointValues,
-       LongSerializationPolicy longSerializationPolicy, String datePattern, int dateStyle,
+       boolean numericArraysAsPrimitiveArrays, LongSerializationPolicy longSerializationPolicy, String datePattern, int dateStyle,
        int timeStyle, List<TypeAdapterFactory> builderFactories,
        List<TypeAdapterFactory> builderHierarchyFactories,
        List<TypeAdapterFactory> factoriesToBeAdded) {
@@ -199,6 +201,7 @@ public final class Gson {
     this.prettyPrinting = prettyPrinting;
     this.lenient = lenient;
     this.serializeSpecialFloatingPointValues = serializeSpecialFloatingPointValues;
+    this.numericArraysAsPrimitiveArrays = numericArraysAsPrimitiveArrays;
     this.longSerializationPolicy = longSerializationPolicy;
     this.datePattern = datePattern;
     this.dateStyle = dateStyle;
@@ -210,7 +213,7 @@ public final class Gson {
 
     // built-in type adapters that cannot be overridden
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.JSON_ELEMENT_FACTORY);
-    factories.add(ObjectTypeAdapter.FACTORY);
+    factories.add(numericArraysAsPrimitiveArrays ? ObjectTypeAdapter.NUMERIC_ARRAYS_FACTORY : ObjectTypeAdapter.FACTORY);
 
     // the excluder must precede all adapters that handle user-defined types
     factories.add(excluder);
@@ -226,8 +229,8 @@ public final class Gson {
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.SHORT_FACTORY);
     TypeAdapter<Number> longAdapter = longAdapter(longSerializationPolicy);
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.newFactory(long.class, Long.class, longAdapter));
-    factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.newFactory(double.class, Double.class,
-            doubleAdapter(serializeSpecialFloatingPointValues)));
+    TypeAdapter<Number> doubleAdapter = doubleAdapter(serializeSpecialFloatingPointValues);
+    factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.newFactory(double.class, Double.class, doubleAdapter));
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.newFactory(float.class, Float.class,
             floatAdapter(serializeSpecialFloatingPointValues)));
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.NUMBER_FACTORY);
@@ -253,6 +256,7 @@ public final class Gson {
     factories.add(TimeTypeAdapter.FACTORY);
     factories.add(SqlDateTypeAdapter.FACTORY);
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.TIMESTAMP_FACTORY);
+    factories.add(com.github.nidorx.http.gson.internal.bind.PrimitiveArrayTypeAdapters.newFactory(longAdapter, doubleAdapter));
     factories.add(ArrayTypeAdapter.FACTORY);
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.CLASS_FACTORY);
 
@@ -262,6 +266,11 @@ public final class Gson {
     this.jsonAdapterFactory = new JsonAdapterAnnotationTypeAdapterFactory(constructorConstructor);
     factories.add(jsonAdapterFactory);
     factories.add(com.github.nidorx.http.gson.internal.bind.TypeAdapters.ENUM_FACTORY);
+    // adapters generated by @GenerateAdapter follow the default naming, exclusion and construction rules
+    if (excluder == com.github.nidorx.http.gson.internal.Excluder.DEFAULT
+        && fieldNamingStrategy == FieldNamingPolicy.IDENTITY && instanceCreators.isEmpty()) {
+      factories.addAll(com.github.nidorx.http.gson.internal.bind.GeneratedAdapters.factories());
+    }
     factories.add(new ReflectiveTypeAdapterFactory(
         constructorConstructor, fieldNamingStrategy, excluder, jsonAdapterFactory));
 
@@ -688,6 +697,8 @@ public final class Gson {
     writer.setHtmlSafe(htmlSafe);
     boolean oldSerializeNulls = writer.getSerializeNulls();
     writer.setSerializeNulls(serializeNulls);
+    JsonTracer tracer = JsonTracer.current();
+    Object token = tracer == null ? null : tracer.begin();
     try {
       ((TypeAdapter<Object>) adapter).write(writer, src);
     } catch (IOException e) {
@@ -697,6 +708,9 @@ public final class Gson {
       error.initCause(e);
       throw error;
     } finally {
+      if (token != null) {
+        tracer.end(token, "toJson", typeOfSrc);
+      }
       writer.setLenient(oldLenient);
       writer.setHtmlSafe(oldHtmlSafe);
       writer.setSerializeNulls(oldSerializeNulls);
@@ -768,6 +782,8 @@ public final class Gson {
     writer.setHtmlSafe(htmlSafe);
     boolean oldSerializeNulls = writer.getSerializeNulls();
     writer.setSerializeNulls(serializeNulls);
+    JsonTracer tracer = JsonTracer.current();
+    Object token = tracer == null ? null : tracer.begin();
     try {
       Streams.write(jsonElement, writer);
     } catch (IOException e) {
@@ -777,6 +793,9 @@ public final class Gson {
       error.initCause(e);
       throw error;
     } finally {
+      if (token != null) {
+        tracer.end(token, "toJson", JsonElement.class);
+      }
       writer.setLenient(oldLenient);
       writer.setHtmlSafe(oldHtmlSafe);
       writer.setSerializeNulls(oldSerializeNulls);
@@ -912,6 +931,8 @@ public final class Gson {
     boolean isEmpty = true;
     boolean oldLenient = reader.isLenient();
     reader.setLenient(true);
+    JsonTracer tracer = JsonTracer.current();
+    Object token = tracer == null ? null : tracer.begin();
     try {
       reader.peek();
       isEmpty = false;
@@ -938,6 +959,9 @@ public final class Gson {
       error.initCause(e);
       throw error;
     } finally {
+      if (token != null) {
+        tracer.end(token, "fromJson", typeOfT);
+      }
       reader.setLenient(oldLenient);
     }
   }
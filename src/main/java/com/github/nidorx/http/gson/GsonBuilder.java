@@ -38,6 +38,7 @@ import static com.github.nidorx.http.gson.Gson.DEFAULT_COMPLEX_MAP_KEYS;
 import static com.github.nidorx.http.gson.Gson.DEFAULT_ESCAPE_HTML;
 import static com.github.nidorx.http.gson.Gson.DEFAULT_JSON_NON_EXECUTABLE;
 import static com.github.nidorx.http.gson.Gson.DEFAULT_LENIENT;
+import static com.github.nidorx.http.gson.Gson.DEFAULT_NUMERIC_ARRAYS_AS_PRIMITIVE_ARRAYS;
 import static com.github.nidorx.http.gson.Gson.DEFAULT_PRETTY_PRINT;
 import static com.github.nidorx.http.gson.Gson.DEFAULT_SERIALIZE_NULLS;
 import static com.github.nidorx.http.gson.Gson.DEFAULT_SPECIALIZE_FLOAT_VALUES;
@@ -91,6 +92,7 @@ public final class GsonBuilder {
   private int timeStyle = DateFormat.DEFAULT;
   private boolean complexMapKeySerialization = DEFAULT_COMPLEX_MAP_KEYS;
   private boolean serializeSpecialFloatingPointValues = DEFAULT_SPECIALIZE_FLOAT_VALUES;
+  private boolean numericArraysAsPrimitiveArrays = DEFAULT_NUMERIC_ARRAYS_AS_PRIMITIVE_ARRAYS;
   private boolean escapeHtmlChars = DEFAULT_ESCAPE_HTML;
   private boolean prettyPrinting = DEFAULT_PRETTY_PRINT;
   private boolean generateNonExecutableJson = DEFAULT_JSON_NON_EXECUTABLE;
@@ -122,6 +124,7 @@ public final class GsonBuilder {
     this.prettyPrinting = gson.prettyPrinting;
     this.lenient = gson.lenient;
     this.serializeSpecialFloatingPointValues = gson.serializeSpecialFloatingPointValues;
+    this.numericArraysAsPrimitiveArrays = gson.numericArraysAsPrimitiveArrays;
     this.longSerializationPolicy = gson.longSerializationPolicy;
     this.datePattern = gson.datePattern;
     this.dateStyle = gson.dateStyle;
@@ -578,6 +581,20 @@ public final class GsonBuilder {
     return this;
   }
 
+  /**
+   * By default, when deserializing to {@code Object} (or to a {@code Map<String, Object>} or
+   * {@code List<Object>}), Gson reads every JSON array as a {@code List} and every number in it as
+   * a boxed {@link Double}. This method configures Gson to read arrays containing only numbers as
+   * {@code double[]}, which stores each element in 8 bytes instead of a {@code Double} object.
+   * Empty arrays and arrays with other values are still read as lists.
+   *
+   * @return a reference to this {@code GsonBuilder} object to fulfill the "Builder" pattern
+   */
+  public GsonBuilder readNumericArraysAsPrimitiveArrays() {
+    this.numericArraysAsPrimitiveArrays = true;
+    return this;
+  }
+
   /**
    * Creates a {@link com.github.nidorx.http.gson.Gson} instance based on the current configuration. This method is free of
    * side-effects to this {@code GsonBuilder} instance and hence can be called multiple times.
@@ -598,7 +615,7 @@ public final class GsonBuilder {
     return new Gson(excluder, fieldNamingPolicy, instanceCreators,
         serializeNulls, complexMapKeySerialization,
         generateNonExecutableJson, escapeHtmlChars, prettyPrinting, lenient,
-        serializeSpecialFloatingPointValues, longSerializationPolicy,
+        serializeSpecialFloatingPointValues, numericArraysAsPrimitiveArrays, longSerializationPolicy,
         datePattern, dateStyle, timeStyle,
         this.factories, this.hierarchyFactories, factories);
   }
@@ -0,0 +1,380 @@
+package com.github.nidorx.http.gson;
+
+import com.github.nidorx.http.gson.internal.JsonScanner;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * A JSON document parsed lazily over its UTF-8 bytes.
+ * <p>
+ * {@link #parse(byte[])} validates the document in a single pass and records the position of each value in a
+ * {@code long[]} tape, without creating strings, numbers or {@link JsonElement}s. The values are read through
+ * {@link JsonNode} views, that decode strings and numbers only when accessed, so reading a few fields of a large
+ * document does not allocate a tree with an object for each value.
+ * <p>
+ * Unlike {@link JsonParser}, the document must be strict JSON (RFC 8259). The document keeps a reference to the
+ * bytes, that must not be modified, and is immutable after parsed, so its views can be shared between threads.
+ */
+public final class JsonDocument {
+
+  static final int NULL = 0;
+  static final int OBJECT = 1;
+  static final int ARRAY = 2;
+  static final int STRING = 3;
+  /** string with escape sequences */
+  static final int ESCAPED_STRING = 4;
+  static final int NUMBER = 5;
+  static final int TRUE = 6;
+  static final int FALSE = 7;
+
+  static final int TYPE_SHIFT = 61;
+
+  /** largest string, number, or count of values of a container */
+  private static final int MAX_LENGTH = (1 << 29) - 1;
+
+  private static final byte[] TRUE_BYTES = {'t', 'r', 'u', 'e'};
+  private static final byte[] FALSE_BYTES = {'f', 'a', 'l', 's', 'e'};
+  private static final byte[] NULL_BYTES = {'n', 'u', 'l', 'l'};
+
+  final byte[] bytes;
+
+  /**
+   * One entry for each value, in the order of the document, with the type in the 3 high bits.
+   * <ul>
+   * <li>scalars: length in bytes (29 bits) and offset (32 bits). The offset of strings is the first byte after the
+   * quote, the length does not include the quotes</li>
+   * <li>containers: count of values (29 bits) and the index in the tape after the last value (32 bits), followed by an
+   * entry with the offset of the first and after the last byte of the container. The keys of objects are entries
+   * before each value</li>
+   * </ul>
+   */
+  long[] tape;
+
+  private int tapeSize;
+
+  private JsonDocument(byte[] bytes) {
+    this.bytes = bytes;
+  }
+
+  /**
+   * @param json UTF-8 bytes of a JSON document
+   * @throws JsonSyntaxException if the bytes are not a valid JSON document
+   */
+  public static JsonDocument parse(byte[] json) throws JsonSyntaxException {
+    return parse(json, 0, json.length);
+  }
+
+  /**
+   * @param json   UTF-8 bytes, of which the range is a JSON document
+   * @param offset first byte of the document
+   * @param length number of bytes of the document
+   * @throws JsonSyntaxException if the bytes are not a valid JSON document
+   */
+  public static JsonDocument parse(byte[] json, int offset, int length) throws JsonSyntaxException {
+    if (offset < 0 || length < 0 || offset + length > json.length || offset + length < 0) {
+      throw new IndexOutOfBoundsException("offset " + offset + ", length " + length + ", array " + json.length);
+    }
+    JsonDocument document = new JsonDocument(json);
+    document.parse(offset, offset + length);
+    return document;
+  }
+
+  /**
+   * @param json JSON text
+   * @throws JsonSyntaxException if the text is not a valid JSON document
+   */
+  public static JsonDocument parse(String json) throws JsonSyntaxException {
+    return parse(json.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return the value of the document
+   */
+  public JsonNode root() {
+    return new JsonNode(this, 0);
+  }
+
+  @Override public String toString() {
+    return root().toString();
+  }
+
+  static int type(long entry) {
+    return (int) (entry >>> TYPE_SHIFT);
+  }
+
+  static int length(long entry) {
+    return (int) (entry >>> 32) & MAX_LENGTH;
+  }
+
+  static int offset(long entry) {
+    return (int) entry;
+  }
+
+  /**
+   * @return the index in the tape of the value after the value at the index
+   */
+  int next(int index) {
+    long entry = tape[index];
+    int type = type(entry);
+    return type == OBJECT || type == ARRAY ? (int) entry : index + 1;
+  }
+
+  private void parse(int start, int end) {
+    tape = new long[Math.max(16, (end - start) >> 3)];
+    int[] containers = new int[32];
+    int[] counts = new int[32];
+    int depth = 0;
+
+    int i = start;
+    if (end - start >= 3 && bytes[i] == (byte) 0xEF && bytes[i + 1] == (byte) 0xBB && bytes[i + 2] == (byte) 0xBF) {
+      // BOM
+      i += 3;
+    }
+
+    for (; ; ) {
+      // um valor é esperado
+      i = skipWhitespace(i, end);
+      if (i == end) {
+        throw syntaxError("Unexpected end of document", i);
+      }
+      byte c = bytes[i];
+      boolean empty = false;
+      switch (c) {
+        case '{':
+        case '[':
+          if (depth == containers.length) {
+            containers = Arrays.copyOf(containers, depth << 1);
+            counts = Arrays.copyOf(counts, depth << 1);
+          }
+          containers[depth] = tapeSize;
+          counts[depth] = 0;
+          depth++;
+          append((long) (c == '{' ? OBJECT : ARRAY) << TYPE_SHIFT);
+          append((long) i << 32);
+          i = skipWhitespace(i + 1, end);
+          if (i < end && bytes[i] == (c == '{' ? '}' : ']')) {
+            empty = true;
+          } else if (c == '{') {
+            i = key(i, end);
+          }
+          break;
+        case '"':
+          i = string(i, end);
+          break;
+        case 't':
+          i = literal(i, end, TRUE_BYTES, TRUE);
+          break;
+        case 'f':
+          i = literal(i, end, FALSE_BYTES, FALSE);
+          break;
+        case 'n':
+          i = literal(i, end, NULL_BYTES, NULL);
+          break;
+        default:
+          if (c != '-' && (c < '0' || c > '9')) {
+            throw syntaxError("Unexpected character", i);
+          }
+          i = number(i, end);
+      }
+      if (c == '{' || c == '[') {
+        if (!empty) {
+          continue;
+        }
+      }
+
+      // um valor foi concluído, espera o próximo valor do container ou o seu fim
+      for (; ; ) {
+        if (empty) {
+          empty = false;
+        } else {
+          if (depth == 0) {
+            i = skipWhitespace(i, end);
+            if (i != end) {
+              throw syntaxError("Expected end of document", i);
+            }
+            tape = Arrays.copyOf(tape, tapeSize);
+            return;
+          }
+          counts[depth - 1]++;
+          i = skipWhitespace(i, end);
+          if (i == end) {
+            throw syntaxError("Unexpected end of document", i);
+          }
+        }
+        int header = containers[depth - 1];
+        boolean object = type(tape[header]) == OBJECT;
+        c = bytes[i];
+        if (c == ',') {
+          i++;
+          if (object) {
+            i = key(i, end);
+          }
+          break;
+        }
+        if (c != (object ? '}' : ']')) {
+          throw syntaxError(object ? "Expected ',' or '}'" : "Expected ',' or ']'", i);
+        }
+        int count = counts[depth - 1];
+        if (count > MAX_LENGTH) {
+          throw syntaxError("Too many values in the container", i);
+        }
+        i++;
+        tape[header] |= (long) count << 32 | tapeSize;
+        tape[header + 1] |= i;
+        depth--;
+      }
+    }
+  }
+
+  private static boolean isWhitespace(byte c) {
+    return c == ' ' || c == '\n' || c == '\r' || c == '\t';
+  }
+
+  private int skipWhitespace(int i, int end) {
+    while (i < end && isWhitespace(bytes[i])) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Reads the name of a member and the colon
+   *
+   * @return the position after the colon
+   */
+  private int key(int i, int end) {
+    i = skipWhitespace(i, end);
+    if (i == end || bytes[i] != '"') {
+      throw syntaxError("Expected name", i);
+    }
+    i = skipWhitespace(string(i, end), end);
+    if (i == end || bytes[i] != ':') {
+      throw syntaxError("Expected ':'", i);
+    }
+    return i + 1;
+  }
+
+  /**
+   * @param i position of the opening quote
+   * @return the position after the closing quote
+   */
+  private int string(int i, int end) {
+    byte[] bytes = this.bytes;
+    int start = i + 1;
+    boolean escaped = false;
+    for (i = start; ; i++) {
+      i = JsonScanner.indexOfQuoteOrBackslash(bytes, i, end);
+      if (i == end) {
+        break;
+      }
+      if (bytes[i] == '"') {
+        appendScalar(escaped ? ESCAPED_STRING : STRING, start, i - start);
+        return i + 1;
+      }
+      escaped = true;
+      if (++i == end) {
+        break;
+      }
+      switch (bytes[i]) {
+        case '"':
+        case '\\':
+        case '/':
+        case 'b':
+        case 'f':
+        case 'n':
+        case 'r':
+        case 't':
+          break;
+        case 'u':
+          if (i + 4 >= end) {
+            throw syntaxError("Unterminated escape sequence", i);
+          }
+          for (int j = 1; j <= 4; j++) {
+            if (Character.digit(bytes[i + j], 16) < 0) {
+              throw syntaxError("Invalid escape sequence", i - 1);
+            }
+          }
+          i += 4;
+          break;
+        default:
+          throw syntaxError("Invalid escape sequence", i - 1);
+      }
+    }
+    throw syntaxError("Unterminated string", start - 1);
+  }
+
+  private int number(int i, int end) {
+    byte[] bytes = this.bytes;
+    int start = i;
+    if (bytes[i] == '-') {
+      i++;
+    }
+    if (i < end && bytes[i] == '0') {
+      i++;
+    } else {
+      int digits = i;
+      while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+        i++;
+      }
+      if (i == digits) {
+        throw syntaxError("Invalid number", start);
+      }
+    }
+    if (i < end && bytes[i] == '.') {
+      int digits = ++i;
+      while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+        i++;
+      }
+      if (i == digits) {
+        throw syntaxError("Invalid number", start);
+      }
+    }
+    if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+      i++;
+      if (i < end && (bytes[i] == '+' || bytes[i] == '-')) {
+        i++;
+      }
+      int digits = i;
+      while (i < end && bytes[i] >= '0' && bytes[i] <= '9') {
+        i++;
+      }
+      if (i == digits) {
+        throw syntaxError("Invalid number", start);
+      }
+    }
+    appendScalar(NUMBER, start, i - start);
+    return i;
+  }
+
+  private int literal(int i, int end, byte[] literal, int type) {
+    if (end - i < literal.length) {
+      throw syntaxError("Unexpected character", i);
+    }
+    for (int j = 0; j < literal.length; j++) {
+      if (bytes[i + j] != literal[j]) {
+        throw syntaxError("Unexpected character", i);
+      }
+    }
+    appendScalar(type, i, literal.length);
+    return i + literal.length;
+  }
+
+  private void appendScalar(int type, int offset, int length) {
+    if (length > MAX_LENGTH) {
+      throw syntaxError("Value too long", offset);
+    }
+    append((long) type << TYPE_SHIFT | (long) length << 32 | offset);
+  }
+
+  private void append(long entry) {
+    if (tapeSize == tape.length) {
+      tape = Arrays.copyOf(tape, tapeSize + (tapeSize >> 1) + 16);
+    }
+    tape[tapeSize++] = entry;
+  }
+
+  private JsonSyntaxException syntaxError(String message, int offset) {
+    return new JsonSyntaxException(message + " at offset " + offset);
+  }
+}
@@ -0,0 +1,453 @@
+package com.github.nidorx.http.gson;
+
+import com.github.nidorx.http.gson.internal.FastDoubleParser;
+import com.github.nidorx.http.gson.internal.JsonScanner;
+import com.github.nidorx.http.gson.internal.LazilyParsedNumber;
+import com.github.nidorx.http.gson.stream.JsonReader;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import static com.github.nidorx.http.gson.JsonDocument.ARRAY;
+import static com.github.nidorx.http.gson.JsonDocument.ESCAPED_STRING;
+import static com.github.nidorx.http.gson.JsonDocument.FALSE;
+import static com.github.nidorx.http.gson.JsonDocument.NULL;
+import static com.github.nidorx.http.gson.JsonDocument.NUMBER;
+import static com.github.nidorx.http.gson.JsonDocument.OBJECT;
+import static com.github.nidorx.http.gson.JsonDocument.STRING;
+import static com.github.nidorx.http.gson.JsonDocument.TRUE;
+
+/**
+ * A value of a {@link JsonDocument}, with the accessors of {@link JsonElement}, {@link JsonObject},
+ * {@link JsonArray} and {@link JsonPrimitive}. Strings and numbers are decoded from the bytes of the document on
+ * each access, and {@link #toJsonElement()} creates the tree of the value when needed.
+ * <p>
+ * As in {@link JsonObject}, when a name is repeated in an object the last value is used.
+ */
+public final class JsonNode implements Iterable<JsonNode> {
+
+  private final JsonDocument document;
+
+  /** index of the value in the tape */
+  private final int index;
+
+  JsonNode(JsonDocument document, int index) {
+    this.document = document;
+    this.index = index;
+  }
+
+  private long entry() {
+    return document.tape[index];
+  }
+
+  private int type() {
+    return JsonDocument.type(document.tape[index]);
+  }
+
+  public boolean isJsonObject() {
+    return type() == OBJECT;
+  }
+
+  public boolean isJsonArray() {
+    return type() == ARRAY;
+  }
+
+  /**
+   * @return true for strings, numbers and booleans
+   */
+  public boolean isJsonPrimitive() {
+    int type = type();
+    return type != OBJECT && type != ARRAY && type != NULL;
+  }
+
+  public boolean isJsonNull() {
+    return type() == NULL;
+  }
+
+  public boolean isString() {
+    int type = type();
+    return type == STRING || type == ESCAPED_STRING;
+  }
+
+  public boolean isNumber() {
+    return type() == NUMBER;
+  }
+
+  public boolean isBoolean() {
+    int type = type();
+    return type == TRUE || type == FALSE;
+  }
+
+  /**
+   * @return the number of members of an object, counting each repeated name, or of elements of an array
+   * @throws IllegalStateException if the value is not an object or an array
+   */
+  public int size() {
+    checkContainer();
+    return JsonDocument.length(entry());
+  }
+
+  /**
+   * @return the value of the member, or null when the object does not have the member
+   * @throws IllegalStateException if the value is not an object
+   */
+  public JsonNode get(String memberName) {
+    int member = indexOf(memberName);
+    return member < 0 ? null : new JsonNode(document, member);
+  }
+
+  /**
+   * @throws IllegalStateException if the value is not an object
+   */
+  public boolean has(String memberName) {
+    return indexOf(memberName) >= 0;
+  }
+
+  /**
+   * @return the names of the members of the object, in the order of the document
+   * @throws IllegalStateException if the value is not an object
+   */
+  public Set<String> keySet() {
+    checkObject();
+    Set<String> names = new LinkedHashSet<String>();
+    JsonDocument document = this.document;
+    for (int i = index + 2, end = (int) entry(); i < end; i = document.next(i + 1)) {
+      names.add(string(document, i));
+    }
+    return names;
+  }
+
+  /**
+   * @return the element of the array at the position
+   * @throws IllegalStateException     if the value is not an array
+   * @throws IndexOutOfBoundsException if the position is not in the array
+   */
+  public JsonNode get(int i) {
+    checkArray();
+    int size = JsonDocument.length(entry());
+    if (i < 0 || i >= size) {
+      throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + size);
+    }
+    JsonDocument document = this.document;
+    int element = index + 2;
+    while (i-- > 0) {
+      element = document.next(element);
+    }
+    return new JsonNode(document, element);
+  }
+
+  /**
+   * @return the elements of the array
+   * @throws IllegalStateException if the value is not an array
+   */
+  @Override public Iterator<JsonNode> iterator() {
+    checkArray();
+    final int end = (int) entry();
+    return new Iterator<JsonNode>() {
+      private int next = index + 2;
+
+      @Override public boolean hasNext() {
+        return next < end;
+      }
+
+      @Override public JsonNode next() {
+        if (next >= end) {
+          throw new NoSuchElementException();
+        }
+        JsonNode element = new JsonNode(document, next);
+        next = document.next(next);
+        return element;
+      }
+
+      @Override public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   */
+  public String getAsString() {
+    long entry = entry();
+    switch (JsonDocument.type(entry)) {
+      case STRING:
+      case ESCAPED_STRING:
+        return string(document, index);
+      case NUMBER:
+      case TRUE:
+      case FALSE:
+        return new String(document.bytes, JsonDocument.offset(entry), JsonDocument.length(entry),
+            StandardCharsets.ISO_8859_1);
+      default:
+        throw unsupported();
+    }
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is a string that is not a valid number
+   */
+  public Number getAsNumber() {
+    int type = type();
+    if (type == OBJECT || type == ARRAY || type == NULL) {
+      throw unsupported();
+    }
+    return new LazilyParsedNumber(getAsString());
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is a string that is not a valid double
+   */
+  public double getAsDouble() {
+    long entry = entry();
+    if (JsonDocument.type(entry) != NUMBER) {
+      return Double.parseDouble(getAsString());
+    }
+    int offset = JsonDocument.offset(entry);
+    int length = JsonDocument.length(entry);
+    byte[] bytes = document.bytes;
+    char[] chars = new char[length];
+    for (int i = 0; i < length; i++) {
+      chars[i] = (char) bytes[offset + i];
+    }
+    return FastDoubleParser.parseDouble(chars, 0, length);
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is a string that is not a valid float
+   */
+  public float getAsFloat() {
+    return isNumber() ? getAsNumber().floatValue() : Float.parseFloat(getAsString());
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is a string that is not a valid long
+   */
+  public long getAsLong() {
+    long entry = entry();
+    if (JsonDocument.type(entry) != NUMBER) {
+      return Long.parseLong(getAsString());
+    }
+    int offset = JsonDocument.offset(entry);
+    int length = JsonDocument.length(entry);
+    byte[] bytes = document.bytes;
+    boolean negative = bytes[offset] == '-';
+    int i = negative ? offset + 1 : offset;
+    int end = offset + length;
+    if (end - i > 18) {
+      return getAsNumber().longValue();
+    }
+    long value = 0;
+    for (; i < end; i++) {
+      int d = bytes[i] - '0';
+      if (d < 0 || d > 9) {
+        // fração ou expoente
+        return getAsNumber().longValue();
+      }
+      value = value * 10 + d;
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is a string that is not a valid integer
+   */
+  public int getAsInt() {
+    return isNumber() ? (int) getAsLong() : Integer.parseInt(getAsString());
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is not a valid {@link BigDecimal}
+   */
+  public BigDecimal getAsBigDecimal() {
+    return new BigDecimal(getAsString());
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   * @throws NumberFormatException         if the value is not a valid {@link BigInteger}
+   */
+  public BigInteger getAsBigInteger() {
+    return new BigInteger(getAsString());
+  }
+
+  /**
+   * @throws UnsupportedOperationException if the value is not a primitive
+   */
+  public boolean getAsBoolean() {
+    int type = type();
+    if (type == TRUE || type == FALSE) {
+      return type == TRUE;
+    }
+    return Boolean.parseBoolean(getAsString());
+  }
+
+  /**
+   * @return a reader of the JSON text of the value, to bind it with {@link Gson#fromJson(JsonReader, java.lang.reflect.Type)}
+   */
+  public JsonReader reader() {
+    int start = start();
+    return new JsonReader(new InputStreamReader(
+        new ByteArrayInputStream(document.bytes, start, end() - start), StandardCharsets.UTF_8));
+  }
+
+  /**
+   * @return the tree of the value
+   */
+  public JsonElement toJsonElement() {
+    return toJsonElement(document, index);
+  }
+
+  /**
+   * @return the JSON text of the value, as it is in the document
+   */
+  @Override public String toString() {
+    int start = start();
+    return new String(document.bytes, start, end() - start, StandardCharsets.UTF_8);
+  }
+
+  private int start() {
+    long entry = entry();
+    switch (JsonDocument.type(entry)) {
+      case OBJECT:
+      case ARRAY:
+        return (int) (document.tape[index + 1] >>> 32);
+      case STRING:
+      case ESCAPED_STRING:
+        return JsonDocument.offset(entry) - 1;
+      default:
+        return JsonDocument.offset(entry);
+    }
+  }
+
+  private int end() {
+    long entry = entry();
+    switch (JsonDocument.type(entry)) {
+      case OBJECT:
+      case ARRAY:
+        return (int) document.tape[index + 1];
+      case STRING:
+      case ESCAPED_STRING:
+        return JsonDocument.offset(entry) + JsonDocument.length(entry) + 1;
+      default:
+        return JsonDocument.offset(entry) + JsonDocument.length(entry);
+    }
+  }
+
+  /**
+   * @return the index in the tape of the last value with the name, or -1
+   */
+  private int indexOf(String name) {
+    checkObject();
+    JsonDocument document = this.document;
+    long[] tape = document.tape;
+    int found = -1;
+    for (int i = index + 2, end = (int) tape[index]; i < end; i = document.next(i + 1)) {
+      if (nameEquals(document, tape[i], name)) {
+        found = i + 1;
+      }
+    }
+    return found;
+  }
+
+  private static boolean nameEquals(JsonDocument document, long entry, String name) {
+    if (JsonDocument.type(entry) == STRING) {
+      // compara os bytes enquanto o nome for ASCII
+      byte[] bytes = document.bytes;
+      int offset = JsonDocument.offset(entry);
+      int length = JsonDocument.length(entry);
+      int n = name.length();
+      for (int i = 0; i < n; i++) {
+        char c = name.charAt(i);
+        if (c >= 0x80) {
+          return name.equals(new String(bytes, offset, length, StandardCharsets.UTF_8));
+        }
+        if (i >= length || bytes[offset + i] != c) {
+          return false;
+        }
+      }
+      return n == length;
+    }
+    return name.equals(JsonScanner.decodeString(document.bytes, JsonDocument.offset(entry), JsonDocument.length(entry)));
+  }
+
+  private static String string(JsonDocument document, int index) {
+    long entry = document.tape[index];
+    int offset = JsonDocument.offset(entry);
+    int length = JsonDocument.length(entry);
+    if (JsonDocument.type(entry) == STRING) {
+      return new String(document.bytes, offset, length, StandardCharsets.UTF_8);
+    }
+    return JsonScanner.decodeString(document.bytes, offset, length);
+  }
+
+  private static JsonElement toJsonElement(JsonDocument document, int index) {
+    long entry = document.tape[index];
+    switch (JsonDocument.type(entry)) {
+      case OBJECT: {
+        JsonObject object = new JsonObject();
+        for (int i = index + 2, end = (int) entry; i < end; i = document.next(i + 1)) {
+          object.add(string(document, i), toJsonElement(document, i + 1));
+        }
+        return object;
+      }
+      case ARRAY: {
+        JsonArray array = new JsonArray(JsonDocument.length(entry));
+        for (int i = index + 2, end = (int) entry; i < end; i = document.next(i)) {
+          array.add(toJsonElement(document, i));
+        }
+        return array;
+      }
+      case STRING:
+      case ESCAPED_STRING:
+        return new JsonPrimitive(string(document, index));
+      case NUMBER:
+        return new JsonPrimitive(new LazilyParsedNumber(new String(document.bytes, JsonDocument.offset(entry),
+            JsonDocument.length(entry), StandardCharsets.ISO_8859_1)));
+      case TRUE:
+        return new JsonPrimitive(Boolean.TRUE);
+      case FALSE:
+        return new JsonPrimitive(Boolean.FALSE);
+      default:
+        return JsonNull.INSTANCE;
+    }
+  }
+
+  private void checkObject() {
+    if (type() != OBJECT) {
+      throw new IllegalStateException("Not a JSON Object: " + this);
+    }
+  }
+
+  private void checkArray() {
+    if (type() != ARRAY) {
+      throw new IllegalStateException("Not a JSON Array: " + this);
+    }
+  }
+
+  private void checkContainer() {
+    int type = type();
+    if (type != OBJECT && type != ARRAY) {
+      throw new IllegalStateException("Not a JSON Object or Array: " + this);
+    }
+  }
+
+  private UnsupportedOperationException unsupported() {
+    int type = type();
+    return new UnsupportedOperationException(
+        type == OBJECT ? "JsonObject" : type == ARRAY ? "JsonArray" : "JsonNull");
+  }
+}
@@ -16,7 +16,7 @@
 
 package com.github.nidorx.http.gson;
 
-import com.github.nidorx.http.gson.internal.LinkedTreeMap;
+import com.github.nidorx.http.gson.internal.CompactLinkedMap;
 
 import java.util.Map;
 import java.util.Set;
@@ -30,8 +30,8 @@ import java.util.Set;
  * @author Joel Leitch
  */
 public final class JsonObject extends com.github.nidorx.http.gson.JsonElement {
-  private final com.github.nidorx.http.gson.internal.LinkedTreeMap<String, com.github.nidorx.http.gson.JsonElement> members =
-      new LinkedTreeMap<String, com.github.nidorx.http.gson.JsonElement>();
+  private final com.github.nidorx.http.gson.internal.CompactLinkedMap<String, com.github.nidorx.http.gson.JsonElement> members =
+      new CompactLinkedMap<String, com.github.nidorx.http.gson.JsonElement>();
 
   /**
    * Creates a deep copy of this element and all its children
@@ -0,0 +1,281 @@
+package com.github.nidorx.http.gson;
+
+import com.github.nidorx.http.gson.internal.Streams;
+import com.github.nidorx.http.gson.internal.bind.JsonTreeReader;
+import com.github.nidorx.http.gson.stream.JsonNames;
+import com.github.nidorx.http.gson.stream.JsonReader;
+import com.github.nidorx.http.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads only the values at a set of JSON paths from a {@link JsonReader}, skipping the rest of the document with
+ * {@link JsonReader#skipValue()}.
+ * <p>
+ * The paths start at the root {@code $} and have the steps {@code .name}, {@code ['name']}, {@code [index]} and the
+ * wildcards {@code .*} and {@code [*]}, that match all the members of an object or the elements of an array, ex.
+ * {@code $.data.items[*].id}. The names of the members are compared with {@link JsonReader#selectName(JsonNames)},
+ * without creating strings.
+ * <p>
+ * A value matched by a path is given to the {@link Handler}. When a value is matched by more than one path, or a
+ * path continues inside a matched value, the value is read once into a {@link JsonElement}.
+ * <p>
+ * Instances are immutable and can be shared between threads.
+ */
+public final class JsonProjection {
+
+  /** paths of a projection, one bit for each path */
+  private static final int MAX_PATHS = 64;
+
+  /**
+   * Receives the values matched by the paths, in the order of the document
+   */
+  public interface Handler {
+
+    /**
+     * @param path position of the path in {@link JsonProjection#compile(String...)}
+     * @param in   reader positioned at the value, the handler must read exactly this value
+     */
+    void value(int path, JsonReader in) throws IOException;
+  }
+
+  private final String[] paths;
+
+  /** by depth: the names of the steps at the depth */
+  private final JsonNames[] names;
+
+  /** by depth and position in {@link #names}: the paths with the name at the depth */
+  private final long[][] nameMasks;
+
+  /** by depth: the indexes of the steps at the depth */
+  private final int[][] indexes;
+
+  /** by depth and position in {@link #indexes}: the paths with the index at the depth */
+  private final long[][] indexMasks;
+
+  /** by depth: the paths with a wildcard at the depth */
+  private final long[] wildcards;
+
+  /** by depth: the paths with a name at the depth */
+  private final long[] objectSteps;
+
+  /** by depth: the paths with an index at the depth */
+  private final long[] arraySteps;
+
+  /** by depth: the paths that end at the depth */
+  private final long[] ends;
+
+  private JsonProjection(String[] paths, List<List<Object>> steps) {
+    this.paths = paths;
+    int depths = 0;
+    for (List<Object> path : steps) {
+      depths = Math.max(depths, path.size() + 1);
+    }
+    names = new JsonNames[depths];
+    nameMasks = new long[depths][];
+    indexes = new int[depths][];
+    indexMasks = new long[depths][];
+    wildcards = new long[depths];
+    objectSteps = new long[depths];
+    arraySteps = new long[depths];
+    ends = new long[depths];
+
+    for (int depth = 0; depth < depths; depth++) {
+      List<String> depthNames = new ArrayList<String>();
+      List<Integer> depthIndexes = new ArrayList<Integer>();
+      for (List<Object> path : steps) {
+        if (depth < path.size()) {
+          Object step = path.get(depth);
+          if (step instanceof String && !depthNames.contains(step)) {
+            depthNames.add((String) step);
+          } else if (step instanceof Integer && !depthIndexes.contains(step)) {
+            depthIndexes.add((Integer) step);
+          }
+        }
+      }
+      names[depth] = JsonNames.of(depthNames.toArray(new String[0]));
+      nameMasks[depth] = new long[depthNames.size()];
+      indexes[depth] = new int[depthIndexes.size()];
+      indexMasks[depth] = new long[depthIndexes.size()];
+      for (int i = 0; i < depthIndexes.size(); i++) {
+        indexes[depth][i] = depthIndexes.get(i);
+      }
+
+      for (int p = 0; p < steps.size(); p++) {
+        List<Object> path = steps.get(p);
+        long bit = 1L << p;
+        if (depth == path.size()) {
+          ends[depth] |= bit;
+        } else if (depth < path.size()) {
+          Object step = path.get(depth);
+          if (step == null) {
+            wildcards[depth] |= bit;
+            objectSteps[depth] |= bit;
+            arraySteps[depth] |= bit;
+          } else if (step instanceof String) {
+            nameMasks[depth][depthNames.indexOf(step)] |= bit;
+            objectSteps[depth] |= bit;
+          } else {
+            indexMasks[depth][depthIndexes.indexOf(step)] |= bit;
+            arraySteps[depth] |= bit;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @param paths up to 64 paths, ex. {@code $.data.items[*].id}
+   * @throws IllegalArgumentException if a path is invalid, or there are more than 64 paths
+   */
+  public static JsonProjection compile(String... paths) {
+    if (paths.length == 0 || paths.length > MAX_PATHS) {
+      throw new IllegalArgumentException("Expected from 1 to " + MAX_PATHS + " paths, but was " + paths.length);
+    }
+    List<List<Object>> steps = new ArrayList<List<Object>>(paths.length);
+    for (String path : paths) {
+      steps.add(parse(path));
+    }
+    return new JsonProjection(paths.clone(), steps);
+  }
+
+  public int size() {
+    return paths.length;
+  }
+
+  /**
+   * @return the path at the position
+   */
+  public String path(int index) {
+    return paths[index];
+  }
+
+  /**
+   * Reads the next value of the reader, giving to the handler the values matched by the paths
+   */
+  public void read(JsonReader in, Handler handler) throws IOException {
+    read(in, 0, paths.length == MAX_PATHS ? -1L : (1L << paths.length) - 1, handler);
+  }
+
+  /**
+   * @param alive the paths that matched the steps before the depth
+   */
+  private void read(JsonReader in, int depth, long alive, Handler handler) throws IOException {
+    long matched = alive & ends[depth];
+    long deeper = alive & ~matched;
+    if (matched != 0) {
+      if (deeper == 0 && (matched & (matched - 1)) == 0) {
+        handler.value(Long.numberOfTrailingZeros(matched), in);
+        return;
+      }
+      // o valor é usado mais de uma vez
+      JsonElement value = Streams.parse(in);
+      for (; matched != 0; matched &= matched - 1) {
+        handler.value(Long.numberOfTrailingZeros(matched), new JsonTreeReader(value));
+      }
+      if (deeper != 0) {
+        read(new JsonTreeReader(value), depth, deeper, handler);
+      }
+      return;
+    }
+
+    JsonToken token = in.peek();
+    if (token == JsonToken.BEGIN_OBJECT && (deeper & objectSteps[depth]) != 0) {
+      JsonNames depthNames = names[depth];
+      long[] masks = nameMasks[depth];
+      long wildcard = wildcards[depth];
+      in.beginObject();
+      while (in.hasNext()) {
+        int name = in.selectName(depthNames);
+        long next = deeper & (name < 0 ? wildcard : wildcard | masks[name]);
+        if (next == 0) {
+          in.skipValue();
+        } else {
+          read(in, depth + 1, next, handler);
+        }
+      }
+      in.endObject();
+    } else if (token == JsonToken.BEGIN_ARRAY && (deeper & arraySteps[depth]) != 0) {
+      int[] depthIndexes = indexes[depth];
+      long[] masks = indexMasks[depth];
+      long wildcard = wildcards[depth];
+      in.beginArray();
+      for (int index = 0; in.hasNext(); index++) {
+        long next = wildcard;
+        for (int i = 0; i < depthIndexes.length; i++) {
+          if (depthIndexes[i] == index) {
+            next |= masks[i];
+          }
+        }
+        next &= deeper;
+        if (next == 0) {
+          in.skipValue();
+        } else {
+          read(in, depth + 1, next, handler);
+        }
+      }
+      in.endArray();
+    } else {
+      in.skipValue();
+    }
+  }
+
+  /**
+   * @return the steps of the path: a String for names, an Integer for indexes and null for wildcards
+   */
+  private static List<Object> parse(String path) {
+    if (path == null || !path.startsWith("$")) {
+      throw new IllegalArgumentException("Path must start with '$': " + path);
+    }
+    List<Object> steps = new ArrayList<Object>();
+    int i = 1;
+    int length = path.length();
+    while (i < length) {
+      char c = path.charAt(i);
+      if (c == '.') {
+        int start = ++i;
+        while (i < length && path.charAt(i) != '.' && path.charAt(i) != '[') {
+          i++;
+        }
+        if (i == start) {
+          throw new IllegalArgumentException("Expected a name at " + start + ": " + path);
+        }
+        String name = path.substring(start, i);
+        steps.add(name.equals("*") ? null : name);
+      } else if (c == '[') {
+        int close = path.indexOf(']', i);
+        if (close < 0) {
+          throw new IllegalArgumentException("Expected ']' after " + i + ": " + path);
+        }
+        String step = path.substring(i + 1, close).trim();
+        if (step.equals("*")) {
+          steps.add(null);
+        } else if (step.length() >= 2 && (step.charAt(0) == '\'' || step.charAt(0) == '"')
+            && step.charAt(step.length() - 1) == step.charAt(0)) {
+          steps.add(step.substring(1, step.length() - 1));
+        } else {
+          try {
+            int index = Integer.parseInt(step);
+            if (index < 0) {
+              throw new IllegalArgumentException("Negative index at " + i + ": " + path);
+            }
+            steps.add(index);
+          } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid step at " + i + ": " + path);
+          }
+        }
+        i = close + 1;
+      } else {
+        throw new IllegalArgumentException("Unexpected character '" + c + "' at " + i + ": " + path);
+      }
+    }
+    return steps;
+  }
+
+  @Override public String toString() {
+    return Arrays.toString(paths);
+  }
+}
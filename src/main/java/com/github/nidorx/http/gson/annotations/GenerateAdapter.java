@@ -0,0 +1,37 @@
+package com.github.nidorx.http.gson.annotations;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates, at compile time, a {@link com.github.nidorx.http.gson.TypeAdapter} for the annotated class, used by
+ * {@link com.github.nidorx.http.gson.Gson} instead of the reflective adapter.
+ *
+ * <p>The annotation processor is discovered by javac from the library jar, or configured explicitly (see
+ * {@link com.github.nidorx.http.gson.processor.GenerateAdapterProcessor}). For each annotated class
+ * {@code Foo}, it generates {@code Foo_GsonAdapter} in the same package, reading and writing the fields
+ * directly (or through {@code getX()}/{@code setX()} for private fields), and registers its factory in
+ * {@code META-INF/services}. The generated adapters follow the same rules of the reflective adapter:
+ * static and transient fields are skipped, {@link SerializedName} names are used and superclass fields
+ * are included.
+ *
+ * <p>The generated adapters are only used by instances with the default field naming policy, exclusion
+ * rules and instance creators; other instances use the reflective adapter. The annotated class must be
+ * a non-generic, non-abstract, top level or static nested class with a non-private no-args constructor.
+ *
+ * <pre>
+ * &#64;GenerateAdapter
+ * public class User {
+ *   String name;
+ *   &#64;SerializedName("email_address") String emailAddress;
+ * }
+ * </pre>
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateAdapter {
+}
@@ -0,0 +1,511 @@
+package com.github.nidorx.http.gson.internal;
+
+import java.io.ObjectStreamException;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * An insertion ordered map that keeps keys, values and hashes in parallel arrays, in insertion order, indexed by an
+ * open addressing table of ints. Maps with up to 8 entries have no table and are searched with a linear scan.
+ * <p>
+ * Compared to {@link LinkedTreeMap}, an entry takes about 20 bytes instead of a 40 bytes node, which matters for
+ * the many small objects of a parsed JSON tree. Removed entries leave a hole that is discarded when the arrays grow.
+ * <p>
+ * Like {@link LinkedTreeMap}, it is not vulnerable to keys with colliding hashes: when an insertion probes too many
+ * slots, the entries move to a {@link LinkedHashMap}, whose bins of colliding {@code Comparable} keys are trees.
+ * <p>
+ * Like {@link LinkedTreeMap}, null keys are not permitted.
+ */
+public final class CompactLinkedMap<K, V> extends AbstractMap<K, V> implements Serializable {
+
+  private static final Object REMOVED = new Object();
+
+  private static final Object[] EMPTY = {};
+
+  private static final int[] EMPTY_HASHES = {};
+
+  /** maximum number of entries searched without the table */
+  private static final int LINEAR_SCAN_MAX = 8;
+
+  /** probes of an insertion that indicate colliding hashes */
+  private static final int MAX_PROBES = 64;
+
+  private Object[] keys = EMPTY;
+
+  private Object[] values = EMPTY;
+
+  private int[] hashes = EMPTY_HASHES;
+
+  /** number of used positions in the arrays, including removed entries */
+  private int end;
+
+  private int size;
+
+  /**
+   * Positions of the entries plus one, 0 for empty slots and -1 for removed entries. The capacity is at least twice
+   * the length of the arrays, so there are always empty slots.
+   */
+  private int[] table;
+
+  private int modCount;
+
+  /** all entries, after an insertion with too many collisions */
+  private LinkedHashMap<K, V> overflow;
+
+  private EntrySet entrySet;
+
+  private KeySet keySet;
+
+  private Values valueCollection;
+
+  public CompactLinkedMap() {
+  }
+
+  /**
+   * @param expectedSize number of entries to allocate
+   */
+  public CompactLinkedMap(int expectedSize) {
+    if (expectedSize > 0) {
+      keys = new Object[expectedSize];
+      values = new Object[expectedSize];
+      hashes = new int[expectedSize];
+    }
+  }
+
+  @Override public int size() {
+    return overflow != null ? overflow.size() : size;
+  }
+
+  @Override public boolean containsKey(Object key) {
+    return overflow != null ? overflow.containsKey(key) : indexOf(key, hash(key)) >= 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public V get(Object key) {
+    if (overflow != null) {
+      return overflow.get(key);
+    }
+    int index = indexOf(key, hash(key));
+    return index < 0 ? null : (V) values[index];
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public V put(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException("key == null");
+    }
+    if (overflow != null) {
+      return overflow.put(key, value);
+    }
+    int hash = hash(key);
+    int index = indexOf(key, hash);
+    if (index >= 0) {
+      V old = (V) values[index];
+      values[index] = value;
+      return old;
+    }
+
+    if (end == keys.length) {
+      resize();
+    }
+    index = end++;
+    keys[index] = key;
+    values[index] = value;
+    hashes[index] = hash;
+    size++;
+    modCount++;
+    if (table != null) {
+      if (!insert(table, index, hash)) {
+        toOverflow();
+      }
+    } else if (end > LINEAR_SCAN_MAX) {
+      rebuildTable();
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override public V remove(Object key) {
+    if (overflow != null) {
+      return overflow.remove(key);
+    }
+    int index = indexOf(key, hash(key));
+    if (index < 0) {
+      return null;
+    }
+    V old = (V) values[index];
+    removeAt(index);
+    return old;
+  }
+
+  @Override public void clear() {
+    if (overflow != null) {
+      overflow = null;
+      keys = EMPTY;
+      values = EMPTY;
+      hashes = EMPTY_HASHES;
+    } else {
+      Arrays.fill(keys, 0, end, null);
+      Arrays.fill(values, 0, end, null);
+    }
+    end = 0;
+    size = 0;
+    table = null;
+    modCount++;
+  }
+
+  @Override public Set<Entry<K, V>> entrySet() {
+    EntrySet result = entrySet;
+    return result != null ? result : (entrySet = new EntrySet());
+  }
+
+  @Override public Set<K> keySet() {
+    KeySet result = keySet;
+    return result != null ? result : (keySet = new KeySet());
+  }
+
+  @Override public Collection<V> values() {
+    Values result = valueCollection;
+    return result != null ? result : (valueCollection = new Values());
+  }
+
+  private static int hash(Object key) {
+    int h = key == null ? 0 : key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private int indexOf(Object key, int hash) {
+    Object[] keys = this.keys;
+    int[] hashes = this.hashes;
+    int[] table = this.table;
+    if (table == null) {
+      for (int i = 0, end = this.end; i < end; i++) {
+        if (hashes[i] == hash) {
+          Object k = keys[i];
+          if (k != REMOVED && (k == key || key != null && key.equals(k))) {
+            return i;
+          }
+        }
+      }
+      return -1;
+    }
+    int mask = table.length - 1;
+    for (int slot = hash & mask; ; slot = (slot + 1) & mask) {
+      int entry = table[slot];
+      if (entry == 0) {
+        return -1;
+      }
+      if (entry > 0) {
+        int i = entry - 1;
+        if (hashes[i] == hash) {
+          Object k = keys[i];
+          if (k == key || key != null && key.equals(k)) {
+            return i;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return false when the insertion probed too many slots
+   */
+  private static boolean insert(int[] table, int index, int hash) {
+    int mask = table.length - 1;
+    int slot = hash & mask;
+    int probes = 0;
+    while (table[slot] > 0) {
+      slot = (slot + 1) & mask;
+      probes++;
+    }
+    table[slot] = index + 1;
+    return probes <= MAX_PROBES;
+  }
+
+  private void removeAt(int index) {
+    if (table != null) {
+      int mask = table.length - 1;
+      int slot = hashes[index] & mask;
+      while (table[slot] != index + 1) {
+        slot = (slot + 1) & mask;
+      }
+      table[slot] = -1;
+    }
+    keys[index] = REMOVED;
+    values[index] = null;
+    size--;
+    modCount++;
+    if (size == 0) {
+      // reuses the arrays from the start
+      Arrays.fill(keys, 0, end, null);
+      end = 0;
+      if (table != null) {
+        Arrays.fill(table, 0);
+      }
+    }
+  }
+
+  /**
+   * Discards the removed entries, and doubles the arrays when at least half of them are entries
+   */
+  private void resize() {
+    int capacity = keys.length;
+    if (size >= capacity >> 1) {
+      capacity = Math.max(4, capacity << 1);
+    }
+    Object[] newKeys = new Object[capacity];
+    Object[] newValues = new Object[capacity];
+    int[] newHashes = new int[capacity];
+    int j = 0;
+    for (int i = 0; i < end; i++) {
+      if (keys[i] != REMOVED) {
+        newKeys[j] = keys[i];
+        newValues[j] = values[i];
+        newHashes[j] = hashes[i];
+        j++;
+      }
+    }
+    keys = newKeys;
+    values = newValues;
+    hashes = newHashes;
+    end = j;
+    if (end > LINEAR_SCAN_MAX) {
+      rebuildTable();
+    } else {
+      table = null;
+    }
+  }
+
+  private void rebuildTable() {
+    int[] newTable = new int[Integer.highestOneBit(Math.max(keys.length, LINEAR_SCAN_MAX) * 4 - 1)];
+    for (int i = 0; i < end; i++) {
+      if (keys[i] != REMOVED && !insert(newTable, i, hashes[i])) {
+        toOverflow();
+        return;
+      }
+    }
+    table = newTable;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void toOverflow() {
+    LinkedHashMap<K, V> map = new LinkedHashMap<K, V>(size * 2);
+    for (int i = 0; i < end; i++) {
+      if (keys[i] != REMOVED) {
+        map.put((K) keys[i], (V) values[i]);
+      }
+    }
+    overflow = map;
+    keys = EMPTY;
+    values = EMPTY;
+    hashes = EMPTY_HASHES;
+    table = null;
+    end = 0;
+    size = 0;
+    modCount++;
+  }
+
+  private Object writeReplace() throws ObjectStreamException {
+    return new LinkedHashMap<K, V>(this);
+  }
+
+  private abstract class IndexIterator<T> implements Iterator<T> {
+    private int next = skipRemoved(0);
+    private int last = -1;
+    private int expectedModCount = modCount;
+
+    private int skipRemoved(int i) {
+      while (i < end && keys[i] == REMOVED) {
+        i++;
+      }
+      return i;
+    }
+
+    @Override public final boolean hasNext() {
+      return next < end;
+    }
+
+    @Override public final T next() {
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      if (next >= end) {
+        throw new NoSuchElementException();
+      }
+      last = next;
+      next = skipRemoved(next + 1);
+      return get(last);
+    }
+
+    @Override public final void remove() {
+      if (last < 0) {
+        throw new IllegalStateException();
+      }
+      if (modCount != expectedModCount) {
+        throw new ConcurrentModificationException();
+      }
+      removeAt(last);
+      last = -1;
+      expectedModCount = modCount;
+    }
+
+    abstract T get(int index);
+  }
+
+  private final class MapEntry implements Entry<K, V> {
+    private final int index;
+    private final K key;
+    private V value;
+
+    MapEntry(int index, K key, V value) {
+      this.index = index;
+      this.key = key;
+      this.value = value;
+    }
+
+    @Override public K getKey() {
+      return key;
+    }
+
+    @Override public V getValue() {
+      return value;
+    }
+
+    @Override public V setValue(V value) {
+      V old = this.value;
+      this.value = value;
+      if (overflow == null && index < end && keys[index] == key) {
+        values[index] = value;
+      } else {
+        put(key, value);
+      }
+      return old;
+    }
+
+    @Override public boolean equals(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> other = (Entry<?, ?>) o;
+      return (key == null ? other.getKey() == null : key.equals(other.getKey()))
+          && (value == null ? other.getValue() == null : value.equals(other.getValue()));
+    }
+
+    @Override public int hashCode() {
+      return (key == null ? 0 : key.hashCode()) ^ (value == null ? 0 : value.hashCode());
+    }
+
+    @Override public String toString() {
+      return key + "=" + value;
+    }
+  }
+
+  private final class EntrySet extends AbstractSet<Entry<K, V>> {
+    @Override public int size() {
+      return CompactLinkedMap.this.size();
+    }
+
+    @Override public Iterator<Entry<K, V>> iterator() {
+      if (overflow != null) {
+        return overflow.entrySet().iterator();
+      }
+      return new IndexIterator<Entry<K, V>>() {
+        @SuppressWarnings("unchecked")
+        @Override Entry<K, V> get(int index) {
+          return new MapEntry(index, (K) keys[index], (V) values[index]);
+        }
+      };
+    }
+
+    @Override public boolean contains(Object o) {
+      if (!(o instanceof Entry)) {
+        return false;
+      }
+      Entry<?, ?> entry = (Entry<?, ?>) o;
+      Object key = entry.getKey();
+      if (!containsKey(key)) {
+        return false;
+      }
+      Object value = get(key);
+      return value == null ? entry.getValue() == null : value.equals(entry.getValue());
+    }
+
+    @Override public boolean remove(Object o) {
+      if (!contains(o)) {
+        return false;
+      }
+      CompactLinkedMap.this.remove(((Entry<?, ?>) o).getKey());
+      return true;
+    }
+
+    @Override public void clear() {
+      CompactLinkedMap.this.clear();
+    }
+  }
+
+  private final class KeySet extends AbstractSet<K> {
+    @Override public int size() {
+      return CompactLinkedMap.this.size();
+    }
+
+    @Override public Iterator<K> iterator() {
+      if (overflow != null) {
+        return overflow.keySet().iterator();
+      }
+      return new IndexIterator<K>() {
+        @SuppressWarnings("unchecked")
+        @Override K get(int index) {
+          return (K) keys[index];
+        }
+      };
+    }
+
+    @Override public boolean contains(Object o) {
+      return containsKey(o);
+    }
+
+    @Override public boolean remove(Object key) {
+      if (!containsKey(key)) {
+        return false;
+      }
+      CompactLinkedMap.this.remove(key);
+      return true;
+    }
+
+    @Override public void clear() {
+      CompactLinkedMap.this.clear();
+    }
+  }
+
+  private final class Values extends AbstractCollection<V> {
+    @Override public int size() {
+      return CompactLinkedMap.this.size();
+    }
+
+    @Override public Iterator<V> iterator() {
+      if (overflow != null) {
+        return overflow.values().iterator();
+      }
+      return new IndexIterator<V>() {
+        @SuppressWarnings("unchecked")
+        @Override V get(int index) {
+          return (V) values[index];
+        }
+      };
+    }
+
+    @Override public void clear() {
+      CompactLinkedMap.this.clear();
+    }
+  }
+}
@@ -16,8 +16,13 @@
 
 package com.github.nidorx.http.gson.internal;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayDeque;
@@ -102,6 +107,19 @@ public final class ConstructorConstructor {
       if (!constructor.isAccessible()) {
         accessor.makeAccessible(constructor);
       }
+      final com.github.nidorx.http.gson.internal.ObjectConstructor<T> lambdaConstructor = newLambdaConstructor(constructor);
+      if (lambdaConstructor != null) {
+        return new com.github.nidorx.http.gson.internal.ObjectConstructor<T>() {
+          @Override public T construct() {
+            try {
+              return lambdaConstructor.construct();
+            } catch (RuntimeException e) {
+              // same exception of the reflective constructor
+              throw new RuntimeException("Failed to invoke " + constructor + " with no args", e);
+            }
+          }
+        };
+      }
       return new com.github.nidorx.http.gson.internal.ObjectConstructor<T>() {
         @SuppressWarnings("unchecked") // T is the same raw type as is requested
         @Override public T construct() {
@@ -126,6 +144,37 @@ public final class ConstructorConstructor {
     }
   }
 
+  /**
+   * Implements {@link ObjectConstructor} with {@link LambdaMetafactory}, as fast as a {@code Type::new}
+   * method reference. Returns null when the constructor is not accessible from this class or declares
+   * checked exceptions, to use reflection.
+   */
+  @SuppressWarnings("unchecked") // T is the same raw type as is requested
+  private static <T> com.github.nidorx.http.gson.internal.ObjectConstructor<T> newLambdaConstructor(
+      Constructor<? super T> constructor) {
+    Class<?> rawType = constructor.getDeclaringClass();
+    if (Modifier.isAbstract(rawType.getModifiers())) {
+      return null;
+    }
+    for (Class<?> exception : constructor.getExceptionTypes()) {
+      if (!RuntimeException.class.isAssignableFrom(exception) && !Error.class.isAssignableFrom(exception)) {
+        return null;
+      }
+    }
+    try {
+      MethodHandles.Lookup lookup = MethodHandles.lookup();
+      CallSite site = LambdaMetafactory.metafactory(lookup, "construct",
+          MethodType.methodType(com.github.nidorx.http.gson.internal.ObjectConstructor.class),
+          MethodType.methodType(Object.class),
+          lookup.unreflectConstructor(constructor),
+          MethodType.methodType(rawType));
+      return (com.github.nidorx.http.gson.internal.ObjectConstructor<T>) site.getTarget().invoke();
+    } catch (Throwable e) {
+      // not accessible (ex. private classes), use reflection
+      return null;
+    }
+  }
+
   /**
    * Constructors for common interface types like Map and List and their
    * subtypes.
@@ -206,7 +255,7 @@ public final class ConstructorConstructor {
       } else {
         return new com.github.nidorx.http.gson.internal.ObjectConstructor<T>() {
           @Override public T construct() {
-            return (T) new LinkedTreeMap<String, Object>();
+            return (T) new CompactLinkedMap<String, Object>();
           }
         };
       }
@@ -0,0 +1,271 @@
+package com.github.nidorx.http.gson.internal;
+
+import java.math.BigInteger;
+
+/**
+ * Parses JSON numbers to the nearest {@code double} directly from a character buffer, without creating a
+ * {@code String}.
+ * <p>
+ * Numbers with up to 19 significant digits are converted with Clinger's fast path when the mantissa and the power
+ * of ten are exact doubles, and otherwise with the Eisel-Lemire algorithm (Daniel Lemire, "Number Parsing at a
+ * Gigabyte per Second", 2021), which multiplies the mantissa by a truncated 128 bit power of five. The rare inputs
+ * that the algorithm can not round with certainty, and numbers with more significant digits, are parsed by
+ * {@link Double#parseDouble(String)}, so the result is always the correctly rounded value.
+ */
+public final class FastDoubleParser {
+
+  private static final int SMALLEST_POWER_OF_TEN = -342;
+
+  private static final int LARGEST_POWER_OF_TEN = 308;
+
+  private static final int MANTISSA_EXPLICIT_BITS = 52;
+
+  private static final int MINIMUM_EXPONENT = -1023;
+
+  private static final int INFINITE_POWER = 0x7FF;
+
+  private static final int MIN_EXPONENT_ROUND_TO_EVEN = -4;
+
+  private static final int MAX_EXPONENT_ROUND_TO_EVEN = 23;
+
+  private static final int MAX_DIGITS = 19;
+
+  private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+  private static final double[] EXACT_POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+      1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+  };
+
+  /**
+   * 5^q for q in [-342, 308], normalized to 128 bits: two longs (high, low) per power
+   */
+  private static final long[] POWERS_OF_FIVE = powersOfFive();
+
+  private FastDoubleParser() {
+  }
+
+  /**
+   * @param buffer the characters of a number in the JSON grammar
+   * @throws NumberFormatException if the characters are not a number
+   */
+  public static double parseDouble(char[] buffer, int offset, int length) {
+    int i = offset;
+    int end = offset + length;
+    boolean negative = i < end && buffer[i] == '-';
+    if (negative) {
+      i++;
+    }
+
+    long mantissa = 0;
+    int significantDigits = 0;
+    int exponent = 0;
+    int digits = 0;
+    for (; i < end; i++) {
+      int d = buffer[i] - '0';
+      if (d < 0 || d > 9) {
+        break;
+      }
+      digits++;
+      if (significantDigits < MAX_DIGITS) {
+        mantissa = mantissa * 10 + d;
+        if (mantissa != 0) {
+          significantDigits++;
+        }
+      } else if (d == 0) {
+        exponent++;
+      } else {
+        return fallback(buffer, offset, length);
+      }
+    }
+    if (i < end && buffer[i] == '.') {
+      i++;
+      for (; i < end; i++) {
+        int d = buffer[i] - '0';
+        if (d < 0 || d > 9) {
+          break;
+        }
+        digits++;
+        if (significantDigits < MAX_DIGITS) {
+          mantissa = mantissa * 10 + d;
+          if (mantissa != 0) {
+            significantDigits++;
+          }
+          exponent--;
+        } else if (d != 0) {
+          return fallback(buffer, offset, length);
+        }
+      }
+    }
+    if (digits == 0) {
+      return fallback(buffer, offset, length);
+    }
+    if (i < end && (buffer[i] == 'e' || buffer[i] == 'E')) {
+      i++;
+      boolean negativeExponent = false;
+      if (i < end && (buffer[i] == '-' || buffer[i] == '+')) {
+        negativeExponent = buffer[i] == '-';
+        i++;
+      }
+      int exponentDigits = 0;
+      int explicitExponent = 0;
+      for (; i < end; i++) {
+        int d = buffer[i] - '0';
+        if (d < 0 || d > 9) {
+          break;
+        }
+        exponentDigits++;
+        if (explicitExponent < 100000) {
+          explicitExponent = explicitExponent * 10 + d;
+        }
+      }
+      if (exponentDigits == 0) {
+        return fallback(buffer, offset, length);
+      }
+      exponent += negativeExponent ? -explicitExponent : explicitExponent;
+    }
+    if (i != end) {
+      return fallback(buffer, offset, length);
+    }
+
+    double result = toDouble(negative, mantissa, exponent);
+    return Double.isNaN(result) ? fallback(buffer, offset, length) : result;
+  }
+
+  /**
+   * @param mantissa unsigned, up to 19 digits
+   * @return {@code mantissa * 10^exponent} correctly rounded, or NaN when it can not be computed here
+   */
+  static double toDouble(boolean negative, long mantissa, int exponent) {
+    if (mantissa == 0 || exponent < SMALLEST_POWER_OF_TEN) {
+      return negative ? -0.0d : 0.0d;
+    }
+    if (exponent > LARGEST_POWER_OF_TEN) {
+      return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+
+    // Clinger: the mantissa and the power of ten are exact, the single operation is correctly rounded
+    if (mantissa > 0 && mantissa <= MAX_EXACT_MANTISSA && exponent >= -22 && exponent <= 22) {
+      double value = (double) mantissa;
+      value = exponent < 0 ? value / EXACT_POWERS_OF_TEN[-exponent] : value * EXACT_POWERS_OF_TEN[exponent];
+      return negative ? -value : value;
+    }
+
+    // Eisel-Lemire
+    int lz = Long.numberOfLeadingZeros(mantissa);
+    long w = mantissa << lz;
+    int index = 2 * (exponent - SMALLEST_POWER_OF_TEN);
+    long high = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index]);
+    long low = w * POWERS_OF_FIVE[index];
+    long precisionMask = 0xFFFFFFFFFFFFFFFFL >>> (MANTISSA_EXPLICIT_BITS + 3);
+    if ((high & precisionMask) == precisionMask) {
+      // the truncated product may be too small, add the next 64 bits of the power of five
+      long secondHigh = unsignedMultiplyHigh(w, POWERS_OF_FIVE[index + 1]);
+      long sum = low + secondHigh;
+      if (Long.compareUnsigned(sum, low) < 0) {
+        high++;
+      }
+      low = sum;
+    }
+    if (low == 0xFFFFFFFFFFFFFFFFL && (exponent < -27 || exponent > 55)) {
+      // can not decide the rounding
+      return Double.NaN;
+    }
+
+    int upperBit = (int) (high >>> 63);
+    int shift = upperBit + 64 - MANTISSA_EXPLICIT_BITS - 3;
+    long m = high >>> shift;
+    int power2 = power(exponent) + upperBit - lz - MINIMUM_EXPONENT;
+
+    if (power2 <= 0) {
+      // subnormal
+      if (-power2 + 1 >= 64) {
+        return negative ? -0.0d : 0.0d;
+      }
+      m >>>= -power2 + 1;
+      m += m & 1;
+      m >>>= 1;
+      power2 = m < (1L << MANTISSA_EXPLICIT_BITS) ? 0 : 1;
+      return bits(negative, m, power2);
+    }
+
+    if (Long.compareUnsigned(low, 1) <= 0 && exponent >= MIN_EXPONENT_ROUND_TO_EVEN
+        && exponent <= MAX_EXPONENT_ROUND_TO_EVEN && (m & 3) == 1 && (m << shift) == high) {
+      // exactly halfway between two doubles, round to even
+      m &= ~1L;
+    }
+    m += m & 1;
+    m >>>= 1;
+    if (m >= (2L << MANTISSA_EXPLICIT_BITS)) {
+      m = 1L << MANTISSA_EXPLICIT_BITS;
+      power2++;
+    }
+    m &= ~(1L << MANTISSA_EXPLICIT_BITS);
+    if (power2 >= INFINITE_POWER) {
+      return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+    }
+    return bits(negative, m, power2);
+  }
+
+  private static double bits(boolean negative, long mantissa, int power2) {
+    long bits = mantissa | (long) power2 << MANTISSA_EXPLICIT_BITS;
+    if (negative) {
+      bits |= 1L << 63;
+    }
+    return Double.longBitsToDouble(bits);
+  }
+
+  /**
+   * floor(log2(10^q)) + 63
+   */
+  private static int power(int q) {
+    return (((152170 + 65536) * q) >> 16) + 63;
+  }
+
+  private static long unsignedMultiplyHigh(long a, long b) {
+    long aLow = a & 0xFFFFFFFFL;
+    long aHigh = a >>> 32;
+    long bLow = b & 0xFFFFFFFFL;
+    long bHigh = b >>> 32;
+    long lowLow = aLow * bLow;
+    long highLow = aHigh * bLow;
+    long lowHigh = aLow * bHigh;
+    long highHigh = aHigh * bHigh;
+    long cross = (lowLow >>> 32) + (highLow & 0xFFFFFFFFL) + lowHigh;
+    return highHigh + (highLow >>> 32) + (cross >>> 32);
+  }
+
+  private static double fallback(char[] buffer, int offset, int length) {
+    return Double.parseDouble(new String(buffer, offset, length));
+  }
+
+  /**
+   * Same table of the fast_float library, computed instead of embedded in the class file.
+   */
+  private static long[] powersOfFive() {
+    long[] table = new long[2 * (LARGEST_POWER_OF_TEN - SMALLEST_POWER_OF_TEN + 1)];
+    BigInteger two128 = BigInteger.ONE.shiftLeft(128);
+    BigInteger mask = BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE);
+    BigInteger five = BigInteger.valueOf(5);
+    for (int q = SMALLEST_POWER_OF_TEN; q <= LARGEST_POWER_OF_TEN; q++) {
+      BigInteger value;
+      if (q < 0) {
+        BigInteger power5 = five.pow(-q);
+        int z = power5.bitLength();
+        int b = q >= -27 ? z + 127 : 2 * z + 128;
+        value = BigInteger.ONE.shiftLeft(b).divide(power5).add(BigInteger.ONE);
+        while (value.compareTo(two128) >= 0) {
+          value = value.shiftRight(1);
+        }
+      } else {
+        value = five.pow(q);
+        int bitLength = value.bitLength();
+        value = bitLength < 128 ? value.shiftLeft(128 - bitLength) : value.shiftRight(bitLength - 128);
+      }
+      int index = 2 * (q - SMALLEST_POWER_OF_TEN);
+      table[index] = value.shiftRight(64).longValue();
+      table[index + 1] = value.and(mask).longValue();
+    }
+    return table;
+  }
+}
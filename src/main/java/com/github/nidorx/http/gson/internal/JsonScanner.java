@@ -0,0 +1,181 @@
+package com.github.nidorx.http.gson.internal;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Scans the strings of UTF-8 JSON, used by {@link com.github.nidorx.http.gson.JsonDocument}.
+ * <p>
+ * Strings are scanned 8 bytes at a time (SWAR, SIMD within a register): each word is compared with the quote and
+ * the backslash at once, with bit operations that set the high bit of the matching bytes, so the bytes are not
+ * examined one by one. The words are read with the byte array view of {@code VarHandle} in Java 9 or later, and with
+ * {@code sun.misc.Unsafe} in Java 8. When neither is available, or the platform is big endian, the bytes are read one
+ * at a time.
+ */
+public final class JsonScanner {
+
+  private static final long LOW_BITS = 0x7F7F7F7F7F7F7F7FL;
+  private static final long QUOTES = 0x2222222222222222L;
+  private static final long BACKSLASHES = 0x5C5C5C5C5C5C5C5CL;
+
+  /** bytes compared one at a time before reading words, short strings are more common */
+  private static final int SCALAR_PREFIX = 8;
+
+  /** {@code long get(byte[] array, int offset)}, little endian, null when not available */
+  private static final MethodHandle GET_LONG = getLongHandle();
+
+  private JsonScanner() {
+  }
+
+  /**
+   * @param i position after the opening quote
+   * @return the position of the first quote or backslash, or {@code end}
+   */
+  public static int indexOfQuoteOrBackslash(byte[] json, int i, int end) {
+    for (int prefixEnd = Math.min(end, i + SCALAR_PREFIX); i < prefixEnd; i++) {
+      byte c = json[i];
+      if (c == '"' || c == '\\') {
+        return i;
+      }
+    }
+    if (canReadWords(json, i, end)) {
+      for (; i + 8 <= end; i += 8) {
+        long word = getLong(json, i);
+        long matches = matches(word, QUOTES) | matches(word, BACKSLASHES);
+        if (matches != 0) {
+          return i + (Long.numberOfTrailingZeros(matches) >>> 3);
+        }
+      }
+    }
+    for (; i < end; i++) {
+      byte c = json[i];
+      if (c == '"' || c == '\\') {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * @param offset first byte after the opening quote
+   * @param length number of bytes, without the quotes
+   * @return the decoded string
+   */
+  public static String decodeString(byte[] json, int offset, int length) {
+    int end = offset + length;
+    int escape = indexOfQuoteOrBackslash(json, offset, end);
+    if (escape == end) {
+      return new String(json, offset, length, StandardCharsets.UTF_8);
+    }
+    StringBuilder builder = new StringBuilder(length);
+    int start = offset;
+    for (int i = escape; i < end; i++) {
+      if (json[i] != '\\') {
+        continue;
+      }
+      if (i > start) {
+        builder.append(new String(json, start, i - start, StandardCharsets.UTF_8));
+      }
+      byte c = json[++i];
+      switch (c) {
+        case 'b':
+          builder.append('\b');
+          break;
+        case 'f':
+          builder.append('\f');
+          break;
+        case 'n':
+          builder.append('\n');
+          break;
+        case 'r':
+          builder.append('\r');
+          break;
+        case 't':
+          builder.append('\t');
+          break;
+        case 'u':
+          int value = 0;
+          for (int j = 1; j <= 4; j++) {
+            value = (value << 4) | Character.digit(json[i + j], 16);
+          }
+          builder.append((char) value);
+          i += 4;
+          break;
+        default:
+          builder.append((char) c);
+      }
+      start = i + 1;
+    }
+    if (end > start) {
+      builder.append(new String(json, start, end - start, StandardCharsets.UTF_8));
+    }
+    return builder.toString();
+  }
+
+  /**
+   * @return a word with the high bit set in each byte equal to the byte of the pattern
+   */
+  private static long matches(long word, long pattern) {
+    long x = word ^ pattern;
+    return ~(((x & LOW_BITS) + LOW_BITS) | x | LOW_BITS);
+  }
+
+  /**
+   * Unsafe does not check the bounds of the array, the words are read only inside the array
+   */
+  private static boolean canReadWords(byte[] json, int i, int end) {
+    return GET_LONG != null && i >= 0 && end <= json.length;
+  }
+
+  private static long getLong(byte[] json, int i) {
+    try {
+      return (long) GET_LONG.invokeExact(json, i);
+    } catch (Throwable e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  private static MethodHandle getLongHandle() {
+    if (ByteOrder.nativeOrder() != ByteOrder.LITTLE_ENDIAN) {
+      return null;
+    }
+    MethodType type = MethodType.methodType(long.class, byte[].class, int.class);
+    try {
+      if (JavaVersion.isJava9OrLater()) {
+        // MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN).toMethodHandle(AccessMode.GET)
+        Object varHandle = MethodHandles.class.getMethod("byteArrayViewVarHandle", Class.class, ByteOrder.class)
+            .invoke(null, long[].class, ByteOrder.LITTLE_ENDIAN);
+        Class<?> accessMode = Class.forName("java.lang.invoke.VarHandle$AccessMode");
+        Method toMethodHandle = Class.forName("java.lang.invoke.VarHandle").getMethod("toMethodHandle", accessMode);
+        MethodHandle handle = (MethodHandle) toMethodHandle.invoke(varHandle, accessMode.getField("GET").get(null));
+        return handle.asType(type);
+      }
+
+      // unsafe.getLong(array, ARRAY_BASE_OFFSET + (long) offset)
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Field f = unsafeClass.getDeclaredField("theUnsafe");
+      f.setAccessible(true);
+      Object unsafe = f.get(null);
+      long base = ((Number) unsafeClass.getMethod("arrayBaseOffset", Class.class).invoke(unsafe, byte[].class))
+          .longValue();
+      MethodHandle getLong = MethodHandles.lookup()
+          .findVirtual(unsafeClass, "getLong", MethodType.methodType(long.class, Object.class, long.class))
+          .bindTo(unsafe);
+      MethodHandle address = MethodHandles.insertArguments(MethodHandles.lookup().findStatic(JsonScanner.class,
+          "address", MethodType.methodType(long.class, long.class, int.class)), 0, base);
+      return MethodHandles.filterArguments(getLong, 1, address).asType(type);
+    } catch (Throwable e) {
+      return null;
+    }
+  }
+
+  @SuppressWarnings("unused")
+  private static long address(long base, int offset) {
+    return base + offset;
+  }
+}
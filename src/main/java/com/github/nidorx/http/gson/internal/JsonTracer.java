@@ -0,0 +1,41 @@
+package com.github.nidorx.http.gson.internal;
+
+import java.lang.reflect.Type;
+
+/**
+ * Hook to trace the conversions made by {@link com.github.nidorx.http.gson.Gson#fromJson} and
+ * {@link com.github.nidorx.http.gson.Gson#toJson}. There is no tracer by default, so the conversions
+ * only pay for a volatile read.
+ */
+public abstract class JsonTracer {
+
+  private static volatile JsonTracer current;
+
+  public static JsonTracer current() {
+    return current;
+  }
+
+  /**
+   * Installs the tracer used by all {@link com.github.nidorx.http.gson.Gson} instances, or removes
+   * the current one when {@code null}.
+   */
+  public static void install(JsonTracer tracer) {
+    current = tracer;
+  }
+
+  /**
+   * Called before a conversion.
+   *
+   * @return a token passed to {@link #end}, or {@code null} to not trace this conversion
+   */
+  public abstract Object begin();
+
+  /**
+   * Called after a conversion, even if it failed.
+   *
+   * @param token the value returned by {@link #begin()}
+   * @param operation "fromJson" or "toJson"
+   * @param type the type converted
+   */
+  public abstract void end(Object token, String operation, Type type);
+}
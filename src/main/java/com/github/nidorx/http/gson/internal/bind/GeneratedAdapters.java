@@ -0,0 +1,67 @@
+package com.github.nidorx.http.gson.internal.bind;
+
+import com.github.nidorx.http.gson.Gson;
+import com.github.nidorx.http.gson.TypeAdapter;
+import com.github.nidorx.http.gson.TypeAdapterFactory;
+import com.github.nidorx.http.gson.reflect.TypeToken;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.WeakHashMap;
+
+/**
+ * Support for the adapters generated by the {@link com.github.nidorx.http.gson.annotations.GenerateAdapter}
+ * processor. Public for the generated code, not part of the API.
+ */
+public final class GeneratedAdapters {
+
+  private static final Map<ClassLoader, List<TypeAdapterFactory>> FACTORIES =
+      new WeakHashMap<ClassLoader, List<TypeAdapterFactory>>();
+
+  private GeneratedAdapters() {
+  }
+
+  /**
+   * Returns the generated factories registered in {@code META-INF/services}, visible from the context
+   * class loader (or the Gson class loader). Loaded once per class loader.
+   */
+  public static List<TypeAdapterFactory> factories() {
+    ClassLoader loader = Thread.currentThread().getContextClassLoader();
+    if (loader == null) {
+      loader = Gson.class.getClassLoader();
+    }
+    synchronized (FACTORIES) {
+      List<TypeAdapterFactory> factories = FACTORIES.get(loader);
+      if (factories == null) {
+        factories = new ArrayList<TypeAdapterFactory>();
+        Iterator<TypeAdapterFactory> iterator = ServiceLoader.load(TypeAdapterFactory.class, loader).iterator();
+        while (true) {
+          try {
+            if (!iterator.hasNext()) {
+              break;
+            }
+            factories.add(iterator.next());
+          } catch (ServiceConfigurationError e) {
+            // stale entry (ex. class removed after an incremental build), ignore it
+          }
+        }
+        factories = Collections.unmodifiableList(factories);
+        FACTORIES.put(loader, factories);
+      }
+      return factories;
+    }
+  }
+
+  /**
+   * Returns the adapter of a field, using the runtime type of the values when writing, like the
+   * reflective adapter.
+   */
+  public static <T> TypeAdapter<T> fieldAdapter(Gson gson, TypeToken<T> fieldType) {
+    return new TypeAdapterRuntimeTypeWrapper<T>(gson, gson.getAdapter(fieldType), fieldType.getType());
+  }
+}
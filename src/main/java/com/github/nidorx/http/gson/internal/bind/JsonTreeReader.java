@@ -21,6 +21,7 @@ import com.github.nidorx.http.gson.JsonElement;
 import com.github.nidorx.http.gson.JsonNull;
 import com.github.nidorx.http.gson.JsonObject;
 import com.github.nidorx.http.gson.JsonPrimitive;
+import com.github.nidorx.http.gson.stream.JsonNames;
 import com.github.nidorx.http.gson.stream.JsonReader;
 import com.github.nidorx.http.gson.stream.JsonToken;
 import java.io.IOException;
@@ -174,6 +175,10 @@ public final class JsonTreeReader extends JsonReader {
     return result;
   }
 
+  @Override public int selectName(JsonNames names) throws IOException {
+    return names.indexOf(nextName());
+  }
+
   @Override public String nextString() throws IOException {
     JsonToken token = peek();
     if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
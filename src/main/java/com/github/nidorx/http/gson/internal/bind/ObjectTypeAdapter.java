@@ -19,7 +19,7 @@ package com.github.nidorx.http.gson.internal.bind;
 import com.github.nidorx.http.gson.Gson;
 import com.github.nidorx.http.gson.TypeAdapter;
 import com.github.nidorx.http.gson.TypeAdapterFactory;
-import com.github.nidorx.http.gson.internal.LinkedTreeMap;
+import com.github.nidorx.http.gson.internal.CompactLinkedMap;
 import com.github.nidorx.http.gson.reflect.TypeToken;
 import com.github.nidorx.http.gson.stream.JsonReader;
 import com.github.nidorx.http.gson.stream.JsonToken;
@@ -27,6 +27,7 @@ import com.github.nidorx.http.gson.stream.JsonWriter;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
@@ -39,22 +40,38 @@ public final class ObjectTypeAdapter extends TypeAdapter<Object> {
     @SuppressWarnings("unchecked")
     @Override public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
       if (type.getRawType() == Object.class) {
-        return (TypeAdapter<T>) new ObjectTypeAdapter(gson);
+        return (TypeAdapter<T>) new ObjectTypeAdapter(gson, false);
+      }
+      return null;
+    }
+  };
+
+  /** Reads arrays containing only numbers as {@code double[]}. */
+  public static final TypeAdapterFactory NUMERIC_ARRAYS_FACTORY = new TypeAdapterFactory() {
+    @SuppressWarnings("unchecked")
+    @Override public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+      if (type.getRawType() == Object.class) {
+        return (TypeAdapter<T>) new ObjectTypeAdapter(gson, true);
       }
       return null;
     }
   };
 
   private final Gson gson;
+  private final boolean numericArrays;
 
-  ObjectTypeAdapter(Gson gson) {
+  ObjectTypeAdapter(Gson gson, boolean numericArrays) {
     this.gson = gson;
+    this.numericArrays = numericArrays;
   }
 
   @Override public Object read(JsonReader in) throws IOException {
     JsonToken token = in.peek();
     switch (token) {
     case BEGIN_ARRAY:
+      if (numericArrays) {
+        return readNumericArray(in);
+      }
       List<Object> list = new ArrayList<Object>();
       in.beginArray();
       while (in.hasNext()) {
@@ -64,7 +81,7 @@ public final class ObjectTypeAdapter extends TypeAdapter<Object> {
       return list;
 
     case BEGIN_OBJECT:
-      Map<String, Object> map = new LinkedTreeMap<String, Object>();
+      Map<String, Object> map = new CompactLinkedMap<String, Object>();
       in.beginObject();
       while (in.hasNext()) {
         map.put(in.nextName(), read(in));
@@ -90,6 +107,37 @@ public final class ObjectTypeAdapter extends TypeAdapter<Object> {
     }
   }
 
+  /**
+   * Reads numbers into a double[] until the first value that is not a number, when the array
+   * is read as a list.
+   */
+  private Object readNumericArray(JsonReader in) throws IOException {
+    double[] numbers = null;
+    int size = 0;
+    in.beginArray();
+    while (in.hasNext()) {
+      if (in.peek() != JsonToken.NUMBER) {
+        List<Object> list = new ArrayList<Object>(size + 8);
+        for (int i = 0; i < size; i++) {
+          list.add(numbers[i]);
+        }
+        while (in.hasNext()) {
+          list.add(read(in));
+        }
+        in.endArray();
+        return list;
+      }
+      if (numbers == null) {
+        numbers = new double[16];
+      } else if (size == numbers.length) {
+        numbers = Arrays.copyOf(numbers, size << 1);
+      }
+      numbers[size++] = in.nextDouble();
+    }
+    in.endArray();
+    return numbers == null ? new ArrayList<Object>() : Arrays.copyOf(numbers, size);
+  }
+
   @SuppressWarnings("unchecked")
   @Override public void write(JsonWriter out, Object value) throws IOException {
     if (value == null) {
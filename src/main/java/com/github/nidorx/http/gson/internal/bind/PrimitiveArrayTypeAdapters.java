@@ -0,0 +1,171 @@
+package com.github.nidorx.http.gson.internal.bind;
+
+import com.github.nidorx.http.gson.Gson;
+import com.github.nidorx.http.gson.JsonSyntaxException;
+import com.github.nidorx.http.gson.TypeAdapter;
+import com.github.nidorx.http.gson.TypeAdapterFactory;
+import com.github.nidorx.http.gson.reflect.TypeToken;
+import com.github.nidorx.http.gson.stream.JsonReader;
+import com.github.nidorx.http.gson.stream.JsonToken;
+import com.github.nidorx.http.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Adapters of {@code int[]}, {@code long[]} and {@code double[]} that read the elements into a growable primitive
+ * buffer and write them without boxing, used instead of {@link ArrayTypeAdapter} while the element type and its
+ * boxed type have the default adapters.
+ */
+public final class PrimitiveArrayTypeAdapters {
+
+  private static final int INITIAL_CAPACITY = 16;
+
+  private PrimitiveArrayTypeAdapters() {
+  }
+
+  /**
+   * @param longAdapter   the adapter of {@code long} created by {@link Gson}
+   * @param doubleAdapter the adapter of {@code double} created by {@link Gson}
+   */
+  public static TypeAdapterFactory newFactory(final TypeAdapter<Number> longAdapter,
+                                              final TypeAdapter<Number> doubleAdapter) {
+    return new TypeAdapterFactory() {
+      @SuppressWarnings("unchecked")
+      @Override public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> typeToken) {
+        Class<? super T> type = typeToken.getRawType();
+        // only when the elements are not customized: ArrayTypeAdapter reads them with the adapter of the
+        // primitive type and writes them with the adapter of the boxed type
+        if (type == int[].class && (Object) gson.getAdapter(int.class) == TypeAdapters.INTEGER
+            && (Object) gson.getAdapter(Integer.class) == TypeAdapters.INTEGER) {
+          return (TypeAdapter<T>) new IntArrayAdapter();
+        }
+        if (type == long[].class && longAdapter == TypeAdapters.LONG
+            && (Object) gson.getAdapter(long.class) == longAdapter
+            && (Object) gson.getAdapter(Long.class) == longAdapter) {
+          return (TypeAdapter<T>) new LongArrayAdapter();
+        }
+        if (type == double[].class && (Object) gson.getAdapter(double.class) == doubleAdapter
+            && (Object) gson.getAdapter(Double.class) == doubleAdapter) {
+          return (TypeAdapter<T>) new DoubleArrayAdapter(doubleAdapter);
+        }
+        return null;
+      }
+    };
+  }
+
+  private static final class IntArrayAdapter extends TypeAdapter<int[]> {
+    @Override public int[] read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      int[] values = new int[INITIAL_CAPACITY];
+      int size = 0;
+      in.beginArray();
+      while (in.hasNext()) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        try {
+          values[size++] = in.nextInt();
+        } catch (NumberFormatException e) {
+          throw new JsonSyntaxException(e);
+        }
+      }
+      in.endArray();
+      return Arrays.copyOf(values, size);
+    }
+
+    @Override public void write(JsonWriter out, int[] values) throws IOException {
+      if (values == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginArray();
+      for (int value : values) {
+        out.value(value);
+      }
+      out.endArray();
+    }
+  }
+
+  private static final class LongArrayAdapter extends TypeAdapter<long[]> {
+    @Override public long[] read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      long[] values = new long[INITIAL_CAPACITY];
+      int size = 0;
+      in.beginArray();
+      while (in.hasNext()) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        try {
+          values[size++] = in.nextLong();
+        } catch (NumberFormatException e) {
+          throw new JsonSyntaxException(e);
+        }
+      }
+      in.endArray();
+      return Arrays.copyOf(values, size);
+    }
+
+    @Override public void write(JsonWriter out, long[] values) throws IOException {
+      if (values == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginArray();
+      for (long value : values) {
+        out.value(value);
+      }
+      out.endArray();
+    }
+  }
+
+  private static final class DoubleArrayAdapter extends TypeAdapter<double[]> {
+    /** writes NaN and infinities, or rejects them, as configured in Gson */
+    private final TypeAdapter<Number> doubleAdapter;
+
+    DoubleArrayAdapter(TypeAdapter<Number> doubleAdapter) {
+      this.doubleAdapter = doubleAdapter;
+    }
+
+    @Override public double[] read(JsonReader in) throws IOException {
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+        return null;
+      }
+      double[] values = new double[INITIAL_CAPACITY];
+      int size = 0;
+      in.beginArray();
+      while (in.hasNext()) {
+        if (size == values.length) {
+          values = Arrays.copyOf(values, size << 1);
+        }
+        values[size++] = in.nextDouble();
+      }
+      in.endArray();
+      return Arrays.copyOf(values, size);
+    }
+
+    @Override public void write(JsonWriter out, double[] values) throws IOException {
+      if (values == null) {
+        out.nullValue();
+        return;
+      }
+      out.beginArray();
+      for (double value : values) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+          doubleAdapter.write(out, value);
+        } else {
+          out.value(value);
+        }
+      }
+      out.endArray();
+    }
+  }
+}
@@ -28,8 +28,10 @@ import com.github.nidorx.http.gson.internal.ConstructorConstructor;
 import com.github.nidorx.http.gson.internal.Excluder;
 import com.github.nidorx.http.gson.internal.ObjectConstructor;
 import com.github.nidorx.http.gson.internal.Primitives;
+import com.github.nidorx.http.gson.internal.reflect.FieldAccessor;
 import com.github.nidorx.http.gson.internal.reflect.ReflectionAccessor;
 import com.github.nidorx.http.gson.reflect.TypeToken;
+import com.github.nidorx.http.gson.stream.JsonNames;
 import com.github.nidorx.http.gson.stream.JsonReader;
 import com.github.nidorx.http.gson.stream.JsonToken;
 import com.github.nidorx.http.gson.stream.JsonWriter;
@@ -117,25 +119,27 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
     if (mapped == null) mapped = context.getAdapter(fieldType);
 
     final TypeAdapter<?> typeAdapter = mapped;
+    // the runtime type wrapper is stateless, create it once instead of on each write
+    final TypeAdapter<?> writeAdapter = jsonAdapterPresent ? typeAdapter
+        : new com.github.nidorx.http.gson.internal.bind.TypeAdapterRuntimeTypeWrapper(context, typeAdapter, fieldType.getType());
+    final FieldAccessor fieldAccessor = FieldAccessor.of(field);
     return new ReflectiveTypeAdapterFactory.BoundField(name, serialize, deserialize) {
       @SuppressWarnings({"unchecked", "rawtypes"}) // the type adapter and field type always agree
       @Override void write(JsonWriter writer, Object value)
           throws IOException, IllegalAccessException {
-        Object fieldValue = field.get(value);
-        TypeAdapter t = jsonAdapterPresent ? typeAdapter
-            : new com.github.nidorx.http.gson.internal.bind.TypeAdapterRuntimeTypeWrapper(context, typeAdapter, fieldType.getType());
-        t.write(writer, fieldValue);
+        Object fieldValue = fieldAccessor.get(value);
+        ((TypeAdapter) writeAdapter).write(writer, fieldValue);
       }
       @Override void read(JsonReader reader, Object value)
           throws IOException, IllegalAccessException {
         Object fieldValue = typeAdapter.read(reader);
         if (fieldValue != null || !isPrimitive) {
-          field.set(value, fieldValue);
+          fieldAccessor.set(value, fieldValue);
         }
       }
       @Override public boolean writeField(Object value) throws IOException, IllegalAccessException {
         if (!serialized) return false;
-        Object fieldValue = field.get(value);
+        Object fieldValue = fieldAccessor.get(value);
         return fieldValue != value; // avoid recursion for example for Throwable.cause
       }
     };
@@ -197,10 +201,24 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
   public static final class Adapter<T> extends TypeAdapter<T> {
     private final ObjectConstructor<T> constructor;
     private final Map<String, BoundField> boundFields;
+    /** names of the deserialized fields, matched without creating a String for each name read */
+    private final JsonNames names;
+    private final BoundField[] readFields;
 
     Adapter(ObjectConstructor<T> constructor, Map<String, BoundField> boundFields) {
       this.constructor = constructor;
       this.boundFields = boundFields;
+
+      List<String> readNames = new ArrayList<String>(boundFields.size());
+      List<BoundField> fields = new ArrayList<BoundField>(boundFields.size());
+      for (Map.Entry<String, BoundField> entry : boundFields.entrySet()) {
+        if (entry.getValue().deserialized) {
+          readNames.add(entry.getKey());
+          fields.add(entry.getValue());
+        }
+      }
+      this.names = JsonNames.of(readNames.toArray(new String[0]));
+      this.readFields = fields.toArray(new BoundField[0]);
     }
 
     @Override public T read(JsonReader in) throws IOException {
@@ -214,12 +232,11 @@ public final class ReflectiveTypeAdapterFactory implements TypeAdapterFactory {
       try {
         in.beginObject();
         while (in.hasNext()) {
-          String name = in.nextName();
-          BoundField field = boundFields.get(name);
-          if (field == null || !field.deserialized) {
+          int index = in.selectName(names);
+          if (index < 0) {
             in.skipValue();
           } else {
-            field.read(in, instance);
+            readFields[index].read(in, instance);
           }
         }
       } catch (IllegalStateException e) {
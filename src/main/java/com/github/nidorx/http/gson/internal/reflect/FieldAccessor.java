@@ -0,0 +1,112 @@
+package com.github.nidorx.http.gson.internal.reflect;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+
+/**
+ * Reads and writes a field, created once per bound field.
+ * <p>
+ * Instance fields are accessed through {@link MethodHandle}s adapted to {@code (Object)Object} and
+ * {@code (Object,Object)void}, which skip the per call checks of {@link Field#get(Object)} and
+ * {@link Field#set(Object, Object)}. When a handle can not be created (access denied by the module system, static
+ * fields), the field is accessed by reflection.
+ */
+public abstract class FieldAccessor {
+
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+
+  private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+  /**
+   * @param field a field already made accessible with {@link ReflectionAccessor#makeAccessible}
+   */
+  public static FieldAccessor of(Field field) {
+    if (!Modifier.isStatic(field.getModifiers())) {
+      try {
+        MethodHandle getter = LOOKUP.unreflectGetter(field).asType(GETTER);
+        MethodHandle setter = null;
+        try {
+          setter = LOOKUP.unreflectSetter(field).asType(SETTER);
+        } catch (IllegalAccessException e) {
+          // final field not accessible, written by reflection
+        }
+        return new MethodHandleAccessor(field, getter, setter);
+      } catch (IllegalAccessException e) {
+        // fall back to reflection
+      } catch (RuntimeException e) {
+        // fall back to reflection
+      }
+    }
+    return new ReflectiveAccessor(field);
+  }
+
+  public abstract Object get(Object instance) throws IllegalAccessException;
+
+  public abstract void set(Object instance, Object value) throws IllegalAccessException;
+
+  private static final class ReflectiveAccessor extends FieldAccessor {
+    private final Field field;
+
+    ReflectiveAccessor(Field field) {
+      this.field = field;
+    }
+
+    @Override public Object get(Object instance) throws IllegalAccessException {
+      return field.get(instance);
+    }
+
+    @Override public void set(Object instance, Object value) throws IllegalAccessException {
+      field.set(instance, value);
+    }
+  }
+
+  private static final class MethodHandleAccessor extends FieldAccessor {
+    private final Field field;
+    private final MethodHandle getter;
+    private final MethodHandle setter;
+
+    MethodHandleAccessor(Field field, MethodHandle getter, MethodHandle setter) {
+      this.field = field;
+      this.getter = getter;
+      this.setter = setter;
+    }
+
+    @Override public Object get(Object instance) throws IllegalAccessException {
+      try {
+        return (Object) getter.invokeExact(instance);
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new AssertionError(e);
+      }
+    }
+
+    @Override public void set(Object instance, Object value) throws IllegalAccessException {
+      if (setter == null) {
+        field.set(instance, value);
+        return;
+      }
+      try {
+        setter.invokeExact(instance, value);
+      } catch (ClassCastException e) {
+        // same exception of Field.set
+        throw new IllegalArgumentException("Can not set " + field.getType().getName() + " field "
+            + field.getDeclaringClass().getName() + "." + field.getName() + " to "
+            + (value == null ? "null" : value.getClass().getName()), e);
+      } catch (RuntimeException e) {
+        throw e;
+      } catch (Error e) {
+        throw e;
+      } catch (Throwable e) {
+        throw new AssertionError(e);
+      }
+    }
+  }
+}
@@ -0,0 +1,509 @@
+package com.github.nidorx.http.gson.processor;
+
+import com.github.nidorx.http.gson.annotations.GenerateAdapter;
+import com.github.nidorx.http.gson.annotations.JsonAdapter;
+import com.github.nidorx.http.gson.annotations.SerializedName;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.FilerException;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates a {@code TypeAdapter} for each class annotated with {@link GenerateAdapter}, and registers
+ * their factories in {@code META-INF/services/com.github.nidorx.http.gson.TypeAdapterFactory}.
+ *
+ * <p>The processor is registered in {@code META-INF/services/javax.annotation.processing.Processor} of the library
+ * jar, so javac runs it implicitly when the jar is on the compile classpath (JDK 8 to 22). Builds that disable the
+ * implicit processing ({@code -proc:none}, JDK 23 or later) must configure it explicitly, with
+ * {@code -processor com.github.nidorx.http.gson.processor.GenerateAdapterProcessor} or the
+ * {@code annotationProcessorPaths} of the maven-compiler-plugin.
+ */
+public final class GenerateAdapterProcessor extends AbstractProcessor {
+
+  private static final String GSON = "com.github.nidorx.http.gson.";
+
+  private static final String SERVICE_FILE = "META-INF/services/" + GSON + "TypeAdapterFactory";
+
+  /** placeholder of the value in {@link Property#setter}, braces are not valid in Java names */
+  private static final String VALUE = "{value}";
+
+  /** factories generated in all rounds, written in the last round */
+  private final Set<String> factories = new TreeSet<String>();
+
+  @Override public Set<String> getSupportedAnnotationTypes() {
+    return Collections.singleton(GenerateAdapter.class.getCanonicalName());
+  }
+
+  @Override public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    for (Element element : roundEnv.getElementsAnnotatedWith(GenerateAdapter.class)) {
+      if (element.getKind() != ElementKind.CLASS) {
+        error(element, "@GenerateAdapter is only supported on classes");
+        continue;
+      }
+      try {
+        generate((TypeElement) element);
+      } catch (InvalidTypeException e) {
+        error(e.element, e.getMessage());
+      } catch (IOException e) {
+        error(element, "Failed to generate the adapter: " + e);
+      }
+    }
+    if (roundEnv.processingOver() && !factories.isEmpty()) {
+      writeServiceFile();
+    }
+    return true;
+  }
+
+  private void generate(TypeElement type) throws IOException, InvalidTypeException {
+    validate(type);
+    List<Property> properties = properties(type);
+
+    String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+    String adapterName = flatName(type) + "_GsonAdapter";
+    String typeName = type.getQualifiedName().toString();
+
+    StringBuilder out = new StringBuilder();
+    if (!packageName.isEmpty()) {
+      out.append("package ").append(packageName).append(";\n\n");
+    }
+    out.append("/**\n * Generated by {@code @GenerateAdapter} from {@link ").append(typeName).append("}.\n */\n");
+    out.append("public final class ").append(adapterName)
+        .append(" extends ").append(GSON).append("TypeAdapter<").append(typeName).append("> {\n\n");
+
+    out.append("  private static final ").append(GSON).append("stream.JsonNames NAMES = ").append(GSON)
+        .append("stream.JsonNames.of(");
+    int names = 0;
+    for (Property property : properties) {
+      for (String name : property.readNames) {
+        out.append(names++ == 0 ? "\n      " : ",\n      ").append(literal(name));
+      }
+    }
+    out.append(");\n\n");
+    for (Property property : properties) {
+      out.append("  private final ").append(GSON).append("TypeAdapter<").append(property.boxedType)
+          .append("> ").append(property.adapter).append(";\n");
+    }
+    out.append("\n  public ").append(adapterName).append("(").append(GSON).append("Gson gson) {\n");
+    for (Property property : properties) {
+      out.append("    ").append(property.adapter).append(" = ").append(GSON)
+          .append("internal.bind.GeneratedAdapters.fieldAdapter(gson, ").append(property.typeToken).append(");\n");
+    }
+    out.append("  }\n\n");
+
+    // write
+    out.append("  @Override public void write(").append(GSON).append("stream.JsonWriter out, ")
+        .append(typeName).append(" value) throws java.io.IOException {\n");
+    out.append("    if (value == null) {\n      out.nullValue();\n      return;\n    }\n");
+    out.append("    out.beginObject();\n");
+    for (Property property : properties) {
+      String indent = "    ";
+      if (!property.primitive) {
+        // avoid recursion, like the reflective adapter (ex. Throwable.cause)
+        out.append("    if (").append(property.getter).append(" != (Object) value) {\n");
+        indent = "      ";
+      }
+      out.append(indent).append("out.name(").append(literal(property.name)).append(");\n");
+      out.append(indent).append(property.adapter).append(".write(out, ").append(property.getter).append(");\n");
+      if (!property.primitive) {
+        out.append("    }\n");
+      }
+    }
+    out.append("    out.endObject();\n  }\n\n");
+
+    // read
+    out.append("  @Override public ").append(typeName).append(" read(").append(GSON)
+        .append("stream.JsonReader in) throws java.io.IOException {\n");
+    out.append("    if (in.peek() == ").append(GSON).append("stream.JsonToken.NULL) {\n")
+        .append("      in.nextNull();\n      return null;\n    }\n");
+    out.append("    ").append(typeName).append(" value = new ").append(typeName).append("();\n");
+    out.append("    try {\n      in.beginObject();\n      while (in.hasNext()) {\n");
+    out.append("        switch (in.selectName(NAMES)) {\n");
+    int index = 0;
+    for (Property property : properties) {
+      for (int i = 0; i < property.readNames.size(); i++) {
+        out.append("          case ").append(index++).append(":\n");
+      }
+      out.append("          {\n            ").append(property.boxedType).append(" v = ")
+          .append(property.adapter).append(".read(in);\n");
+      if (property.primitive) {
+        out.append("            if (v != null) {\n              ")
+            .append(property.setter.replace(VALUE, "v")).append(";\n            }\n");
+      } else {
+        out.append("            ").append(property.setter.replace(VALUE, "v")).append(";\n");
+      }
+      out.append("          }\n          break;\n");
+    }
+    out.append("          default:\n            in.skipValue();\n        }\n      }\n      in.endObject();\n");
+    out.append("    } catch (IllegalStateException e) {\n")
+        .append("      throw new ").append(GSON).append("JsonSyntaxException(e);\n    }\n");
+    out.append("    return value;\n  }\n\n");
+
+    // factory
+    out.append("  public static final class Factory implements ").append(GSON).append("TypeAdapterFactory {\n");
+    out.append("    @SuppressWarnings(\"unchecked\")\n");
+    out.append("    @Override public <T> ").append(GSON).append("TypeAdapter<T> create(").append(GSON)
+        .append("Gson gson, ").append(GSON).append("reflect.TypeToken<T> type) {\n");
+    out.append("      if (type.getRawType() != ").append(typeName).append(".class) {\n")
+        .append("        return null;\n      }\n");
+    out.append("      return (").append(GSON).append("TypeAdapter<T>) new ").append(adapterName).append("(gson);\n");
+    out.append("    }\n  }\n}\n");
+
+    String qualifiedAdapter = packageName.isEmpty() ? adapterName : packageName + "." + adapterName;
+    Writer writer = processingEnv.getFiler().createSourceFile(qualifiedAdapter, type).openWriter();
+    try {
+      writer.write(out.toString());
+    } finally {
+      writer.close();
+    }
+    factories.add(qualifiedAdapter + "$Factory");
+  }
+
+  private void validate(TypeElement type) throws InvalidTypeException {
+    Set<Modifier> modifiers = type.getModifiers();
+    if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.ABSTRACT)) {
+      throw new InvalidTypeException(type, "@GenerateAdapter classes must not be private or abstract");
+    }
+    if (type.getNestingKind() != NestingKind.TOP_LEVEL
+        && (type.getNestingKind() != NestingKind.MEMBER || !modifiers.contains(Modifier.STATIC))) {
+      throw new InvalidTypeException(type, "@GenerateAdapter classes must be top level or static nested classes");
+    }
+    for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement;
+         enclosing = enclosing.getEnclosingElement()) {
+      if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+        throw new InvalidTypeException(type, "@GenerateAdapter classes must not be nested in private classes");
+      }
+    }
+    if (!type.getTypeParameters().isEmpty()) {
+      throw new InvalidTypeException(type, "@GenerateAdapter classes must not be generic");
+    }
+    if (type.getAnnotation(JsonAdapter.class) != null) {
+      throw new InvalidTypeException(type, "@GenerateAdapter can not be combined with @JsonAdapter");
+    }
+    boolean hasConstructor = false;
+    for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+      if (constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE)) {
+        hasConstructor = true;
+      }
+    }
+    if (!hasConstructor) {
+      throw new InvalidTypeException(type, "@GenerateAdapter classes must have a non-private no-args constructor");
+    }
+  }
+
+  /**
+   * Fields of the class and superclasses, in the order of the reflective adapter.
+   */
+  private List<Property> properties(TypeElement type) throws InvalidTypeException {
+    DeclaredType declared = (DeclaredType) type.asType();
+    PackageElement typePackage = processingEnv.getElementUtils().getPackageOf(type);
+    Map<String, Property> byName = new LinkedHashMap<String, Property>();
+    List<Property> properties = new ArrayList<Property>();
+
+    TypeElement current = type;
+    while (current != null && !current.getQualifiedName().contentEquals("java.lang.Object")) {
+      for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+        Set<Modifier> modifiers = field.getModifiers();
+        if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)) {
+          continue;
+        }
+        if (field.getAnnotation(JsonAdapter.class) != null) {
+          throw new InvalidTypeException(field, "@JsonAdapter fields are not supported by @GenerateAdapter");
+        }
+        TypeMirror fieldType = processingEnv.getTypeUtils().asMemberOf(declared, field);
+        Property property = new Property();
+        property.adapter = "adapter" + properties.size();
+        property.primitive = fieldType.getKind().isPrimitive();
+        property.boxedType = property.primitive
+            ? processingEnv.getTypeUtils().boxedClass((javax.lang.model.type.PrimitiveType) fieldType)
+            .getQualifiedName().toString()
+            : typeName(field, fieldType);
+        property.typeToken = typeToken(field, fieldType);
+
+        SerializedName serializedName = field.getAnnotation(SerializedName.class);
+        property.name = serializedName == null ? field.getSimpleName().toString() : serializedName.value();
+        property.readNames.add(property.name);
+        if (serializedName != null) {
+          Collections.addAll(property.readNames, serializedName.alternate());
+        }
+        for (String name : property.readNames) {
+          Property previous = byName.put(name, property);
+          if (previous != null) {
+            throw new InvalidTypeException(field, type.getQualifiedName() + " declares multiple JSON fields named "
+                + name);
+          }
+        }
+
+        accessors(type, typePackage, current, field, property);
+        properties.add(property);
+      }
+      TypeMirror superclass = current.getSuperclass();
+      current = superclass.getKind() == TypeKind.DECLARED
+          ? (TypeElement) ((DeclaredType) superclass).asElement()
+          : null;
+    }
+    return properties;
+  }
+
+  /**
+   * Direct access to the field when visible from the generated adapter (same package), otherwise
+   * through the getter and setter.
+   */
+  private void accessors(TypeElement type, PackageElement typePackage, TypeElement owner, VariableElement field,
+                         Property property) throws InvalidTypeException {
+    String fieldName = field.getSimpleName().toString();
+    Set<Modifier> modifiers = field.getModifiers();
+    boolean samePackage = processingEnv.getElementUtils().getPackageOf(owner).equals(typePackage);
+    boolean visible = modifiers.contains(Modifier.PUBLIC) && owner.getModifiers().contains(Modifier.PUBLIC)
+        || !modifiers.contains(Modifier.PRIVATE) && samePackage;
+
+    if (visible) {
+      // a field hidden by a subclass is accessed through the declaring class, as seen from the annotated class
+      String target = isHidden(type, owner, fieldName)
+          ? "((" + typeName(field, supertype((DeclaredType) type.asType(), owner)) + ") value)"
+          : "value";
+      property.getter = target + "." + fieldName;
+      property.setter = modifiers.contains(Modifier.FINAL) ? null : target + "." + fieldName + " = " + VALUE;
+    }
+
+    String suffix = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+    for (ExecutableElement method : ElementFilter.methodsIn(
+        processingEnv.getElementUtils().getAllMembers(type))) {
+      if (method.getModifiers().contains(Modifier.PRIVATE) || method.getModifiers().contains(Modifier.STATIC)) {
+        continue;
+      }
+      String name = method.getSimpleName().toString();
+      if (property.getter == null && method.getParameters().isEmpty()
+          && (name.equals("get" + suffix) || name.equals("is" + suffix) && "java.lang.Boolean".equals(property.boxedType))) {
+        property.getter = "value." + name + "()";
+      } else if (property.setter == null && method.getParameters().size() == 1 && name.equals("set" + suffix)) {
+        property.setter = "value." + name + "(" + VALUE + ")";
+      }
+    }
+
+    if (property.getter == null || property.setter == null) {
+      throw new InvalidTypeException(field, "Field " + fieldName + " is not accessible from the generated adapter,"
+          + " make it non-private or add the get" + suffix + "()/set" + suffix + "() methods");
+    }
+  }
+
+  /**
+   * @return true when a class from the type up to the owner, exclusive, declares a field with the name
+   */
+  private static boolean isHidden(TypeElement type, TypeElement owner, String fieldName) {
+    for (TypeElement current = type; current != null && !current.equals(owner); ) {
+      for (VariableElement field : ElementFilter.fieldsIn(current.getEnclosedElements())) {
+        if (field.getSimpleName().contentEquals(fieldName)) {
+          return true;
+        }
+      }
+      TypeMirror superclass = current.getSuperclass();
+      current = superclass.getKind() == TypeKind.DECLARED
+          ? (TypeElement) ((DeclaredType) superclass).asElement()
+          : null;
+    }
+    return false;
+  }
+
+  /**
+   * @return the superclass of the type declared by the owner, with the type arguments of the type, ex.
+   * {@code Base<List<Integer>>} for {@code class Dto extends Base<List<Integer>>}
+   */
+  private DeclaredType supertype(DeclaredType type, TypeElement owner) {
+    DeclaredType current = type;
+    while (!current.asElement().equals(owner)) {
+      // the first direct supertype of a class is the superclass, with the type arguments of the subclass
+      current = (DeclaredType) processingEnv.getTypeUtils().directSupertypes(current).get(0);
+    }
+    return current;
+  }
+
+  /**
+   * Source name of the type, without type annotations.
+   */
+  private String typeName(Element field, TypeMirror type) throws InvalidTypeException {
+    switch (type.getKind()) {
+      case BOOLEAN:
+      case BYTE:
+      case SHORT:
+      case INT:
+      case LONG:
+      case CHAR:
+      case FLOAT:
+      case DOUBLE:
+        return type.getKind().name().toLowerCase(java.util.Locale.ROOT);
+      case ARRAY:
+        return typeName(field, ((ArrayType) type).getComponentType()) + "[]";
+      case WILDCARD:
+        WildcardType wildcard = (WildcardType) type;
+        if (wildcard.getExtendsBound() != null) {
+          return "? extends " + typeName(field, wildcard.getExtendsBound());
+        }
+        if (wildcard.getSuperBound() != null) {
+          return "? super " + typeName(field, wildcard.getSuperBound());
+        }
+        return "?";
+      case DECLARED:
+        DeclaredType declared = (DeclaredType) type;
+        StringBuilder name = new StringBuilder(
+            ((TypeElement) declared.asElement()).getQualifiedName().toString());
+        if (!declared.getTypeArguments().isEmpty()) {
+          name.append('<');
+          boolean first = true;
+          for (TypeMirror argument : declared.getTypeArguments()) {
+            if (!first) {
+              name.append(", ");
+            }
+            first = false;
+            name.append(typeName(field, argument));
+          }
+          name.append('>');
+        }
+        return name.toString();
+      default:
+        throw new InvalidTypeException(field, "Unsupported field type for @GenerateAdapter: " + type);
+    }
+  }
+
+  private String typeToken(Element field, TypeMirror type) throws InvalidTypeException {
+    String name = typeName(field, type);
+    boolean generic = name.indexOf('<') >= 0;
+    if (!generic) {
+      return GSON + "reflect.TypeToken.get(" + name + ".class)";
+    }
+    return "new " + GSON + "reflect.TypeToken<" + name + ">() {}";
+  }
+
+  private void writeServiceFile() {
+    Set<String> entries = new TreeSet<String>(factories);
+    // keep the entries of the previous (incremental) compilation
+    try {
+      FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      BufferedReader reader = new BufferedReader(
+          new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8));
+      try {
+        String line;
+        while ((line = reader.readLine()) != null) {
+          line = line.trim();
+          if (!line.isEmpty() && !line.startsWith("#")) {
+            entries.add(line);
+          }
+        }
+      } finally {
+        reader.close();
+      }
+    } catch (IOException e) {
+      // no previous file
+    }
+
+    try {
+      FileObject file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      Writer writer = file.openWriter();
+      try {
+        for (String entry : entries) {
+          writer.write(entry);
+          writer.write('\n');
+        }
+      } finally {
+        writer.close();
+      }
+    } catch (FilerException e) {
+      // incremental builds may not allow to reopen the file. The factories of this compilation are not registered,
+      // Gson uses the reflective adapter for their classes until a full build
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Failed to write " + SERVICE_FILE
+          + ", the adapters " + factories + " are not registered until a full build: " + e);
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Failed to write " + SERVICE_FILE + ": " + e);
+    }
+  }
+
+  private static String flatName(TypeElement type) {
+    StringBuilder name = new StringBuilder(type.getSimpleName());
+    for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement;
+         enclosing = enclosing.getEnclosingElement()) {
+      name.insert(0, enclosing.getSimpleName() + "_");
+    }
+    return name.toString();
+  }
+
+  private static String literal(String value) {
+    StringBuilder literal = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      switch (c) {
+        case '"':
+          literal.append("\\\"");
+          break;
+        case '\\':
+          literal.append("\\\\");
+          break;
+        default:
+          if (c < 0x20 || c > 0x7e) {
+            literal.append(String.format("\\u%04x", (int) c));
+          } else {
+            literal.append(c);
+          }
+      }
+    }
+    return literal.append('"').toString();
+  }
+
+  private void error(Element element, String message) {
+    processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+  }
+
+  private static final class Property {
+    String name;
+    final List<String> readNames = new ArrayList<String>();
+    String adapter;
+    String boxedType;
+    String typeToken;
+    boolean primitive;
+    /** expression reading the field of {@code value} */
+    String getter;
+    /** statement writing {@link #VALUE} to the field of {@code value} */
+    String setter;
+  }
+
+  private static final class InvalidTypeException extends Exception {
+    final transient Element element;
+
+    InvalidTypeException(Element element, String message) {
+      super(message);
+      this.element = element;
+    }
+  }
+}
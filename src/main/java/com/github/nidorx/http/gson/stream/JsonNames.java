@@ -0,0 +1,119 @@
+package com.github.nidorx.http.gson.stream;
+
+import java.util.Arrays;
+
+/**
+ * An immutable set of property names, prepared once to be matched by {@link JsonReader#selectName(JsonNames)}
+ * directly against the characters of the reader's buffer, without creating a {@code String} for each name read.
+ * <p>
+ * Names are stored in an open addressing hash table indexed by the {@link String#hashCode()} of the name, so the
+ * same hash is computed while the name is scanned in the buffer.
+ */
+public final class JsonNames {
+
+  private final String[] names;
+
+  private final char[][] chars;
+
+  private final int[] hashes;
+
+  /** index of the name in each slot, -1 for empty slots */
+  private final int[] slots;
+
+  private final int mask;
+
+  private JsonNames(String[] names) {
+    this.names = names;
+    this.chars = new char[names.length][];
+    this.hashes = new int[names.length];
+
+    int capacity = Integer.highestOneBit(Math.max(names.length, 1) * 2 + 1);
+    this.slots = new int[capacity];
+    this.mask = capacity - 1;
+    Arrays.fill(slots, -1);
+
+    for (int i = 0; i < names.length; i++) {
+      String name = names[i];
+      if (name == null) {
+        throw new NullPointerException("name == null");
+      }
+      if (indexOf(name) >= 0) {
+        throw new IllegalArgumentException("Duplicate name: " + name);
+      }
+      chars[i] = name.toCharArray();
+      hashes[i] = name.hashCode();
+      int slot = spread(hashes[i]) & mask;
+      while (slots[slot] >= 0) {
+        slot = (slot + 1) & mask;
+      }
+      slots[slot] = i;
+    }
+  }
+
+  /**
+   * @param names the names, each one is identified by its position in this array
+   */
+  public static JsonNames of(String... names) {
+    return new JsonNames(names.clone());
+  }
+
+  public int size() {
+    return names.length;
+  }
+
+  public String get(int index) {
+    return names[index];
+  }
+
+  /**
+   * Returns the position of {@code name}, or -1 if it is not one of these names.
+   */
+  public int indexOf(String name) {
+    int hash = name.hashCode();
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      int index = slots[slot];
+      if (index < 0) {
+        return -1;
+      }
+      if (hashes[index] == hash && name.equals(names[index])) {
+        return index;
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #indexOf(String)} for the name in {@code buffer[offset..offset+length)} with the given
+   * {@link String#hashCode()}.
+   */
+  int find(char[] buffer, int offset, int length, int hash) {
+    for (int slot = spread(hash) & mask; ; slot = (slot + 1) & mask) {
+      int index = slots[slot];
+      if (index < 0) {
+        return -1;
+      }
+      if (hashes[index] == hash && regionMatches(chars[index], buffer, offset, length)) {
+        return index;
+      }
+    }
+  }
+
+  private static boolean regionMatches(char[] name, char[] buffer, int offset, int length) {
+    if (name.length != length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (name[i] != buffer[offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static int spread(int hash) {
+    return hash ^ (hash >>> 16);
+  }
+
+  @Override public String toString() {
+    return Arrays.toString(names);
+  }
+}
@@ -16,6 +16,7 @@
 
 package com.github.nidorx.http.gson.stream;
 
+import com.github.nidorx.http.gson.internal.FastDoubleParser;
 import com.github.nidorx.http.gson.internal.JsonReaderInternalAccess;
 import com.github.nidorx.http.gson.internal.bind.JsonTreeReader;
 
@@ -192,6 +193,50 @@ import java.util.Arrays;
 public class JsonReader implements Closeable {
   private static final long MIN_INCOMPLETE_INTEGER = Long.MIN_VALUE / 10;
 
+  /* The classes of the characters for skipContainer(). */
+  private static final byte SKIP_SCALAR = 0;
+  private static final byte SKIP_WHITESPACE = 1;
+  private static final byte SKIP_NEWLINE = 2;
+  private static final byte SKIP_QUOTE = 3;
+  private static final byte SKIP_BEGIN_OBJECT = 4;
+  private static final byte SKIP_BEGIN_ARRAY = 5;
+  private static final byte SKIP_END_OBJECT = 6;
+  private static final byte SKIP_END_ARRAY = 7;
+  private static final byte SKIP_COMMA = 8;
+  private static final byte SKIP_COLON = 9;
+  /** a character of lenient JSON, or invalid outside of strings */
+  private static final byte SKIP_OTHER = 10;
+
+  /** the class of each ASCII character, the others are part of numbers and literals */
+  private static final byte[] SKIP_CLASSES = new byte[128];
+  static {
+    for (int c = 0; c < ' '; c++) {
+      SKIP_CLASSES[c] = SKIP_OTHER;
+    }
+    for (char c : new char[] {'\'', '/', '\\', ';', '#', '='}) {
+      SKIP_CLASSES[c] = SKIP_OTHER;
+    }
+    SKIP_CLASSES[' '] = SKIP_WHITESPACE;
+    SKIP_CLASSES['\t'] = SKIP_WHITESPACE;
+    SKIP_CLASSES['\r'] = SKIP_WHITESPACE;
+    SKIP_CLASSES['\n'] = SKIP_NEWLINE;
+    SKIP_CLASSES['"'] = SKIP_QUOTE;
+    SKIP_CLASSES['{'] = SKIP_BEGIN_OBJECT;
+    SKIP_CLASSES['['] = SKIP_BEGIN_ARRAY;
+    SKIP_CLASSES['}'] = SKIP_END_OBJECT;
+    SKIP_CLASSES[']'] = SKIP_END_ARRAY;
+    SKIP_CLASSES[','] = SKIP_COMMA;
+    SKIP_CLASSES[':'] = SKIP_COLON;
+  }
+
+  /* What skipContainer() expects after the last token. */
+  private static final int SKIP_EXPECT_VALUE = 0;
+  private static final int SKIP_EXPECT_NAME = 1;
+  /** a separator or the end of the container */
+  private static final int SKIP_EXPECT_NEXT = 2;
+  /** the rest of a number or literal */
+  private static final int SKIP_IN_SCALAR = 3;
+
   private static final int PEEKED_NONE = 0;
   private static final int PEEKED_BEGIN_OBJECT = 1;
   private static final int PEEKED_END_OBJECT = 2;
@@ -793,6 +838,56 @@ public class JsonReader implements Closeable {
     return result;
   }
 
+  /**
+   * Consumes the next token, a {@link com.github.nidorx.http.gson.stream.JsonToken#NAME property name}, and
+   * returns its position in {@code names}, or -1 if it is not one of them.
+   *
+   * <p>Double quoted names without escapes are compared directly against the
+   * characters in the buffer, so no {@code String} is created. When the name
+   * is not found, the path does not include it until the value is skipped.
+   *
+   * @throws java.io.IOException if the next token in the stream is not a property
+   *     name.
+   */
+  public int selectName(JsonNames names) throws IOException {
+    int p = peeked;
+    if (p == PEEKED_NONE) {
+      p = doPeek();
+    }
+    if (p != PEEKED_DOUBLE_QUOTED_NAME) {
+      return names.indexOf(nextName());
+    }
+
+    // Like nextQuotedValue, computing String.hashCode() while looking for the closing quote.
+    char[] buffer = this.buffer;
+    int i = pos;
+    int hash = 0;
+    while (true) {
+      if (i == limit) {
+        int length = i - pos;
+        // the name does not fit in the buffer
+        if (length + 1 >= buffer.length || !fillBuffer(length + 1)) {
+          return names.indexOf(nextName());
+        }
+        i = pos + length;
+      }
+      char c = buffer[i];
+      if (c == '"') {
+        break;
+      } else if (c == '\\' || c == '\n') {
+        return names.indexOf(nextName());
+      }
+      hash = 31 * hash + c;
+      i++;
+    }
+
+    int index = names.find(buffer, pos, i - pos, hash);
+    pos = i + 1;
+    peeked = PEEKED_NONE;
+    pathNames[stackSize - 1] = index < 0 ? null : names.get(index);
+    return index;
+  }
+
   /**
    * Returns the {@link com.github.nidorx.http.gson.stream.JsonToken#STRING string} value of the next token,
    * consuming it. If the next token is a number, this method will return its
@@ -895,8 +990,16 @@ public class JsonReader implements Closeable {
     }
 
     if (p == PEEKED_NUMBER) {
-      peekedString = new String(buffer, pos, peekedNumberLength);
+      // parsed in the buffer, without creating a String
+      double result = FastDoubleParser.parseDouble(buffer, pos, peekedNumberLength);
+      if (!lenient && Double.isInfinite(result)) {
+        throw new com.github.nidorx.http.gson.stream.MalformedJsonException(
+            "JSON forbids NaN and infinities: " + result + locationString());
+      }
       pos += peekedNumberLength;
+      peeked = PEEKED_NONE;
+      pathIndices[stackSize - 1]++;
+      return result;
     } else if (p == PEEKED_SINGLE_QUOTED || p == PEEKED_DOUBLE_QUOTED) {
       peekedString = nextQuotedValue(p == PEEKED_SINGLE_QUOTED ? '\'' : '"');
     } else if (p == PEEKED_UNQUOTED) {
@@ -1223,11 +1326,27 @@ public class JsonReader implements Closeable {
    * Skips the next value recursively. If it is an object or array, all nested
    * elements are skipped. This method is intended for use when the JSON token
    * stream contains unrecognized or unhandled values.
+   *
+   * <p>Objects and arrays are skipped with a table of the characters, without
+   * reading each token. The same documents are accepted and rejected as when
+   * the value is skipped token by token: when a construct of lenient JSON is
+   * found, like comments or single quoted and unquoted strings, or a number or
+   * literal that is not valid in strict mode, the rest of the value is skipped
+   * token by token.
    */
   public void skipValue() throws IOException {
     int count = 0;
-    do {
-      int p = peeked;
+    int p = peeked;
+    if (p == PEEKED_NONE) {
+      p = doPeek();
+    }
+    if (p == PEEKED_BEGIN_ARRAY || p == PEEKED_BEGIN_OBJECT) {
+      peeked = PEEKED_NONE;
+      count = skipContainer(p == PEEKED_BEGIN_OBJECT);
+    }
+
+    while (count != 0 || peeked != PEEKED_NONE) {
+      p = peeked;
       if (p == PEEKED_NONE) {
         p = doPeek();
       }
@@ -1254,12 +1373,238 @@ public class JsonReader implements Closeable {
         pos += peekedNumberLength;
       }
       peeked = PEEKED_NONE;
-    } while (count != 0);
+    }
 
     pathIndices[stackSize - 1]++;
     pathNames[stackSize - 1] = "null";
   }
 
+  /**
+   * Skips the rest of the object or array that begins before {@code pos},
+   * following the tokens of strict JSON. The scope of the stack is updated
+   * at each token, as {@link #doPeek()} does, so when a character of lenient
+   * JSON or a syntax error is found the reader returns to the end of the
+   * last token, where the tokens can be read again.
+   *
+   * @return the number of containers still open, 0 when the container was
+   *     skipped
+   */
+  private int skipContainer(boolean object) throws IOException {
+    int base = stackSize;
+    int top = object ? JsonScope.EMPTY_OBJECT : JsonScope.EMPTY_ARRAY;
+    push(top);
+    int expect = object ? SKIP_EXPECT_NAME : SKIP_EXPECT_VALUE;
+
+    // Like nextNonWhitespace, this uses locals 'p' and 'l' to save inner-loop field access.
+    char[] buffer = this.buffer;
+    int p = pos;
+    int l = limit;
+    // the end of the last token, kept in the buffer
+    int mark = p;
+    int markLineNumber = lineNumber;
+    int markLineStart = lineStart;
+    int scalarStart = 0;
+
+    scan:
+    while (true) {
+      if (p == l) {
+        int length = p - mark;
+        if (length >= buffer.length) {
+          break;
+        }
+        pos = mark;
+        boolean filled = fillBuffer(length + 1);
+        markLineStart -= mark;
+        scalarStart += pos - mark;
+        mark = pos;
+        if (!filled) {
+          break;
+        }
+        p = mark + length;
+        l = limit;
+        if (expect == SKIP_IN_SCALAR) {
+          // the number or literal is read again, now with the next characters
+          p = scalarStart;
+          expect = SKIP_EXPECT_VALUE;
+        }
+      }
+
+      char c = buffer[p++];
+      byte type = c < 128 ? SKIP_CLASSES[c] : SKIP_SCALAR;
+      if (type == SKIP_WHITESPACE) {
+        continue;
+      }
+      if (type == SKIP_NEWLINE) {
+        lineNumber++;
+        lineStart = p;
+        continue;
+      }
+
+      switch (type) {
+      case SKIP_SCALAR:
+        if (expect != SKIP_EXPECT_VALUE) {
+          break scan;
+        }
+        scalarStart = p - 1;
+        while (p < l && ((c = buffer[p]) >= 128 || SKIP_CLASSES[c] == SKIP_SCALAR)) {
+          p++;
+        }
+        if (p == l) {
+          expect = SKIP_IN_SCALAR;
+          continue;
+        }
+        type = SKIP_CLASSES[c];
+        if (type == SKIP_QUOTE || type == SKIP_BEGIN_OBJECT || type == SKIP_BEGIN_ARRAY || type == SKIP_OTHER) {
+          // part of an unquoted string
+          break scan;
+        }
+        if (!lenient && !isStrictScalar(buffer, scalarStart, p)) {
+          // doPeek() accepts or rejects it, like when it is read token by token
+          break scan;
+        }
+        top = top == JsonScope.DANGLING_NAME ? JsonScope.NONEMPTY_OBJECT : JsonScope.NONEMPTY_ARRAY;
+        mark = p;
+        break;
+      case SKIP_QUOTE:
+        if (expect == SKIP_EXPECT_NAME) {
+          top = JsonScope.DANGLING_NAME;
+        } else if (expect == SKIP_EXPECT_VALUE) {
+          top = top == JsonScope.DANGLING_NAME ? JsonScope.NONEMPTY_OBJECT : JsonScope.NONEMPTY_ARRAY;
+        } else {
+          break scan;
+        }
+        pos = p;
+        skipQuotedValue('"');
+        p = pos;
+        l = limit;
+        mark = p;
+        break;
+      case SKIP_BEGIN_OBJECT:
+      case SKIP_BEGIN_ARRAY:
+        if (expect != SKIP_EXPECT_VALUE) {
+          break scan;
+        }
+        stack[stackSize - 1] = top == JsonScope.DANGLING_NAME ? JsonScope.NONEMPTY_OBJECT : JsonScope.NONEMPTY_ARRAY;
+        if (type == SKIP_BEGIN_OBJECT) {
+          top = JsonScope.EMPTY_OBJECT;
+          expect = SKIP_EXPECT_NAME;
+        } else {
+          top = JsonScope.EMPTY_ARRAY;
+          expect = SKIP_EXPECT_VALUE;
+        }
+        push(top);
+        mark = p;
+        markLineNumber = lineNumber;
+        markLineStart = lineStart;
+        continue;
+      case SKIP_END_OBJECT:
+      case SKIP_END_ARRAY:
+        if (type == SKIP_END_OBJECT
+            ? !(top == JsonScope.EMPTY_OBJECT && expect == SKIP_EXPECT_NAME
+                || top == JsonScope.NONEMPTY_OBJECT && expect == SKIP_EXPECT_NEXT)
+            : !(top == JsonScope.EMPTY_ARRAY && expect == SKIP_EXPECT_VALUE
+                || top == JsonScope.NONEMPTY_ARRAY && expect == SKIP_EXPECT_NEXT)) {
+          break scan;
+        }
+        if (--stackSize == base) {
+          pos = p;
+          return 0;
+        }
+        top = stack[stackSize - 1];
+        mark = p;
+        break;
+      case SKIP_COMMA:
+        if (expect != SKIP_EXPECT_NEXT || top != JsonScope.NONEMPTY_ARRAY && top != JsonScope.NONEMPTY_OBJECT) {
+          break scan;
+        }
+        // the comma is read again by doPeek()
+        expect = top == JsonScope.NONEMPTY_ARRAY ? SKIP_EXPECT_VALUE : SKIP_EXPECT_NAME;
+        mark = p - 1;
+        markLineNumber = lineNumber;
+        markLineStart = lineStart;
+        continue;
+      case SKIP_COLON:
+        if (expect != SKIP_EXPECT_NEXT || top != JsonScope.DANGLING_NAME) {
+          break scan;
+        }
+        // the colon is read again by doPeek()
+        expect = SKIP_EXPECT_VALUE;
+        mark = p - 1;
+        markLineNumber = lineNumber;
+        markLineStart = lineStart;
+        continue;
+      default:
+        break scan;
+      }
+      // a value or name was read
+      stack[stackSize - 1] = top;
+      expect = SKIP_EXPECT_NEXT;
+      markLineNumber = lineNumber;
+      markLineStart = lineStart;
+    }
+
+    pos = mark;
+    lineNumber = markLineNumber;
+    lineStart = markLineStart;
+    return stackSize - base;
+  }
+
+  /**
+   * Returns true if the characters are a number or literal that {@link #doPeek()}
+   * accepts in strict mode. Uppercase literals and numbers that the reader does
+   * not accept are left to {@code doPeek()}.
+   */
+  private static boolean isStrictScalar(char[] buffer, int start, int end) {
+    int length = end - start;
+    char c = buffer[start];
+    if (c == 't' || c == 'n') {
+      return length == 4 && (c == 't'
+          ? buffer[start + 1] == 'r' && buffer[start + 2] == 'u' && buffer[start + 3] == 'e'
+          : buffer[start + 1] == 'u' && buffer[start + 2] == 'l' && buffer[start + 3] == 'l');
+    }
+    if (c == 'f') {
+      return length == 5 && buffer[start + 1] == 'a' && buffer[start + 2] == 'l'
+          && buffer[start + 3] == 's' && buffer[start + 4] == 'e';
+    }
+    // -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?
+    int p = start;
+    if (c == '-') {
+      p++;
+    }
+    if (p == end || (c = buffer[p]) < '0' || c > '9') {
+      return false;
+    }
+    if (c == '0') {
+      p++;
+    } else {
+      while (p < end && (c = buffer[p]) >= '0' && c <= '9') {
+        p++;
+      }
+    }
+    if (p < end && buffer[p] == '.') {
+      int digits = ++p;
+      while (p < end && (c = buffer[p]) >= '0' && c <= '9') {
+        p++;
+      }
+      if (p == digits) {
+        return false;
+      }
+    }
+    if (p < end && ((c = buffer[p]) == 'e' || c == 'E')) {
+      if (++p < end && ((c = buffer[p]) == '+' || c == '-')) {
+        p++;
+      }
+      int digits = p;
+      while (p < end && (c = buffer[p]) >= '0' && c <= '9') {
+        p++;
+      }
+      if (p == digits) {
+        return false;
+      }
+    }
+    return p == end;
+  }
+
   private void push(int newTop) {
     if (stackSize == stack.length) {
       int newLength = stackSize * 2;
@@ -154,6 +154,12 @@ public class JsonWriter implements Closeable, Flushable {
     HTML_SAFE_REPLACEMENT_CHARS['\''] = "\\u0027";
   }
 
+  /**
+   * Integral values below this magnitude are written by {@link Double#toString(double)}
+   * in plain notation, as the digits followed by {@code ".0"}, by every Java version.
+   */
+  private static final double PLAIN_INTEGRAL_LIMIT = 1e7;
+
   /** The output data, containing at most one top-level array or object. */
   private final Writer out;
 
@@ -182,6 +188,9 @@ public class JsonWriter implements Closeable, Flushable {
 
   private boolean serializeNulls = true;
 
+  /** Digits of integral doubles and floats, created on the first number written. */
+  private char[] numberBuffer;
+
   /**
    * Creates a new instance that writes a JSON-encoded stream to {@code out}.
    * For best performance, ensure {@link Writer} is buffered; wrapping in
@@ -487,7 +496,7 @@ public class JsonWriter implements Closeable, Flushable {
       throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
     }
     beforeValue();
-    out.append(Double.toString(value));
+    writeNumber(value);
     return this;
   }
 
@@ -516,6 +525,20 @@ public class JsonWriter implements Closeable, Flushable {
     }
 
     writeDeferredName();
+    Class<?> type = value.getClass();
+    if (type == Double.class || type == Float.class) {
+      double doubleValue = value.doubleValue();
+      if (!lenient && (Double.isNaN(doubleValue) || Double.isInfinite(doubleValue))) {
+        throw new IllegalArgumentException("Numeric values must be finite, but was " + value);
+      }
+      beforeValue();
+      if (type == Double.class) {
+        writeNumber(doubleValue);
+      } else {
+        writeNumber(value.floatValue());
+      }
+      return this;
+    }
     String string = value.toString();
     if (!lenient
         && (string.equals("-Infinity") || string.equals("Infinity") || string.equals("NaN"))) {
@@ -526,6 +549,55 @@ public class JsonWriter implements Closeable, Flushable {
     return this;
   }
 
+  /**
+   * Writes the same characters of {@link Double#toString(double)}. Integral
+   * values, common in numeric arrays, are written without creating a String.
+   */
+  private void writeNumber(double value) throws IOException {
+    if (!writeIntegral(value)) {
+      out.write(Double.toString(value));
+    }
+  }
+
+  /**
+   * Writes the same characters of {@link Float#toString(float)}. Integral
+   * values are written without creating a String.
+   */
+  private void writeNumber(float value) throws IOException {
+    if (!writeIntegral(value)) {
+      out.write(Float.toString(value));
+    }
+  }
+
+  /**
+   * @return false when the value is not integral, is negative zero or is
+   *     written by {@code toString} in scientific notation
+   */
+  private boolean writeIntegral(double value) throws IOException {
+    long integral = (long) value;
+    if (integral != value || value <= -PLAIN_INTEGRAL_LIMIT || value >= PLAIN_INTEGRAL_LIMIT
+        || integral == 0 && Double.doubleToRawLongBits(value) != 0) {
+      return false;
+    }
+    if (numberBuffer == null) {
+      numberBuffer = new char[10];
+    }
+    char[] buffer = numberBuffer;
+    int i = buffer.length;
+    buffer[--i] = '0';
+    buffer[--i] = '.';
+    long digits = Math.abs(integral);
+    do {
+      buffer[--i] = (char) ('0' + digits % 10);
+      digits /= 10;
+    } while (digits != 0);
+    if (integral < 0) {
+      buffer[--i] = '-';
+    }
+    out.write(buffer, i, buffer.length - i);
+    return true;
+  }
+
   /**
    * Ensures all buffered data is written to the underlying {@link Writer}
    * and flushes that writer.
@@ -0,0 +1,69 @@
+package com.github.nidorx.http.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One execution of a {@link com.github.nidorx.http.HttpRequest}
+ */
+@Name("com.github.nidorx.http.HttpCall")
+@Label("HTTP Call")
+@Category({"HttpRequest"})
+@Description("Execution of a HttpRequest, with the duration of each phase")
+@StackTrace(false)
+final class HttpCallEvent extends jdk.jfr.Event {
+
+    @Label("URL Template")
+    @Description("Url of the request before replacing the path params")
+    String url;
+
+    @Label("Method")
+    String method;
+
+    @Label("Host")
+    String host;
+
+    @Label("Status Code")
+    int status;
+
+    @Label("Bytes Sent")
+    @DataAmount
+    long bytesSent;
+
+    @Label("Bytes Received")
+    @DataAmount
+    long bytesReceived;
+
+    @Label("DNS")
+    @Timespan
+    long dns;
+
+    @Label("Connect")
+    @Description("TCP connect and TLS handshake")
+    @Timespan
+    long connect;
+
+    @Label("TLS Handshake")
+    @Timespan
+    long tls;
+
+    @Label("Time To First Byte")
+    @Timespan
+    long timeToFirstByte;
+
+    @Label("Body")
+    @Timespan
+    long body;
+
+    @Label("Decode")
+    @Timespan
+    long decode;
+
+    @Label("Failure")
+    String failure;
+}
@@ -0,0 +1,66 @@
+package com.github.nidorx.http.jfr;
+
+import com.github.nidorx.http.HttpCall;
+import com.github.nidorx.http.HttpEventListener;
+
+/**
+ * Gera um {@link HttpCallEvent} para cada requisição. O evento é mantido em um ThreadLocal, pois a requisição é
+ * executada inteiramente na mesma thread
+ */
+final class JfrEventListener implements HttpEventListener {
+
+    private final ThreadLocal<HttpCallEvent> events = new ThreadLocal<>();
+
+    @Override
+    public void callStart(final HttpCall call, final long nanoTime) {
+        final HttpCallEvent event = new HttpCallEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            events.set(event);
+        } else {
+            events.remove();
+        }
+    }
+
+    @Override
+    public void callEnd(final HttpCall call, final long nanoTime) {
+        commit(call, null);
+    }
+
+    @Override
+    public void callFailed(final HttpCall call, final long nanoTime, final Exception error) {
+        commit(call, error);
+    }
+
+    private void commit(final HttpCall call, final Exception error) {
+        final HttpCallEvent event = events.get();
+        if (event == null) {
+            return;
+        }
+        events.remove();
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        event.url = call.getUrl();
+        event.method = call.getMethod();
+        event.host = call.getHost();
+        event.status = call.getStatusCode();
+        event.bytesSent = call.getBytesSent();
+        event.bytesReceived = call.getBytesReceived();
+        event.dns = call.getDnsEnd() - call.getDnsStart();
+        event.connect = call.getConnectEnd() - call.getConnectStart();
+        event.tls = call.getSecureConnectEnd() - call.getSecureConnectStart();
+        if (call.getFirstByte() != 0) {
+            event.timeToFirstByte = call.getFirstByte() - call.getCallStart();
+        }
+        if (call.getBodyEnd() != 0) {
+            event.body = call.getBodyEnd() - call.getFirstByte();
+        }
+        event.decode = call.getDecodeNanos();
+        if (error != null) {
+            event.failure = error.toString();
+        }
+        event.commit();
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.nidorx.http.jfr;
+
+import com.github.nidorx.http.HttpEventListener;
+import com.github.nidorx.http.HttpRequest;
+import com.github.nidorx.http.gson.internal.JsonTracer;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.FlightRecorderListener;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JDK Flight Recorder events of the library:
+ * <ul>
+ * <li><b>com.github.nidorx.http.HttpCall</b>: one per request, with url template, status, bytes and the duration of
+ * each phase</li>
+ * <li><b>com.github.nidorx.http.JsonBind</b>: one per {@code Gson.fromJson}/{@code Gson.toJson}, with operation and
+ * type. Opt-in, see {@link #enableJsonEvents(long, TimeUnit)}</li>
+ * </ul>
+ * <p>
+ * Requires a JVM with JFR (8u262+). The request instrumentation is only active while there is a running recording,
+ * so there is no overhead when JFR is not recording.
+ *
+ * <pre>
+ * if (JfrEvents.isAvailable()) {
+ *     JfrEvents.install();
+ *     JfrEvents.enableJsonEvents(1, TimeUnit.MILLISECONDS);
+ * }
+ * </pre>
+ */
+public final class JfrEvents {
+
+    private static final boolean AVAILABLE;
+
+    private static boolean installed;
+
+    static {
+        boolean available;
+        try {
+            Class.forName("jdk.jfr.FlightRecorder");
+            available = true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            available = false;
+        }
+        AVAILABLE = available;
+    }
+
+    private JfrEvents() {
+    }
+
+    /**
+     * @return true if the JVM has support for JFR
+     */
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    /**
+     * Emits the HttpCall events while there is a running recording
+     *
+     * @return false if the JVM has no support for JFR
+     */
+    public static synchronized boolean install() {
+        if (!AVAILABLE) {
+            return false;
+        }
+        if (!installed) {
+            installed = true;
+            Recorder.install();
+        }
+        return true;
+    }
+
+    /**
+     * Emits the JsonBind events for the conversions that take at least the given threshold (the event must also be
+     * enabled in the recording settings)
+     *
+     * @param threshold
+     * @param unit
+     * @return false if the JVM has no support for JFR
+     */
+    public static boolean enableJsonEvents(final long threshold, final TimeUnit unit) {
+        if (!AVAILABLE) {
+            return false;
+        }
+        JsonTracer.install(new JfrJsonTracer(unit.toNanos(threshold)));
+        return true;
+    }
+
+    public static void disableJsonEvents() {
+        if (JsonTracer.current() instanceof JfrJsonTracer) {
+            JsonTracer.install(null);
+        }
+    }
+
+    /**
+     * Mantém o listener registrado somente enquanto existe alguma gravação em andamento. Classe separada para não
+     * carregar as classes do JFR quando ele não está disponível
+     */
+    private static final class Recorder implements FlightRecorderListener {
+
+        private final HttpEventListener listener = new JfrEventListener();
+
+        private boolean registered;
+
+        static void install() {
+            FlightRecorder.addListener(new Recorder());
+        }
+
+        @Override
+        public void recorderInitialized(final FlightRecorder recorder) {
+            update(recorder);
+        }
+
+        @Override
+        public void recordingStateChanged(final Recording recording) {
+            update(FlightRecorder.getFlightRecorder());
+        }
+
+        private synchronized void update(final FlightRecorder recorder) {
+            boolean recording = false;
+            for (Recording r : recorder.getRecordings()) {
+                if (r.getState() == RecordingState.RUNNING) {
+                    recording = true;
+                    break;
+                }
+            }
+            if (recording && !registered) {
+                HttpRequest.addGlobalEventListener(listener);
+            } else if (!recording && registered) {
+                HttpRequest.removeGlobalEventListener(listener);
+            }
+            registered = recording;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.github.nidorx.http.jfr;
+
+import com.github.nidorx.http.gson.internal.JsonTracer;
+
+import java.lang.reflect.Type;
+
+/**
+ * Gera um {@link JsonBindEvent} para as conversões que levam mais que o threshold
+ */
+final class JfrJsonTracer extends JsonTracer {
+
+    private final long thresholdNanos;
+
+    JfrJsonTracer(final long thresholdNanos) {
+        this.thresholdNanos = thresholdNanos;
+    }
+
+    @Override
+    public Object begin() {
+        final JsonBindEvent event = new JsonBindEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.startNanos = System.nanoTime();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void end(final Object token, final String operation, final Type type) {
+        final JsonBindEvent event = (JsonBindEvent) token;
+        event.end();
+        if (System.nanoTime() - event.startNanos < thresholdNanos || !event.shouldCommit()) {
+            return;
+        }
+        event.operation = operation;
+        event.type = type == null ? null : type.getTypeName();
+        event.commit();
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.nidorx.http.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One conversion of {@link com.github.nidorx.http.gson.Gson#fromJson} or {@link com.github.nidorx.http.gson.Gson#toJson}
+ */
+@Name("com.github.nidorx.http.JsonBind")
+@Label("JSON Bind")
+@Category({"HttpRequest"})
+@Description("Conversion between JSON and a Java type")
+@StackTrace(false)
+final class JsonBindEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Type")
+    String type;
+
+    /**
+     * Início da conversão, para aplicar o threshold (não é gravado)
+     */
+    transient long startNanos;
+}
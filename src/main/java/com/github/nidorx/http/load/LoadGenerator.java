@@ -0,0 +1,292 @@
+package com.github.nidorx.http.load;
+
+import com.github.nidorx.http.HttpRequest;
+import com.github.nidorx.http.HttpResponse;
+import com.github.nidorx.http.metrics.LatencyHistogram;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Load generator (similar to wrk/wrk2) that executes the requests with {@link HttpRequest}.
+ * <ul>
+ * <li><b>Closed loop</b> (default): each worker sends a new request as soon as the previous one completes</li>
+ * <li><b>Open loop</b> ({@link #rate(double)}): requests are scheduled at a constant rate, independent of the
+ * response times. The latency is measured from the time each request should have started, so a slow server is not
+ * hidden by the generator sending fewer requests (coordinated omission)</li>
+ * </ul>
+ *
+ * <pre>
+ * LoadReport report = LoadGenerator.of(() -&gt; HttpRequest.build("http://localhost:8080/users"))
+ *         .concurrency(16)
+ *         .rate(2000)
+ *         .warmup(5, TimeUnit.SECONDS)
+ *         .duration(30, TimeUnit.SECONDS)
+ *         .run();
+ * System.out.println(report);
+ * </pre>
+ * <p>
+ * From the command line:
+ * <pre>
+ * java -cp http-request.jar com.github.nidorx.http.load.LoadGenerator -c 16 -d 30 -R 2000 http://localhost:8080/users
+ * </pre>
+ */
+public final class LoadGenerator {
+
+    private final Supplier<HttpRequest> requests;
+
+    private int concurrency = 8;
+
+    private double rate;
+
+    private long warmupNanos;
+
+    private long durationNanos = TimeUnit.SECONDS.toNanos(10);
+
+    private LoadGenerator(final Supplier<HttpRequest> requests) {
+        this.requests = requests;
+    }
+
+    /**
+     * @param requests creates each request executed
+     * @return
+     */
+    public static LoadGenerator of(final Supplier<HttpRequest> requests) {
+        return new LoadGenerator(requests);
+    }
+
+    public static LoadGenerator of(final String url) {
+        return new LoadGenerator(() -> HttpRequest.build(url));
+    }
+
+    /**
+     * Number of workers (threads) executing requests. Default is 8
+     *
+     * @param concurrency
+     * @return
+     */
+    public LoadGenerator concurrency(final int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be at least 1");
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * Target rate, in requests per second, of the open-loop mode. Zero (default) runs in closed loop
+     *
+     * @param rate
+     * @return
+     */
+    public LoadGenerator rate(final double rate) {
+        if (rate < 0) {
+            throw new IllegalArgumentException("Rate must not be negative");
+        }
+        this.rate = rate;
+        return this;
+    }
+
+    /**
+     * Time running before the measurement starts, not included in the report
+     *
+     * @param warmup
+     * @param unit
+     * @return
+     */
+    public LoadGenerator warmup(final long warmup, final TimeUnit unit) {
+        this.warmupNanos = unit.toNanos(warmup);
+        return this;
+    }
+
+    /**
+     * Measured time. Default is 10 seconds
+     *
+     * @param duration
+     * @param unit
+     * @return
+     */
+    public LoadGenerator duration(final long duration, final TimeUnit unit) {
+        this.durationNanos = unit.toNanos(duration);
+        return this;
+    }
+
+    public LoadReport run() throws InterruptedException {
+        final Run run = new Run();
+        final List<Thread> workers = new ArrayList<>(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            final Thread worker = new Thread(rate > 0 ? run::openLoop : run::closedLoop, "http-request-load-" + i);
+            worker.setDaemon(true);
+            workers.add(worker);
+        }
+        run.start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(10);
+        run.measureStart = run.start + warmupNanos;
+        run.end = run.measureStart + durationNanos;
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        // Em open loop, as requisições atrasadas terminam depois do fim previsto
+        final long elapsed = Math.max(run.lastEnd.get(), run.end) - run.measureStart;
+        return new LoadReport(rate > 0, rate, elapsed, run.completed.sum(), run.errors.sum(), run.non2xx.sum(),
+                run.latency.snapshot(), run.serviceTime.snapshot());
+    }
+
+    private final class Run {
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        final LatencyHistogram serviceTime = new LatencyHistogram();
+
+        final LongAdder completed = new LongAdder();
+
+        final LongAdder errors = new LongAdder();
+
+        final LongAdder non2xx = new LongAdder();
+
+        final AtomicLong next = new AtomicLong();
+
+        final AtomicLong lastEnd = new AtomicLong();
+
+        long start;
+
+        long measureStart;
+
+        long end;
+
+        void closedLoop() {
+            waitUntil(start);
+            long now;
+            while ((now = System.nanoTime()) - end < 0) {
+                execute(now, now);
+            }
+        }
+
+        void openLoop() {
+            final double interval = 1e9 / rate;
+            while (true) {
+                final long intended = start + (long) (next.getAndIncrement() * interval);
+                if (intended - end >= 0) {
+                    return;
+                }
+                waitUntil(intended);
+                execute(intended, System.nanoTime());
+            }
+        }
+
+        private void execute(final long intended, final long actual) {
+            int status = 0;
+            boolean failed = false;
+            try {
+                final HttpResponse response = requests.get().execute();
+                status = response.statusCode;
+            } catch (Exception e) {
+                failed = true;
+            }
+            final long done = System.nanoTime();
+            if (intended - measureStart < 0) {
+                // warmup
+                return;
+            }
+            lastEnd.accumulateAndGet(done, Math::max);
+            if (failed) {
+                errors.increment();
+                return;
+            }
+            completed.increment();
+            if (status < 200 || status >= 300) {
+                non2xx.increment();
+            }
+            latency.record(TimeUnit.NANOSECONDS.toMicros(done - intended));
+            serviceTime.record(TimeUnit.NANOSECONDS.toMicros(done - actual));
+        }
+
+        private void waitUntil(final long deadline) {
+            long remaining;
+            while ((remaining = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        String method = "GET";
+        int concurrency = 8;
+        long duration = 10;
+        long warmup = 0;
+        double rate = 0;
+        final List<String[]> headers = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "-c":
+                    concurrency = Integer.parseInt(argument(args, ++i));
+                    break;
+                case "-d":
+                    duration = Long.parseLong(argument(args, ++i));
+                    break;
+                case "-w":
+                    warmup = Long.parseLong(argument(args, ++i));
+                    break;
+                case "-R":
+                    rate = Double.parseDouble(argument(args, ++i));
+                    break;
+                case "-m":
+                    method = argument(args, ++i);
+                    break;
+                case "-H":
+                    final String header = argument(args, ++i);
+                    final int colon = header.indexOf(':');
+                    if (colon <= 0) {
+                        usage();
+                    }
+                    headers.add(new String[]{header.substring(0, colon).trim(), header.substring(colon + 1).trim()});
+                    break;
+                default:
+                    url = args[i];
+            }
+        }
+        if (url == null) {
+            usage();
+        }
+
+        final String finalUrl = url;
+        final String finalMethod = method;
+        final LoadReport report = LoadGenerator.of(() -> {
+            final HttpRequest request = HttpRequest.build(finalUrl).method(finalMethod);
+            for (String[] header : headers) {
+                request.header(header[0], header[1]);
+            }
+            return request;
+        })
+                .concurrency(concurrency)
+                .duration(duration, TimeUnit.SECONDS)
+                .warmup(warmup, TimeUnit.SECONDS)
+                .rate(rate)
+                .run();
+        System.out.println(report);
+    }
+
+    /**
+     * @return the value of the option, prints the usage when the option is the last argument
+     */
+    private static String argument(final String[] args, final int i) {
+        if (i >= args.length) {
+            usage();
+        }
+        return args[i];
+    }
+
+    private static void usage() {
+        System.out.println("Usage: LoadGenerator [-c concurrency] [-d seconds] [-w warmup seconds] "
+                + "[-R requests/s] [-m method] [-H 'Name: value'] url");
+        System.exit(1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.github.nidorx.http.load;
+
+import com.github.nidorx.http.metrics.LatencyHistogram;
+
+import java.util.Locale;
+
+/**
+ * Result of a {@link LoadGenerator} run. Latencies are in microseconds.
+ */
+public final class LoadReport {
+
+    private final boolean openLoop;
+
+    private final double targetRate;
+
+    private final long elapsedNanos;
+
+    private final long requests;
+
+    private final long errors;
+
+    private final long non2xx;
+
+    private final LatencyHistogram.Snapshot latency;
+
+    private final LatencyHistogram.Snapshot serviceTime;
+
+    LoadReport(final boolean openLoop, final double targetRate, final long elapsedNanos, final long requests,
+               final long errors, final long non2xx, final LatencyHistogram.Snapshot latency,
+               final LatencyHistogram.Snapshot serviceTime) {
+        this.openLoop = openLoop;
+        this.targetRate = targetRate;
+        this.elapsedNanos = elapsedNanos;
+        this.requests = requests;
+        this.errors = errors;
+        this.non2xx = non2xx;
+        this.latency = latency;
+        this.serviceTime = serviceTime;
+    }
+
+    /**
+     * @return completed requests (with any status code) in the measured period
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return requests that failed with an exception (connect, timeout, etc.)
+     */
+    public long getErrors() {
+        return errors;
+    }
+
+    /**
+     * @return requests completed with a status code outside 2xx
+     */
+    public long getNon2xx() {
+        return non2xx;
+    }
+
+    /**
+     * @return completed requests per second
+     */
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Response time of the requests. In the open-loop mode it is measured from the time each request should have
+     * started, so it includes the time waiting for a free worker (coordinated omission correction).
+     *
+     * @return
+     */
+    public LatencyHistogram.Snapshot getLatency() {
+        return latency;
+    }
+
+    /**
+     * @return time from the actual start of each request until its end, without coordinated omission correction
+     */
+    public LatencyHistogram.Snapshot getServiceTime() {
+        return serviceTime;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder out = new StringBuilder();
+        out.append(openLoop
+                ? String.format(Locale.ROOT, "Open loop, target %.1f req/s%n", targetRate)
+                : String.format(Locale.ROOT, "Closed loop%n"));
+        out.append(String.format(Locale.ROOT, "  %d requests in %.2fs, %.1f req/s%n",
+                requests, elapsedNanos / 1e9, getThroughput()));
+        out.append(String.format(Locale.ROOT, "  errors: %d, non-2xx: %d%n", errors, non2xx));
+        append(out, openLoop ? "Latency (corrected)" : "Latency", latency);
+        if (openLoop) {
+            append(out, "Service time (uncorrected)", serviceTime);
+        }
+        return out.toString();
+    }
+
+    private static void append(final StringBuilder out, final String title, final LatencyHistogram.Snapshot s) {
+        out.append(String.format(Locale.ROOT, "  %s%n", title));
+        out.append(String.format(Locale.ROOT, "    mean %10s   max %10s%n", format(s.getMean()), format(s.getMax())));
+        for (double p : new double[]{50, 75, 90, 99, 99.9, 99.99}) {
+            out.append(String.format(Locale.ROOT, "    %6.2f%% %10s%n", p, format(s.getPercentile(p))));
+        }
+    }
+
+    private static String format(final long micros) {
+        if (micros < 1000) {
+            return micros + "us";
+        }
+        if (micros < 1_000_000) {
+            return String.format(Locale.ROOT, "%.2fms", micros / 1e3);
+        }
+        return String.format(Locale.ROOT, "%.2fs", micros / 1e6);
+    }
+}
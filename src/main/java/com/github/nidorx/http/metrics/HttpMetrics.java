@@ -0,0 +1,210 @@
+package com.github.nidorx.http.metrics;
+
+import com.github.nidorx.http.HttpCall;
+import com.github.nidorx.http.HttpEventListener;
+import com.github.nidorx.http.HttpRequest;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Registry of client metrics: requests, failures, in-flight requests, bytes and latency histograms, in total and per
+ * host, with counters per status code.
+ * <p>
+ * Collected through the {@link HttpEventListener} callbacks, without allocating on the request path (except when the
+ * first request to a new host is seen).
+ *
+ * <pre>
+ * HttpMetrics metrics = HttpMetrics.install();
+ * metrics.registerMBean("default");
+ * ...
+ * Map&lt;String, Long&gt; snapshot = metrics.snapshot();
+ * System.out.println(snapshot.get("total.latency.p99"));
+ * </pre>
+ */
+public final class HttpMetrics implements HttpEventListener, HttpMetricsMXBean {
+
+    private final Metrics total = new Metrics();
+
+    private final ConcurrentMap<String, Metrics> hosts = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a registry and adds it as a global listener of all requests
+     *
+     * @return
+     */
+    public static HttpMetrics install() {
+        final HttpMetrics metrics = new HttpMetrics();
+        HttpRequest.addGlobalEventListener(metrics);
+        return metrics;
+    }
+
+    /**
+     * Registers this registry in the platform MBeanServer, as "com.github.nidorx.http:type=HttpMetrics,name={name}"
+     *
+     * @param name
+     * @return
+     * @throws JMException
+     */
+    public ObjectName registerMBean(final String name) throws JMException {
+        final ObjectName objectName = new ObjectName("com.github.nidorx.http:type=HttpMetrics,name=" + ObjectName.quote(name));
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        server.registerMBean(this, objectName);
+        return objectName;
+    }
+
+    /**
+     * The current value of all metrics, with the keys "{scope}.{metric}", where scope is "total" or "host.{host}".
+     * <p>
+     * Metrics: requests, failures, inFlight, bytesSent, bytesReceived, status.{code}, latency.{count, mean, p50, p90,
+     * p99, p999, max} and firstByte.{...} (latencies in microseconds).
+     *
+     * @return
+     */
+    public Map<String, Long> snapshot() {
+        final Map<String, Long> snapshot = new TreeMap<>();
+        total.export("total.", snapshot);
+        for (Map.Entry<String, Metrics> entry : hosts.entrySet()) {
+            entry.getValue().export("host." + entry.getKey() + ".", snapshot);
+        }
+        return snapshot;
+    }
+
+    @Override
+    public Map<String, Long> getSnapshot() {
+        return snapshot();
+    }
+
+    /**
+     * @param host
+     * @return the latency histogram (microseconds) of the requests to the host, null when no request was made
+     */
+    public LatencyHistogram getLatency(final String host) {
+        final Metrics metrics = hosts.get(host);
+        return metrics == null ? null : metrics.latency;
+    }
+
+    /**
+     * @return the latency histogram (microseconds) of all requests
+     */
+    public LatencyHistogram getLatency() {
+        return total.latency;
+    }
+
+    @Override
+    public void callStart(final HttpCall call, final long nanoTime) {
+        total.inFlight.increment();
+        host(call).inFlight.increment();
+    }
+
+    @Override
+    public void firstByte(final HttpCall call, final long nanoTime) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanoTime - call.getCallStart());
+        total.firstByte.record(micros);
+        host(call).firstByte.record(micros);
+    }
+
+    @Override
+    public void callEnd(final HttpCall call, final long nanoTime) {
+        final long micros = TimeUnit.NANOSECONDS.toMicros(nanoTime - call.getCallStart());
+        total.end(call, micros);
+        host(call).end(call, micros);
+    }
+
+    @Override
+    public void callFailed(final HttpCall call, final long nanoTime, final Exception error) {
+        total.failed(call);
+        host(call).failed(call);
+    }
+
+    private Metrics host(final HttpCall call) {
+        final String host = call.getHost();
+        Metrics metrics = hosts.get(host);
+        if (metrics == null) {
+            final Metrics created = new Metrics();
+            metrics = hosts.putIfAbsent(host, created);
+            if (metrics == null) {
+                metrics = created;
+            }
+        }
+        return metrics;
+    }
+
+    private static final class Metrics {
+
+        final LongAdder requests = new LongAdder();
+
+        final LongAdder failures = new LongAdder();
+
+        final LongAdder inFlight = new LongAdder();
+
+        final LongAdder bytesSent = new LongAdder();
+
+        final LongAdder bytesReceived = new LongAdder();
+
+        /**
+         * Contadores por status code (100 a 599)
+         */
+        final AtomicLongArray status = new AtomicLongArray(600);
+
+        final LatencyHistogram latency = new LatencyHistogram();
+
+        final LatencyHistogram firstByte = new LatencyHistogram();
+
+        void end(final HttpCall call, final long micros) {
+            inFlight.decrement();
+            requests.increment();
+            bytesSent.add(call.getBytesSent());
+            bytesReceived.add(call.getBytesReceived());
+            final int code = call.getStatusCode();
+            if (code >= 0 && code < 600) {
+                status.incrementAndGet(code);
+            }
+            latency.record(micros);
+        }
+
+        void failed(final HttpCall call) {
+            inFlight.decrement();
+            requests.increment();
+            failures.increment();
+            bytesSent.add(call.getBytesSent());
+            bytesReceived.add(call.getBytesReceived());
+        }
+
+        void export(final String prefix, final Map<String, Long> out) {
+            out.put(prefix + "requests", requests.sum());
+            out.put(prefix + "failures", failures.sum());
+            out.put(prefix + "inFlight", inFlight.sum());
+            out.put(prefix + "bytesSent", bytesSent.sum());
+            out.put(prefix + "bytesReceived", bytesReceived.sum());
+            for (int code = 100; code < 600; code++) {
+                final long count = status.get(code);
+                if (count > 0) {
+                    out.put(prefix + "status." + code, count);
+                }
+            }
+            export(prefix + "latency.", latency.snapshot(), out);
+            export(prefix + "firstByte.", firstByte.snapshot(), out);
+        }
+
+        private static void export(final String prefix, final LatencyHistogram.Snapshot snapshot,
+                                   final Map<String, Long> out) {
+            out.put(prefix + "count", snapshot.getCount());
+            out.put(prefix + "mean", snapshot.getMean());
+            out.put(prefix + "p50", snapshot.getPercentile(50));
+            out.put(prefix + "p90", snapshot.getPercentile(90));
+            out.put(prefix + "p99", snapshot.getPercentile(99));
+            out.put(prefix + "p999", snapshot.getPercentile(99.9));
+            out.put(prefix + "max", snapshot.getMax());
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.github.nidorx.http.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view of the {@link HttpMetrics}
+ */
+public interface HttpMetricsMXBean {
+
+    /**
+     * @return the current value of all metrics
+     * @see HttpMetrics#snapshot()
+     */
+    Map<String, Long> getSnapshot();
+}
@@ -0,0 +1,139 @@
+package com.github.nidorx.http.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (HDR style).
+ * <p>
+ * Each power of two is split in 32 linear sub-buckets, so any recorded value is reported with a relative error below
+ * 3.2%. Values are clamped to [0, 2^36). Buckets are striped by thread to reduce the contention between writers, and
+ * {@link #record(long)} does not allocate.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final long MAX_VALUE = (1L << 36) - 1;
+
+    private static final int BUCKETS = bucketIndex(MAX_VALUE) + 1;
+
+    private static final int STRIPES;
+
+    static {
+        int stripes = 1;
+        int processors = Math.min(Runtime.getRuntime().availableProcessors(), 8);
+        while (stripes < processors) {
+            stripes <<= 1;
+        }
+        STRIPES = stripes;
+    }
+
+    private final AtomicLongArray counts = new AtomicLongArray(STRIPES * BUCKETS);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    static int bucketIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int shift = (63 - Long.numberOfLeadingZeros(value)) - SUB_BUCKET_BITS;
+        return (shift << SUB_BUCKET_BITS) + (int) (value >>> shift);
+    }
+
+    /**
+     * @param index
+     * @return the highest value recorded in the bucket
+     */
+    static long bucketMaxValue(final int index) {
+        if (index < 2 * SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index >>> SUB_BUCKET_BITS) - 1;
+        final long sub = (index & (SUB_BUCKETS - 1)) | SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > MAX_VALUE) {
+            value = MAX_VALUE;
+        }
+        final int stripe = (int) Thread.currentThread().getId() & (STRIPES - 1);
+        counts.incrementAndGet(stripe * BUCKETS + bucketIndex(value));
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * @return a copy of the current counts, to compute the percentiles
+     */
+    public Snapshot snapshot() {
+        final long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (int stripe = 0; stripe < STRIPES; stripe++) {
+            final int offset = stripe * BUCKETS;
+            for (int i = 0; i < BUCKETS; i++) {
+                final long c = counts.get(offset + i);
+                buckets[i] += c;
+                count += c;
+            }
+        }
+        return new Snapshot(buckets, count, sum.sum(), max.get());
+    }
+
+    public static final class Snapshot {
+
+        private final long[] buckets;
+
+        private final long count;
+
+        private final long sum;
+
+        private final long max;
+
+        private Snapshot(final long[] buckets, final long count, final long sum, final long max) {
+            this.buckets = buckets;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        public long getMean() {
+            return count == 0 ? 0 : sum / count;
+        }
+
+        /**
+         * @param percentile between 0 and 100
+         * @return the value below which the given percentile of the recorded values falls
+         */
+        public long getPercentile(final double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = Math.max(1, (long) Math.ceil(count * Math.min(percentile, 100.0) / 100.0));
+            long seen = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                seen += buckets[i];
+                if (seen >= rank) {
+                    return Math.min(bucketMaxValue(i), max);
+                }
+            }
+            return max;
+        }
+    }
+}
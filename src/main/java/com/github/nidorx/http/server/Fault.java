@@ -0,0 +1,21 @@
+package com.github.nidorx.http.server;
+
+/**
+ * Failure injected by the {@link StubServer} in a response.
+ * <p>
+ * com.sun.net.httpserver does not give access to the socket, so the connection can not be reset (RST). Both faults
+ * close the connection abruptly instead.
+ */
+public enum Fault {
+
+    /**
+     * Closes the connection before sending the status line
+     */
+    CLOSE_BEFORE_RESPONSE,
+
+    /**
+     * Sends the headers (with the full Content-Length) and half of the body, then closes the connection. Note that
+     * HttpURLConnection does not validate the Content-Length, so the client may read a short body without error
+     */
+    TRUNCATE_BODY
+}
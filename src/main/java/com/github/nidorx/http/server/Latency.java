@@ -0,0 +1,75 @@
+package com.github.nidorx.http.server;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Distribution of the delay added by the {@link StubServer} before responding. The random distributions use a fixed
+ * seed, so the sequence of delays is reproducible.
+ */
+public abstract class Latency {
+
+    public static final Latency NONE = fixed(0, TimeUnit.MILLISECONDS);
+
+    /**
+     * @return the next delay, in nanoseconds
+     */
+    public abstract long nextNanos();
+
+    public static Latency fixed(final long delay, final TimeUnit unit) {
+        final long nanos = unit.toNanos(delay);
+        return new Latency() {
+            @Override
+            public long nextNanos() {
+                return nanos;
+            }
+        };
+    }
+
+    /**
+     * @return delays uniformly distributed between min and max
+     */
+    public static Latency uniform(final long min, final long max, final TimeUnit unit) {
+        final long minNanos = unit.toNanos(min);
+        final long range = unit.toNanos(max) - minNanos;
+        final Random random = new Random(0);
+        return new Latency() {
+            @Override
+            public long nextNanos() {
+                return minNanos + (long) (random.nextDouble() * range);
+            }
+        };
+    }
+
+    /**
+     * @return exponentially distributed delays, with the given mean
+     */
+    public static Latency exponential(final long mean, final TimeUnit unit) {
+        final double meanNanos = unit.toNanos(mean);
+        final Random random = new Random(0);
+        return new Latency() {
+            @Override
+            public long nextNanos() {
+                return (long) (-Math.log(1.0 - random.nextDouble()) * meanNanos);
+            }
+        };
+    }
+
+    /**
+     * Long tail distribution: most requests take the fast delay, a fraction takes the slow one
+     *
+     * @param slowFraction fraction (0 to 1) of the requests that take the slow delay
+     * @return
+     */
+    public static Latency bimodal(final long fast, final long slow, final double slowFraction, final TimeUnit unit) {
+        final long fastNanos = unit.toNanos(fast);
+        final long slowNanos = unit.toNanos(slow);
+        final Random random = new Random(0);
+        return new Latency() {
+            @Override
+            public long nextNanos() {
+                return random.nextDouble() < slowFraction ? slowNanos : fastNanos;
+            }
+        };
+    }
+}
@@ -0,0 +1,164 @@
+package com.github.nidorx.http.server;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Response served by the {@link StubServer}
+ *
+ * <pre>
+ * StubResponse.json("{\"id\": 1}")
+ *         .gzip()
+ *         .latency(Latency.exponential(20, TimeUnit.MILLISECONDS))
+ *         .drip(64, 10, TimeUnit.MILLISECONDS);
+ * </pre>
+ */
+public final class StubResponse {
+
+    final int status;
+
+    final List<String[]> headers = new ArrayList<>();
+
+    byte[] body = new byte[0];
+
+    boolean gzip;
+
+    Latency latency = Latency.NONE;
+
+    int dripSize;
+
+    long dripIntervalNanos;
+
+    Fault fault;
+
+    private volatile byte[] encoded;
+
+    private StubResponse(final int status) {
+        this.status = status;
+    }
+
+    /**
+     * @param status
+     * @return a response with the given status code and an empty body
+     */
+    public static StubResponse status(final int status) {
+        return new StubResponse(status);
+    }
+
+    /**
+     * @param body
+     * @return a response with status 200 and the given text
+     */
+    public static StubResponse ok(final String body) {
+        return new StubResponse(200).header("Content-Type", "text/plain; charset=utf-8").body(body);
+    }
+
+    /**
+     * @param json
+     * @return a response with status 200 and the given JSON
+     */
+    public static StubResponse json(final String json) {
+        return new StubResponse(200).header("Content-Type", "application/json; charset=utf-8").body(json);
+    }
+
+    /**
+     * @param fault
+     * @return a response that fails the connection
+     */
+    public static StubResponse fault(final Fault fault) {
+        final StubResponse response = new StubResponse(200);
+        response.fault = fault;
+        return response;
+    }
+
+    public StubResponse header(final String name, final String value) {
+        headers.add(new String[]{name, value});
+        return this;
+    }
+
+    public StubResponse body(final String body) {
+        return body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public StubResponse body(final byte[] body) {
+        this.body = body;
+        this.encoded = null;
+        return this;
+    }
+
+    /**
+     * Compresses the body, with "Content-Encoding: gzip"
+     *
+     * @return
+     */
+    public StubResponse gzip() {
+        this.gzip = true;
+        this.encoded = null;
+        return this;
+    }
+
+    /**
+     * Delay before sending the status line and headers
+     *
+     * @param latency
+     * @return
+     */
+    public StubResponse latency(final Latency latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * Sends the body slowly, in chunks of the given size with a pause between them
+     *
+     * @param chunkSize
+     * @param interval
+     * @param unit
+     * @return
+     */
+    public StubResponse drip(final int chunkSize, final long interval, final TimeUnit unit) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1");
+        }
+        this.dripSize = chunkSize;
+        this.dripIntervalNanos = unit.toNanos(interval);
+        return this;
+    }
+
+    /**
+     * Injects a failure after the latency
+     *
+     * @param fault
+     * @return
+     */
+    public StubResponse withFault(final Fault fault) {
+        this.fault = fault;
+        return this;
+    }
+
+    /**
+     * @return o corpo como enviado pela rede, comprimido uma única vez
+     */
+    byte[] encodedBody() {
+        if (!gzip) {
+            return body;
+        }
+        byte[] result = encoded;
+        if (result == null) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+                gzipOut.write(body);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            encoded = result = out.toByteArray();
+        }
+        return result;
+    }
+}
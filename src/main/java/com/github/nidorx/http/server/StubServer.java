@@ -0,0 +1,224 @@
+package com.github.nidorx.http.server;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embeddable HTTP server (com.sun.net.httpserver) with scripted responses, to exercise the client deterministically
+ * without external services: latency distributions, slow bodies, abrupt connection closes, gzip and sequences of
+ * status codes.
+ *
+ * <pre>
+ * try (StubServer server = StubServer.start()) {
+ *     // 2 failures, then success for all next requests
+ *     server.route("/users", StubResponse.status(503), StubResponse.status(503), StubResponse.json("[]"));
+ *     server.route("/slow", StubResponse.json("{}").latency(Latency.fixed(200, TimeUnit.MILLISECONDS)));
+ *
+ *     HttpRequest.build(server.url("/users")).execute();
+ * }
+ * </pre>
+ * <p>
+ * Enables TCP_NODELAY in the com.sun.net.httpserver (system property "sun.net.httpserver.nodelay"), unless already
+ * defined, to avoid the Nagle delays in the measurements.
+ */
+public final class StubServer implements Closeable {
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Map<String, Route> routes = new ConcurrentHashMap<>();
+
+    private StubServer(final HttpServer server, final ExecutorService executor) {
+        this.server = server;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a server in a random port of the loopback interface
+     *
+     * @return
+     * @throws IOException
+     */
+    public static StubServer start() throws IOException {
+        return start(0);
+    }
+
+    public static StubServer start(final int port) throws IOException {
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        final AtomicInteger count = new AtomicInteger();
+        final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "http-request-stub-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        final HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 1024);
+        server.setExecutor(executor);
+        final StubServer stub = new StubServer(server, executor);
+        server.createContext("/", stub::handle);
+        server.start();
+        return stub;
+    }
+
+    /**
+     * Defines the responses of a path. The responses are served in order and the last one is repeated for all
+     * next requests.
+     *
+     * @param path   exact path of the request, without the query string
+     * @param script
+     * @return
+     */
+    public StubServer route(final String path, final StubResponse... script) {
+        if (script.length == 0) {
+            throw new IllegalArgumentException("At least one response is required");
+        }
+        routes.put(path, new Route(Arrays.asList(script), false));
+        return this;
+    }
+
+    /**
+     * Like {@link #route(String, StubResponse...)}, but restarts the sequence after the last response
+     *
+     * @param path
+     * @param script
+     * @return
+     */
+    public StubServer routeCycle(final String path, final StubResponse... script) {
+        if (script.length == 0) {
+            throw new IllegalArgumentException("At least one response is required");
+        }
+        routes.put(path, new Route(Arrays.asList(script), true));
+        return this;
+    }
+
+    /**
+     * @param path
+     * @return the absolute url of the path in this server
+     */
+    public String url(final String path) {
+        return "http://127.0.0.1:" + getPort() + path;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @param path
+     * @return number of requests received in the path
+     */
+    public int getRequestCount(final String path) {
+        final Route route = routes.get(path);
+        return route == null ? 0 : route.requests.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            // Consome o corpo da requisição, para manter a conexão reutilizável
+            final byte[] buffer = new byte[8192];
+            try (InputStream in = exchange.getRequestBody()) {
+                while (in.read(buffer) != -1) {
+                    // descarta
+                }
+            }
+
+            final Route route = routes.get(exchange.getRequestURI().getPath());
+            if (route == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            respond(exchange, route.next());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final StubResponse response)
+            throws IOException, InterruptedException {
+        final long delay = response.latency.nextNanos();
+        if (delay > 0) {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        }
+
+        if (response.fault == Fault.CLOSE_BEFORE_RESPONSE) {
+            // Fechar a troca sem enviar os headers encerra a conexão
+            return;
+        }
+
+        final byte[] body = response.encodedBody();
+        for (String[] header : response.headers) {
+            exchange.getResponseHeaders().add(header[0], header[1]);
+        }
+        if (response.gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(response.status, body.length == 0 ? -1 : body.length);
+        if (body.length == 0) {
+            return;
+        }
+
+        final OutputStream out = exchange.getResponseBody();
+        final int length = response.fault == Fault.TRUNCATE_BODY ? body.length / 2 : body.length;
+        if (response.dripSize > 0) {
+            for (int offset = 0; offset < length; offset += response.dripSize) {
+                if (offset > 0) {
+                    TimeUnit.NANOSECONDS.sleep(response.dripIntervalNanos);
+                }
+                out.write(body, offset, Math.min(response.dripSize, length - offset));
+                out.flush();
+            }
+        } else {
+            out.write(body, 0, length);
+        }
+        if (response.fault != Fault.TRUNCATE_BODY) {
+            out.close();
+        }
+    }
+
+    private static final class Route {
+
+        final List<StubResponse> script;
+
+        final boolean cycle;
+
+        final AtomicInteger requests = new AtomicInteger();
+
+        Route(final List<StubResponse> script, final boolean cycle) {
+            this.script = script;
+            this.cycle = cycle;
+        }
+
+        StubResponse next() {
+            final int index = requests.getAndIncrement();
+            if (cycle) {
+                return script.get(index % script.size());
+            }
+            return script.get(Math.min(index, script.size() - 1));
+        }
+    }
+}
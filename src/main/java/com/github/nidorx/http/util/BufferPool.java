@@ -0,0 +1,96 @@
+package com.github.nidorx.http.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Pool de buffers de bytes, separados por classes de tamanho (potências de 2, de 4KB a 1MB).
+ * <p>
+ * Cada classe possui um número fixo de slots, liberados e obtidos com CAS, sem alocação e sem locks. Buffers maiores
+ * que a maior classe não são reaproveitados.
+ */
+public final class BufferPool {
+
+    public static final BufferPool DEFAULT = new BufferPool();
+
+    private static final int MIN_SHIFT = 12;
+
+    private static final int MAX_SHIFT = 20;
+
+    /**
+     * Memória máxima retida por classe de tamanho
+     */
+    private static final int BYTES_PER_CLASS = 2 * 1024 * 1024;
+
+    private final AtomicReferenceArray<byte[]>[] classes;
+
+    @SuppressWarnings("unchecked")
+    public BufferPool() {
+        classes = new AtomicReferenceArray[MAX_SHIFT - MIN_SHIFT + 1];
+        for (int i = 0; i < classes.length; i++) {
+            final int size = 1 << (MIN_SHIFT + i);
+            classes[i] = new AtomicReferenceArray<>(Math.min(32, Math.max(4, BYTES_PER_CLASS / size)));
+        }
+    }
+
+    /**
+     * @param minSize
+     * @return um buffer com pelo menos o tamanho informado
+     */
+    public byte[] acquire(final int minSize) {
+        final int index = classIndex(minSize);
+        if (index < 0) {
+            return new byte[minSize];
+        }
+        final AtomicReferenceArray<byte[]> slots = classes[index];
+        final int length = slots.length();
+        final int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i < length; i++) {
+            final int slot = (start + i) & (length - 1);
+            final byte[] buffer = slots.get(slot);
+            if (buffer != null && slots.compareAndSet(slot, buffer, null)) {
+                return buffer;
+            }
+        }
+        return new byte[1 << (MIN_SHIFT + index)];
+    }
+
+    /**
+     * Devolve o buffer ao pool. O buffer não pode mais ser usado por quem o liberou
+     *
+     * @param buffer
+     */
+    public void release(final byte[] buffer) {
+        if (buffer == null) {
+            return;
+        }
+        final int size = buffer.length;
+        if (Integer.bitCount(size) != 1) {
+            return;
+        }
+        final int index = Integer.numberOfTrailingZeros(size) - MIN_SHIFT;
+        if (index < 0 || index >= classes.length) {
+            return;
+        }
+        final AtomicReferenceArray<byte[]> slots = classes[index];
+        final int length = slots.length();
+        final int start = (int) Thread.currentThread().getId();
+        for (int i = 0; i < length; i++) {
+            final int slot = (start + i) & (length - 1);
+            if (slots.get(slot) == null && slots.compareAndSet(slot, null, buffer)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @param size
+     * @return índice da menor classe que comporta o tamanho, -1 se maior que a maior classe
+     */
+    private static int classIndex(final int size) {
+        if (size <= 1 << MIN_SHIFT) {
+            return 0;
+        }
+        final int shift = 32 - Integer.numberOfLeadingZeros(size - 1);
+        return shift > MAX_SHIFT ? -1 : shift - MIN_SHIFT;
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.nidorx.http.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Encodes request bodies with gzip or deflate (zlib) reusing the {@link Deflater} instances and the output buffers
+ * from the {@link BufferPool}.
+ * <p>
+ * Resources are returned to the pools on {@link #close()}, which also closes the target stream.
+ */
+public final class DeflatingOutputStream extends DeflaterOutputStream {
+
+    public static final String GZIP = "gzip";
+
+    public static final String DEFLATE = "deflate";
+
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Deflaters sem header zlib, usados no gzip
+     */
+    private static final ArrayBlockingQueue<Deflater> RAW_DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * Deflaters com header zlib, usados no deflate
+     */
+    private static final ArrayBlockingQueue<Deflater> ZLIB_DEFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final boolean gzip;
+
+    /**
+     * CRC dos bytes originais, null para deflate
+     */
+    private final CRC32 crc;
+
+    private long compressedSize;
+
+    private boolean closed;
+
+    private DeflatingOutputStream(final OutputStream out, final boolean gzip, final int level) {
+        super(out, acquire(gzip, level), 1);
+        this.gzip = gzip;
+        this.crc = gzip ? new CRC32() : null;
+        this.buf = BufferPool.DEFAULT.acquire(BUFFER_SIZE);
+    }
+
+    /**
+     * @param encoding {@link #GZIP} or {@link #DEFLATE}
+     * @param out
+     * @param level    compression level, from 0 to 9 or {@link Deflater#DEFAULT_COMPRESSION}
+     * @return
+     * @throws IOException
+     */
+    public static DeflatingOutputStream create(final String encoding, final OutputStream out, final int level)
+            throws IOException {
+        final DeflatingOutputStream stream = new DeflatingOutputStream(out, GZIP.equals(encoding), level);
+        if (stream.gzip) {
+            out.write(GZIP_HEADER);
+        }
+        return stream;
+    }
+
+    /**
+     * @param encoding
+     * @return true when the encoding is supported by {@link #create(String, OutputStream, int)}
+     */
+    public static boolean isSupported(final String encoding) {
+        return GZIP.equals(encoding) || DEFLATE.equals(encoding);
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        super.write(b, off, len);
+        if (crc != null) {
+            crc.update(b, off, len);
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (def.finished()) {
+            return;
+        }
+        super.finish();
+        compressedSize = def.getBytesWritten();
+        if (gzip) {
+            final long crcValue = crc.getValue();
+            final long size = def.getBytesRead();
+            final byte[] trailer = new byte[8];
+            for (int i = 0; i < 4; i++) {
+                trailer[i] = (byte) (crcValue >>> (8 * i));
+                trailer[4 + i] = (byte) (size >>> (8 * i));
+            }
+            out.write(trailer);
+            compressedSize += GZIP_HEADER.length + trailer.length;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            finish();
+            out.close();
+        } finally {
+            release(def, gzip);
+            BufferPool.DEFAULT.release(buf);
+            buf = null;
+        }
+    }
+
+    /**
+     * @return the size of the encoded body, available after {@link #finish()}
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+    private static Deflater acquire(final boolean nowrap, final int level) {
+        Deflater deflater = (nowrap ? RAW_DEFLATERS : ZLIB_DEFLATERS).poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, nowrap);
+        } else {
+            deflater.setLevel(level);
+        }
+        return deflater;
+    }
+
+    private static void release(final Deflater deflater, final boolean nowrap) {
+        deflater.reset();
+        if (!(nowrap ? RAW_DEFLATERS : ZLIB_DEFLATERS).offer(deflater)) {
+            deflater.end();
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.github.nidorx.http.util;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Decodes gzip and deflate bodies reusing the {@link Inflater} instances (and their native memory) and the input
+ * buffers from the {@link BufferPool}.
+ * <p>
+ * Resources are returned to the pools on {@link #close()}.
+ */
+public final class InflatingInputStream extends InflaterInputStream {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+
+    private static final int FHCRC = 2;
+
+    private static final int FEXTRA = 4;
+
+    private static final int FNAME = 8;
+
+    private static final int FCOMMENT = 16;
+
+    /**
+     * Tamanho do buffer de entrada (bytes comprimidos lidos por vez)
+     */
+    private static final int BUFFER_SIZE = 32 * 1024;
+
+    private static final int POOL_SIZE = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    /**
+     * Inflaters sem header zlib (gzip e deflate "raw")
+     */
+    private static final ArrayBlockingQueue<Inflater> RAW_INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    /**
+     * Inflaters com header zlib (deflate conforme a RFC 7230)
+     */
+    private static final ArrayBlockingQueue<Inflater> ZLIB_INFLATERS = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final boolean nowrap;
+
+    /**
+     * CRC dos bytes descomprimidos do membro gzip atual, null para deflate
+     */
+    private final CRC32 crc;
+
+    /**
+     * Bytes ainda não consumidos no buffer depois do fim dos dados comprimidos (trailer gzip e próximo membro)
+     */
+    private int leftover;
+
+    private int leftoverEnd;
+
+    private boolean eof;
+
+    private boolean closed;
+
+    private InflatingInputStream(final InputStream in, final boolean nowrap, final boolean gzip) {
+        super(in, acquire(nowrap), 1);
+        this.nowrap = nowrap;
+        this.crc = gzip ? new CRC32() : null;
+        this.buf = BufferPool.DEFAULT.acquire(BUFFER_SIZE);
+    }
+
+    /**
+     * @param in
+     * @return stream decoding a gzip body ("Content-Encoding: gzip"), with concatenated members
+     * @throws IOException
+     */
+    public static InputStream gzip(final InputStream in) throws IOException {
+        final InflatingInputStream stream = new InflatingInputStream(in, true, true);
+        try {
+            stream.readHeader(stream.readUByte());
+        } catch (IOException e) {
+            stream.close();
+            throw e;
+        }
+        return stream;
+    }
+
+    /**
+     * Decodes a "Content-Encoding: deflate" body. The RFC requires the zlib format, but some servers send the raw
+     * deflate data, so the format is detected by the first two bytes.
+     *
+     * @param in
+     * @return
+     * @throws IOException
+     */
+    public static InputStream deflate(final InputStream in) throws IOException {
+        final int cmf = in.read();
+        final int flg = cmf < 0 ? -1 : in.read();
+        if (cmf < 0) {
+            // Corpo vazio
+            return in;
+        }
+
+        final boolean zlib = flg >= 0 && (cmf & 0x0F) == 8 && ((cmf << 8) | flg) % 31 == 0;
+        final InflatingInputStream stream = new InflatingInputStream(in, !zlib, false);
+        stream.buf[0] = (byte) cmf;
+        stream.len = 1;
+        if (flg >= 0) {
+            stream.buf[1] = (byte) flg;
+            stream.len = 2;
+        }
+        stream.inf.setInput(stream.buf, 0, stream.len);
+        return stream;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        if (eof) {
+            return -1;
+        }
+        if (len == 0) {
+            return 0;
+        }
+        final int n = super.read(b, off, len);
+        if (n > 0) {
+            if (crc != null) {
+                crc.update(b, off, n);
+            }
+            return n;
+        }
+        if (n < 0 && inf.finished()) {
+            leftover = this.len - inf.getRemaining();
+            leftoverEnd = this.len;
+            if (crc != null && nextMember()) {
+                return read(b, off, len);
+            }
+        }
+        eof = true;
+        return -1;
+    }
+
+    @Override
+    public int available() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+        return eof ? 0 : 1;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            super.close();
+        } finally {
+            release(inf, nowrap);
+            BufferPool.DEFAULT.release(buf);
+            buf = null;
+        }
+    }
+
+    /**
+     * Valida o trailer do membro gzip atual e inicia o próximo, se existir
+     *
+     * @return true quando existe outro membro
+     * @throws IOException
+     */
+    private boolean nextMember() throws IOException {
+        final long expectedCrc = readUInt();
+        final long expectedSize = readUInt();
+        if (expectedCrc != crc.getValue() || expectedSize != (inf.getBytesWritten() & 0xFFFFFFFFL)) {
+            throw new ZipException("Corrupt GZIP trailer");
+        }
+
+        final int first = leftover < leftoverEnd ? buf[leftover++] & 0xFF : in.read();
+        if (first < 0) {
+            return false;
+        }
+        try {
+            readHeader(first);
+        } catch (ZipException e) {
+            // Ignora dados após o último membro, como o GZIPInputStream
+            return false;
+        }
+        inf.reset();
+        crc.reset();
+        if (leftover < leftoverEnd) {
+            inf.setInput(buf, leftover, leftoverEnd - leftover);
+        }
+        return true;
+    }
+
+    /**
+     * @param first primeiro byte do header, já lido
+     * @throws IOException
+     */
+    private void readHeader(final int first) throws IOException {
+        if ((readUByte() << 8 | first) != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        final int flags = readUByte();
+        // MTIME, XFL e OS
+        skipBytes(6);
+        if ((flags & FEXTRA) == FEXTRA) {
+            skipBytes(readUByte() | readUByte() << 8);
+        }
+        if ((flags & FNAME) == FNAME) {
+            while (readUByte() != 0) {
+                // nome do arquivo
+            }
+        }
+        if ((flags & FCOMMENT) == FCOMMENT) {
+            while (readUByte() != 0) {
+                // comentário
+            }
+        }
+        if ((flags & FHCRC) == FHCRC) {
+            skipBytes(2);
+        }
+    }
+
+    private long readUInt() throws IOException {
+        return (readUByte() | readUByte() << 8 | readUByte() << 16 | (long) readUByte() << 24) & 0xFFFFFFFFL;
+    }
+
+    private void skipBytes(int n) throws IOException {
+        while (n-- > 0) {
+            readUByte();
+        }
+    }
+
+    /**
+     * Lê um byte do que sobrou no buffer, ou do stream de origem
+     */
+    private int readUByte() throws IOException {
+        if (leftover < leftoverEnd) {
+            return buf[leftover++] & 0xFF;
+        }
+        final int b = in.read();
+        if (b < 0) {
+            throw new EOFException("Unexpected end of GZIP input stream");
+        }
+        return b;
+    }
+
+    private static Inflater acquire(final boolean nowrap) {
+        final Inflater inflater = (nowrap ? RAW_INFLATERS : ZLIB_INFLATERS).poll();
+        return inflater != null ? inflater : new Inflater(nowrap);
+    }
+
+    private static void release(final Inflater inflater, final boolean nowrap) {
+        inflater.reset();
+        if (!(nowrap ? RAW_INFLATERS : ZLIB_INFLATERS).offer(inflater)) {
+            inflater.end();
+        }
+    }
+}
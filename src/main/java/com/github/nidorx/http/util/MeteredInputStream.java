@@ -0,0 +1,64 @@
+package com.github.nidorx.http.util;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * InputStream que contabiliza os bytes lidos e o tempo (em nanosegundos) gasto dentro das leituras
+ */
+public final class MeteredInputStream extends FilterInputStream {
+
+    private long bytes;
+
+    private long nanos;
+
+    public MeteredInputStream(final InputStream in) {
+        super(in);
+    }
+
+    @Override
+    public int read() throws IOException {
+        final long start = System.nanoTime();
+        final int b = in.read();
+        nanos += System.nanoTime() - start;
+        if (b >= 0) {
+            bytes++;
+        }
+        return b;
+    }
+
+    @Override
+    public int read(final byte[] b, final int off, final int len) throws IOException {
+        final long start = System.nanoTime();
+        final int n = in.read(b, off, len);
+        nanos += System.nanoTime() - start;
+        if (n > 0) {
+            bytes += n;
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(final long n) throws IOException {
+        final long start = System.nanoTime();
+        final long skipped = in.skip(n);
+        nanos += System.nanoTime() - start;
+        bytes += skipped;
+        return skipped;
+    }
+
+    /**
+     * @return total de bytes lidos
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * @return tempo total gasto dentro das leituras, em nanosegundos
+     */
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,103 @@
+package com.github.nidorx.http.gson;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares {@link JsonDocument} and {@link JsonNode} with the tree of {@link JsonParser}.
+ */
+public class JsonDocumentTest {
+
+  @Test public void testRandomDocuments() {
+    RandomJson documents = new RandomJson(1);
+    for (int i = 0; i < 20000; i++) {
+      String json = documents.next();
+      JsonElement expected = JsonParser.parseString(json);
+      JsonNode root = JsonDocument.parse(json).root();
+      assertEquals(json, expected, root.toJsonElement());
+      assertNode(json, expected, root);
+    }
+  }
+
+  @Test public void testOffset() {
+    byte[] bytes = "[1,{\"a\":[true]},3]".getBytes(StandardCharsets.UTF_8);
+    JsonNode root = JsonDocument.parse(bytes, 3, 12).root();
+    assertEquals("{\"a\":[true]}", root.toString());
+    assertTrue(root.get("a").get(0).getAsBoolean());
+  }
+
+  @Test public void testRepeatedName() {
+    JsonNode root = JsonDocument.parse("{\"a\":1,\"b\":2,\"a\":3}").root();
+    assertEquals(3, root.get("a").getAsInt());
+    assertEquals(3, root.size());
+  }
+
+  @Test public void testInvalidDocuments() {
+    String[] documents = {"", "{", "[1,]", "{\"a\"}", "{\"a\":1,}", "[1 2]", "tru", "'a'", "[1]]", "\"\\x\"", "01"};
+    for (String json : documents) {
+      try {
+        JsonDocument.parse(json);
+        fail(json);
+      } catch (JsonSyntaxException expected) {
+      }
+    }
+  }
+
+  private static void assertNode(String json, JsonElement expected, JsonNode node) {
+    assertEquals(json, expected.isJsonObject(), node.isJsonObject());
+    assertEquals(json, expected.isJsonArray(), node.isJsonArray());
+    assertEquals(json, expected.isJsonPrimitive(), node.isJsonPrimitive());
+    assertEquals(json, expected.isJsonNull(), node.isJsonNull());
+    // o texto do valor é lido novamente como o mesmo valor
+    assertEquals(json, expected, JsonParser.parseString(node.toString()));
+    assertEquals(json, expected, JsonParser.parseReader(node.reader()));
+
+    if (expected.isJsonObject()) {
+      JsonObject object = expected.getAsJsonObject();
+      assertEquals(json, object.size(), node.size());
+      assertEquals(json, new ArrayList<String>(object.keySet()), new ArrayList<String>(node.keySet()));
+      for (Map.Entry<String, JsonElement> member : object.entrySet()) {
+        assertTrue(json, node.has(member.getKey()));
+        assertNode(json, member.getValue(), node.get(member.getKey()));
+      }
+      assertFalse(json, node.has("missing"));
+      assertNull(json, node.get("missing"));
+    } else if (expected.isJsonArray()) {
+      JsonArray array = expected.getAsJsonArray();
+      assertEquals(json, array.size(), node.size());
+      List<JsonNode> elements = new ArrayList<JsonNode>();
+      for (JsonNode element : node) {
+        elements.add(element);
+      }
+      assertEquals(json, array.size(), elements.size());
+      Iterator<JsonElement> i = array.iterator();
+      for (int index = 0; index < array.size(); index++) {
+        JsonElement element = i.next();
+        assertNode(json, element, node.get(index));
+        assertEquals(json, element, elements.get(index).toJsonElement());
+      }
+    } else if (expected.isJsonPrimitive()) {
+      JsonPrimitive primitive = expected.getAsJsonPrimitive();
+      assertEquals(json, primitive.isString(), node.isString());
+      assertEquals(json, primitive.isNumber(), node.isNumber());
+      assertEquals(json, primitive.isBoolean(), node.isBoolean());
+      assertEquals(json, primitive.getAsString(), node.getAsString());
+      if (primitive.isNumber()) {
+        assertEquals(json, Double.doubleToLongBits(primitive.getAsDouble()), Double.doubleToLongBits(node.getAsDouble()));
+        assertEquals(json, primitive.getAsBigDecimal(), node.getAsBigDecimal());
+      } else if (primitive.isBoolean()) {
+        assertEquals(json, primitive.getAsBoolean(), node.getAsBoolean());
+      }
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.github.nidorx.http.gson;
+
+import com.github.nidorx.http.gson.stream.JsonReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares {@link JsonProjection} with the paths evaluated over the tree of {@link JsonParser}.
+ */
+public class JsonProjectionTest {
+
+  @Test public void testRandomPaths() throws IOException {
+    Random random = new Random(1);
+    RandomJson documents = new RandomJson(2);
+    for (int i = 0; i < 20000; i++) {
+      String json = documents.next();
+      JsonElement tree = JsonParser.parseString(json);
+
+      String[] paths = new String[1 + random.nextInt(4)];
+      List<List<Object>> steps = new ArrayList<List<Object>>();
+      for (int p = 0; p < paths.length; p++) {
+        List<Object> path = randomSteps(random);
+        steps.add(path);
+        paths[p] = toPath(path, random);
+      }
+
+      final List<List<JsonElement>> actual = new ArrayList<List<JsonElement>>();
+      List<List<JsonElement>> expected = new ArrayList<List<JsonElement>>();
+      for (List<Object> path : steps) {
+        actual.add(new ArrayList<JsonElement>());
+        List<JsonElement> values = new ArrayList<JsonElement>();
+        evaluate(tree, path, 0, values);
+        expected.add(values);
+      }
+
+      JsonReader in = new JsonReader(new StringReader(json));
+      JsonProjection.compile(paths).read(in, new JsonProjection.Handler() {
+        @Override public void value(int path, JsonReader in) throws IOException {
+          actual.get(path).add(JsonParser.parseReader(in));
+        }
+      });
+      assertEquals(json + " " + Arrays.toString(paths), expected, actual);
+    }
+  }
+
+  @Test public void testSyntax() {
+    JsonElement tree = JsonParser.parseString("{\"a b\":[{\"c\":1},{\"c\":2}],\"d\":{\"e\":3,\"f\":4}}");
+    assertProjection(tree, "$['a b'][*].c", "1", "2");
+    assertProjection(tree, "$[\"a b\"][1]", "{\"c\":2}");
+    assertProjection(tree, "$.d.*", "3", "4");
+    assertProjection(tree, "$", tree.toString());
+    assertProjection(tree, "$.missing[0]");
+  }
+
+  @Test public void testInvalidPaths() {
+    String[] paths = {"", "a", "$.", "$..a", "$[", "$[-1]", "$[a]", "$a"};
+    for (String path : paths) {
+      try {
+        JsonProjection.compile(path);
+        fail(path);
+      } catch (IllegalArgumentException expected) {
+      }
+    }
+  }
+
+  private static void assertProjection(JsonElement tree, String path, String... expected) {
+    final List<String> actual = new ArrayList<String>();
+    try {
+      JsonProjection.compile(path).read(new JsonReader(new StringReader(tree.toString())),
+          new JsonProjection.Handler() {
+            @Override public void value(int path, JsonReader in) throws IOException {
+              actual.add(JsonParser.parseReader(in).toString());
+            }
+          });
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    assertEquals(path, Arrays.asList(expected), actual);
+  }
+
+  /**
+   * @return the steps of a path: a String for names, an Integer for indexes and null for wildcards
+   */
+  private static List<Object> randomSteps(Random random) {
+    List<Object> steps = new ArrayList<Object>();
+    for (int n = random.nextInt(5); n > 0; n--) {
+      int kind = random.nextInt(5);
+      if (kind < 2) {
+        steps.add(RandomJson.NAMES[random.nextInt(RandomJson.NAMES.length)]);
+      } else if (kind < 4) {
+        steps.add(random.nextInt(3));
+      } else {
+        steps.add(null);
+      }
+    }
+    return steps;
+  }
+
+  private static String toPath(List<Object> steps, Random random) {
+    StringBuilder path = new StringBuilder("$");
+    for (Object step : steps) {
+      if (step == null) {
+        path.append(random.nextBoolean() ? ".*" : "[*]");
+      } else if (step instanceof Integer) {
+        path.append('[').append(step).append(']');
+      } else if (random.nextBoolean() && ((String) step).matches("\\w+")) {
+        path.append('.').append(step);
+      } else {
+        path.append("['").append(step).append("']");
+      }
+    }
+    return path.toString();
+  }
+
+  private static void evaluate(JsonElement element, List<Object> steps, int depth, List<JsonElement> values) {
+    if (depth == steps.size()) {
+      values.add(element);
+      return;
+    }
+    Object step = steps.get(depth);
+    if (element.isJsonObject()) {
+      for (Map.Entry<String, JsonElement> member : element.getAsJsonObject().entrySet()) {
+        if (step == null || member.getKey().equals(step)) {
+          evaluate(member.getValue(), steps, depth + 1, values);
+        }
+      }
+    } else if (element.isJsonArray()) {
+      JsonArray array = element.getAsJsonArray();
+      for (int i = 0; i < array.size(); i++) {
+        if (step == null || Integer.valueOf(i).equals(step)) {
+          evaluate(array.get(i), steps, depth + 1, values);
+        }
+      }
+    }
+  }
+}
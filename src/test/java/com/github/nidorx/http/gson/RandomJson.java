@@ -0,0 +1,108 @@
+package com.github.nidorx.http.gson;
+
+import java.util.Random;
+
+/**
+ * Random strict JSON documents for the differential tests, with the names of {@link #NAMES}, without repeated names in
+ * an object.
+ */
+final class RandomJson {
+
+  static final String[] NAMES = {"a", "b", "c", "id", "é", "a\"b", "x\\ny"};
+
+  private static final String[] STRINGS = {"", "text", "é中😀", "quote \" and \\ backslash", "\n\t\u0001", "/"};
+
+  private static final String[] NUMBERS = {
+      "0", "-0", "1", "-12", "3.25", "1e10", "-2.5E-3", "123456789012345678901234567890", "0.1", "9007199254740993"
+  };
+
+  private static final String[] WHITESPACE = {"", "", "", " ", "\n  ", "\t", "\r\n"};
+
+  private final Random random;
+
+  RandomJson(long seed) {
+    random = new Random(seed);
+  }
+
+  String next() {
+    StringBuilder json = new StringBuilder();
+    value(json, 0);
+    return json.toString();
+  }
+
+  private void value(StringBuilder json, int depth) {
+    json.append(WHITESPACE[random.nextInt(WHITESPACE.length)]);
+    int kind = random.nextInt(depth < 5 ? 8 : 5);
+    switch (kind) {
+      case 0:
+        json.append("null");
+        break;
+      case 1:
+        json.append(random.nextBoolean());
+        break;
+      case 2:
+        json.append(NUMBERS[random.nextInt(NUMBERS.length)]);
+        break;
+      case 3:
+        json.append(random.nextInt(100000));
+        break;
+      case 4:
+        string(json, STRINGS[random.nextInt(STRINGS.length)]);
+        break;
+      case 5:
+      case 6: {
+        json.append('{');
+        int count = random.nextInt(NAMES.length + 1);
+        boolean[] used = new boolean[NAMES.length];
+        for (int i = 0; i < count; i++) {
+          int name = random.nextInt(NAMES.length);
+          if (used[name]) {
+            continue;
+          }
+          used[name] = true;
+          if (json.charAt(json.length() - 1) != '{') {
+            json.append(',');
+          }
+          json.append(WHITESPACE[random.nextInt(WHITESPACE.length)]);
+          string(json, NAMES[name]);
+          json.append(':');
+          value(json, depth + 1);
+        }
+        json.append(WHITESPACE[random.nextInt(WHITESPACE.length)]).append('}');
+        break;
+      }
+      default: {
+        json.append('[');
+        for (int i = random.nextInt(5); i > 0; i--) {
+          value(json, depth + 1);
+          if (i > 1) {
+            json.append(',');
+          }
+        }
+        json.append(WHITESPACE[random.nextInt(WHITESPACE.length)]).append(']');
+      }
+    }
+    json.append(WHITESPACE[random.nextInt(WHITESPACE.length)]);
+  }
+
+  /**
+   * Writes the quoted string, escaping some characters that do not need it. Surrogates are not escaped alone, they
+   * would not be encoded in UTF-8
+   */
+  private void string(StringBuilder json, String value) {
+    json.append('"');
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c == '\n') {
+        json.append("\\n");
+      } else if (c < 0x20 || !Character.isSurrogate(c) && random.nextInt(10) == 0) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    json.append('"');
+  }
+}
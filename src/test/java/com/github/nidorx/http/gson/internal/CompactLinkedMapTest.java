@@ -0,0 +1,129 @@
+package com.github.nidorx.http.gson.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares {@link CompactLinkedMap} with {@link LinkedHashMap}, with random operations.
+ */
+public class CompactLinkedMapTest {
+
+  @Test public void testRandomOperations() {
+    Random random = new Random(1);
+    for (int round = 0; round < 200; round++) {
+      // poucas chaves para forçar substituições e remoções, muitas para passar da busca linear e redimensionar
+      int keys = 1 + random.nextInt(round % 2 == 0 ? 12 : 500);
+      CompactLinkedMap<String, Integer> map = new CompactLinkedMap<String, Integer>(random.nextInt(4));
+      LinkedHashMap<String, Integer> expected = new LinkedHashMap<String, Integer>();
+      for (int i = 0; i < 2000; i++) {
+        String key = "k" + random.nextInt(keys);
+        int operation = random.nextInt(10);
+        if (operation < 6) {
+          assertEquals(expected.put(key, i), map.put(key, i));
+        } else if (operation < 8) {
+          assertEquals(expected.remove(key), map.remove(key));
+        } else if (operation == 8) {
+          assertEquals(expected.get(key), map.get(key));
+          assertEquals(expected.containsKey(key), map.containsKey(key));
+        } else {
+          removeWithIterator(expected, key);
+          removeWithIterator(map, key);
+        }
+        assertEquals(expected.size(), map.size());
+      }
+      assertSameEntries(expected, map);
+    }
+  }
+
+  @Test public void testCollidingHashes() {
+    // "Aa" e "BB" têm o mesmo hash, as combinações colidem
+    List<String> keys = new ArrayList<String>();
+    for (int i = 0; i < 1 << 10; i++) {
+      StringBuilder key = new StringBuilder();
+      for (int bit = 0; bit < 10; bit++) {
+        key.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+      }
+      keys.add(key.toString());
+    }
+    CompactLinkedMap<String, Integer> map = new CompactLinkedMap<String, Integer>();
+    LinkedHashMap<String, Integer> expected = new LinkedHashMap<String, Integer>();
+    for (int i = 0; i < keys.size(); i++) {
+      map.put(keys.get(i), i);
+      expected.put(keys.get(i), i);
+    }
+    map.remove(keys.get(3));
+    expected.remove(keys.get(3));
+    assertSameEntries(expected, map);
+  }
+
+  @Test public void testNullKey() {
+    CompactLinkedMap<String, Integer> map = new CompactLinkedMap<String, Integer>();
+    try {
+      map.put(null, 1);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+    assertNull(map.get(null));
+    assertEquals(0, map.size());
+  }
+
+  @Test public void testConcurrentModification() {
+    CompactLinkedMap<String, Integer> map = new CompactLinkedMap<String, Integer>();
+    map.put("a", 1);
+    map.put("b", 2);
+    Iterator<String> iterator = map.keySet().iterator();
+    iterator.next();
+    map.put("c", 3);
+    try {
+      iterator.next();
+      fail();
+    } catch (ConcurrentModificationException expected) {
+    }
+  }
+
+  @Test public void testSerialization() throws Exception {
+    CompactLinkedMap<String, Integer> map = new CompactLinkedMap<String, Integer>();
+    LinkedHashMap<String, Integer> expected = new LinkedHashMap<String, Integer>();
+    for (int i = 0; i < 20; i++) {
+      map.put("k" + i, i);
+      expected.put("k" + i, i);
+    }
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(map);
+    out.close();
+    Object copy = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())).readObject();
+    assertSameEntries(expected, (Map<?, ?>) copy);
+  }
+
+  private static void removeWithIterator(Map<String, Integer> map, String key) {
+    for (Iterator<Map.Entry<String, Integer>> i = map.entrySet().iterator(); i.hasNext(); ) {
+      if (i.next().getKey().equals(key)) {
+        i.remove();
+      }
+    }
+  }
+
+  private static void assertSameEntries(Map<?, ?> expected, Map<?, ?> actual) {
+    assertEquals(expected, actual);
+    assertEquals(actual, expected);
+    assertEquals(expected.hashCode(), actual.hashCode());
+    assertEquals(new ArrayList<Object>(expected.keySet()), new ArrayList<Object>(actual.keySet()));
+    assertEquals(new ArrayList<Object>(expected.values()), new ArrayList<Object>(actual.values()));
+    assertEquals(new ArrayList<Object>(expected.entrySet()), new ArrayList<Object>(actual.entrySet()));
+  }
+}
@@ -0,0 +1,91 @@
+package com.github.nidorx.http.gson.internal;
+
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares {@link FastDoubleParser} with {@link Double#parseDouble(String)}.
+ */
+public class FastDoubleParserTest {
+
+  private static final int ITERATIONS = 200000;
+
+  @Test public void testSpecialValues() {
+    String[] values = {
+        "0", "-0", "0.0", "-0.0", "1", "-1", "0.1", "1e0", "1E+0", "1e-0", "123456789012345678901234567890",
+        "9007199254740993", "4.9e-324", "2.4703282292062327e-324", "2.4703282292062328e-324", "1e-400",
+        "2.2250738585072011e-308", "2.2250738585072014e-308", "1.7976931348623157e308", "1.7976931348623159e308",
+        "1e400", "-1e400", "0.000000000000000000000000000000000000000000001", "1e22", "1e23", "8.41e21",
+        "7.3177701707893310e+15", "3.0000000000000000000000000001", "1.00000000000000011102230246251565404236316680908203125",
+        "1.00000000000000011102230246251565404236316680908203124", "12345678901234567890e-10", "0e99999999"
+    };
+    for (String value : values) {
+      assertParse(value);
+    }
+  }
+
+  @Test public void testRandomDoubles() {
+    Random random = new Random(1);
+    for (int i = 0; i < ITERATIONS; i++) {
+      double v = Double.longBitsToDouble(random.nextLong());
+      if (!Double.isNaN(v) && !Double.isInfinite(v)) {
+        assertParse(Double.toString(v));
+      }
+    }
+  }
+
+  @Test public void testRandomDecimals() {
+    Random random = new Random(2);
+    StringBuilder s = new StringBuilder();
+    for (int i = 0; i < ITERATIONS; i++) {
+      s.setLength(0);
+      if (random.nextBoolean()) {
+        s.append('-');
+      }
+      s.append(random.nextInt(10));
+      for (int n = random.nextInt(25); n > 0; n--) {
+        s.append(random.nextInt(10));
+      }
+      if (random.nextBoolean()) {
+        s.append('.');
+        for (int n = 1 + random.nextInt(25); n > 0; n--) {
+          s.append(random.nextInt(10));
+        }
+      }
+      if (random.nextBoolean()) {
+        s.append(random.nextBoolean() ? 'e' : 'E');
+        if (random.nextBoolean()) {
+          s.append(random.nextBoolean() ? '-' : '+');
+        }
+        s.append(random.nextInt(350));
+      }
+      assertParse(s.toString());
+    }
+  }
+
+  @Test public void testOffset() {
+    char[] buffer = "[12.5,-3e2]".toCharArray();
+    assertEquals(12.5, FastDoubleParser.parseDouble(buffer, 1, 4), 0);
+    assertEquals(-300, FastDoubleParser.parseDouble(buffer, 6, 4), 0);
+  }
+
+  @Test public void testInvalid() {
+    String[] values = {"", "-", ".", "1e", "1e+", "1.2.3", "1a", "--1", "e5"};
+    for (String value : values) {
+      try {
+        FastDoubleParser.parseDouble(value.toCharArray(), 0, value.length());
+        fail(value);
+      } catch (NumberFormatException expected) {
+      }
+    }
+  }
+
+  private static void assertParse(String value) {
+    double expected = Double.parseDouble(value);
+    double actual = FastDoubleParser.parseDouble(value.toCharArray(), 0, value.length());
+    assertEquals(value, Double.doubleToRawLongBits(expected), Double.doubleToRawLongBits(actual));
+  }
+}
@@ -0,0 +1,78 @@
+package com.github.nidorx.http.gson.internal;
+
+import com.github.nidorx.http.gson.JsonParser;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link JsonScanner} with a byte by byte search and with the strings decoded by {@link JsonParser}.
+ */
+public class JsonScannerTest {
+
+  private static final int[] CODE_POINTS = "abc \"\\/é中😀\n\t\u0001".codePoints().toArray();
+
+  @Test public void testIndexOfQuoteOrBackslash() {
+    Random random = new Random(1);
+    for (int i = 0; i < 20000; i++) {
+      byte[] bytes = new byte[random.nextInt(80)];
+      for (int j = 0; j < bytes.length; j++) {
+        // poucos bytes especiais, para percorrer palavras inteiras
+        int r = random.nextInt(64);
+        bytes[j] = r == 0 ? (byte) '"' : r == 1 ? (byte) '\\' : (byte) (random.nextInt(256) - 128);
+      }
+      int start = bytes.length == 0 ? 0 : random.nextInt(bytes.length);
+      int end = start + random.nextInt(bytes.length - start + 1);
+      assertEquals(indexOf(bytes, start, end), JsonScanner.indexOfQuoteOrBackslash(bytes, start, end));
+    }
+  }
+
+  @Test public void testDecodeString() {
+    Random random = new Random(2);
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 20000; i++) {
+      value.setLength(0);
+      for (int n = random.nextInt(40); n > 0; n--) {
+        value.appendCodePoint(CODE_POINTS[random.nextInt(CODE_POINTS.length)]);
+      }
+      String json = escape(value.toString(), random);
+      byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+      String expected = JsonParser.parseString(json).getAsString();
+      assertEquals(json, expected, JsonScanner.decodeString(bytes, 1, bytes.length - 2));
+    }
+  }
+
+  private static int indexOf(byte[] bytes, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (bytes[i] == '"' || bytes[i] == '\\') {
+        return i;
+      }
+    }
+    return end;
+  }
+
+  /**
+   * @return the quoted string, with random escapes of the characters that do not need them, except surrogates that
+   * would not be encoded in UTF-8
+   */
+  private static String escape(String value, Random random) {
+    StringBuilder json = new StringBuilder("\"");
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c == '"' || c == '\\' || c == '/' && random.nextBoolean()) {
+        json.append('\\').append(c);
+      } else if (c == '\n') {
+        json.append("\\n");
+      } else if (c == '\t') {
+        json.append("\\t");
+      } else if (c < 0x20 || !Character.isSurrogate(c) && random.nextInt(8) == 0) {
+        json.append(String.format("\\u%04X", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    return json.append('"').toString();
+  }
+}
@@ -0,0 +1,276 @@
+package com.github.nidorx.http.gson.internal.bind;
+
+import com.github.nidorx.http.gson.Gson;
+import com.github.nidorx.http.gson.GsonBuilder;
+import com.github.nidorx.http.gson.JsonSyntaxException;
+import com.github.nidorx.http.gson.LongSerializationPolicy;
+import com.github.nidorx.http.gson.TypeAdapter;
+import com.github.nidorx.http.gson.stream.JsonReader;
+import com.github.nidorx.http.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares the adapters of {@code int[]}, {@code long[]} and {@code double[]} with the arrays of boxed values, read
+ * and written by {@link ArrayTypeAdapter}, and the numeric arrays read as {@code double[]} by {@link ObjectTypeAdapter}
+ * with the lists read by default.
+ */
+public class PrimitiveArrayTypeAdaptersTest {
+
+  private static final int[] SIZES = {0, 1, 15, 16, 17, 100};
+
+  private static final TypeAdapter<Integer> INT_ADAPTER = new TypeAdapter<Integer>() {
+    @Override public void write(JsonWriter out, Integer value) throws IOException {
+      out.value("i" + value);
+    }
+
+    @Override public Integer read(JsonReader in) throws IOException {
+      return Integer.parseInt(in.nextString().substring(1));
+    }
+  };
+
+  private static final TypeAdapter<Long> LONG_ADAPTER = new TypeAdapter<Long>() {
+    @Override public void write(JsonWriter out, Long value) throws IOException {
+      out.value(value + 1);
+    }
+
+    @Override public Long read(JsonReader in) throws IOException {
+      return in.nextLong() - 1;
+    }
+  };
+
+  private static final TypeAdapter<Double> DOUBLE_ADAPTER = new TypeAdapter<Double>() {
+    @Override public void write(JsonWriter out, Double value) throws IOException {
+      out.value(String.valueOf(value));
+    }
+
+    @Override public Double read(JsonReader in) throws IOException {
+      return Double.valueOf(in.nextString()) * 2;
+    }
+  };
+
+  private final Gson gson = new Gson();
+
+  @Test public void testIntArrays() {
+    Random random = new Random(1);
+    for (int size : SIZES) {
+      int[] values = new int[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = i % 10 == 0 ? Integer.MIN_VALUE + i % 3 : random.nextInt();
+      }
+      Integer[] boxed = new Integer[size];
+      for (int i = 0; i < size; i++) {
+        boxed[i] = values[i];
+      }
+      String json = gson.toJson(boxed);
+      assertEquals(json, gson.toJson(values));
+      assertArrayEquals(values, gson.fromJson(json, int[].class));
+    }
+    assertArrayEquals(new int[] {1, 2, 3}, gson.fromJson("[1, \"2\", 3.0]", int[].class));
+    assertEquals(null, gson.fromJson("null", int[].class));
+  }
+
+  @Test public void testLongArrays() {
+    Random random = new Random(2);
+    for (int size : SIZES) {
+      long[] values = new long[size];
+      for (int i = 0; i < size; i++) {
+        values[i] = i % 10 == 0 ? Long.MIN_VALUE + i % 3 : random.nextLong();
+      }
+      Long[] boxed = new Long[size];
+      for (int i = 0; i < size; i++) {
+        boxed[i] = values[i];
+      }
+      String json = gson.toJson(boxed);
+      assertEquals(json, gson.toJson(values));
+      assertArrayEquals(values, gson.fromJson(json, long[].class));
+    }
+    assertArrayEquals(new long[] {Long.MAX_VALUE, 2}, gson.fromJson("[9223372036854775807, \"2\"]", long[].class));
+  }
+
+  @Test public void testDoubleArrays() {
+    Random random = new Random(3);
+    for (int size : SIZES) {
+      double[] values = new double[size];
+      for (int i = 0; i < size; i++) {
+        double value;
+        do {
+          value = i % 3 == 0 ? random.nextInt(1000) - 500 : Double.longBitsToDouble(random.nextLong());
+        } while (Double.isNaN(value) || Double.isInfinite(value));
+        values[i] = i == 1 ? -0.0 : value;
+      }
+      Double[] boxed = new Double[size];
+      for (int i = 0; i < size; i++) {
+        boxed[i] = values[i];
+      }
+      String json = gson.toJson(boxed);
+      assertEquals(json, gson.toJson(values));
+      assertArrayEquals(values, gson.fromJson(json, double[].class), 0);
+    }
+  }
+
+  @Test public void testInvalidElements() {
+    for (String json : new String[] {"[1.5]", "[2147483648]", "[\"x\"]", "[true]", "[[1]]", "{}", "[1,"}) {
+      assertSameError(json, int[].class, Integer[].class);
+    }
+    for (String json : new String[] {"[1e20]", "[1.5]", "[\"x\"]", "[{}]"}) {
+      assertSameError(json, long[].class, Long[].class);
+    }
+    for (String json : new String[] {"[\"x\"]", "[false]", "[[]]", "[1 2]"}) {
+      assertSameError(json, double[].class, Double[].class);
+    }
+    // os arrays de objetos aceitam null, os de primitivos não
+    for (Class<?> type : new Class<?>[] {int[].class, long[].class, double[].class}) {
+      try {
+        gson.fromJson("[1, null]", type);
+        fail(type.getSimpleName());
+      } catch (JsonSyntaxException expected) {
+      }
+    }
+  }
+
+  @Test public void testNonFiniteValues() {
+    double[] values = {1, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    try {
+      gson.toJson(values);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    Gson special = new GsonBuilder().serializeSpecialFloatingPointValues().create();
+    String json = special.toJson(values);
+    assertEquals(special.toJson(new Double[] {1.0, Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY}),
+        json);
+    assertEquals("[1.0,NaN,Infinity,-Infinity]", json);
+    // Gson lê em modo lenient, os valores não finitos são aceitos com as duas configurações
+    assertArrayEquals(values, gson.fromJson(json, double[].class), 0);
+    assertArrayEquals(values, special.fromJson(json, double[].class), 0);
+  }
+
+  @Test public void testCustomElementAdapters() {
+    Gson longs = new GsonBuilder().setLongSerializationPolicy(LongSerializationPolicy.STRING).create();
+    assertEquals("[\"1\",\"-2\"]", longs.toJson(new long[] {1, -2}));
+    assertArrayEquals(new long[] {1, -2}, longs.fromJson("[\"1\",\"-2\"]", long[].class));
+
+    // ArrayTypeAdapter lê os elementos com o adapter do tipo primitivo e escreve com o do tipo boxed
+    Gson primitive = new GsonBuilder()
+        .registerTypeAdapter(int.class, INT_ADAPTER)
+        .registerTypeAdapter(long.class, LONG_ADAPTER)
+        .registerTypeAdapter(double.class, DOUBLE_ADAPTER)
+        .create();
+    assertEquals("[1,2]", primitive.toJson(new int[] {1, 2}));
+    assertArrayEquals(new int[] {1, 2}, primitive.fromJson("[\"i1\",\"i2\"]", int[].class));
+    assertEquals("[1,2]", primitive.toJson(new long[] {1, 2}));
+    assertArrayEquals(new long[] {1, 2}, primitive.fromJson("[2,3]", long[].class));
+    assertEquals("[0.5]", primitive.toJson(new double[] {0.5}));
+    assertArrayEquals(new double[] {1, 3}, primitive.fromJson("[\"0.5\",1.5]", double[].class), 0);
+
+    Gson boxed = new GsonBuilder()
+        .registerTypeAdapter(Integer.class, INT_ADAPTER)
+        .registerTypeAdapter(Long.class, LONG_ADAPTER)
+        .registerTypeAdapter(Double.class, DOUBLE_ADAPTER)
+        .create();
+    assertEquals("[\"i1\",\"i2\"]", boxed.toJson(new int[] {1, 2}));
+    assertArrayEquals(new int[] {1, 2}, boxed.fromJson("[1,2]", int[].class));
+    assertEquals("[2,3]", boxed.toJson(new long[] {1, 2}));
+    assertArrayEquals(new long[] {1, 2}, boxed.fromJson("[1,2]", long[].class));
+    assertEquals("[\"NaN\",\"0.5\"]", boxed.toJson(new double[] {Double.NaN, 0.5}));
+    assertArrayEquals(new double[] {0.5}, boxed.fromJson("[0.5]", double[].class), 0);
+  }
+
+  @Test public void testNumericArraysAsPrimitiveArrays() {
+    Gson numeric = new GsonBuilder().readNumericArraysAsPrimitiveArrays().create();
+    assertArrayEquals(new double[] {1, 2.5, -3}, (double[]) numeric.fromJson("[1, 2.5, -3]", Object.class), 0);
+    assertEquals(new ArrayList<Object>(), numeric.fromJson("[]", Object.class));
+    assertEquals(Arrays.<Object>asList(1.0, "a", 2.0), numeric.fromJson("[1, \"a\", 2]", Object.class));
+    assertEquals(Arrays.<Object>asList(1.0, null), numeric.fromJson("[1, null]", Object.class));
+    assertEquals(Arrays.<Object>asList("1"), numeric.fromJson("[\"1\"]", Object.class));
+    // NaN sem aspas é lido como string, como na lista
+    assertEquals(Arrays.<Object>asList(1.0, "NaN"), numeric.fromJson("[1, NaN]", Object.class));
+    List<?> nested = (List<?>) numeric.fromJson("[[1, 2], [], [3, true]]", Object.class);
+    assertArrayEquals(new double[] {1, 2}, (double[]) nested.get(0), 0);
+    assertEquals(new ArrayList<Object>(), nested.get(1));
+    assertEquals(Arrays.<Object>asList(3.0, true), nested.get(2));
+    Map<?, ?> map = (Map<?, ?>) numeric.fromJson("{\"a\": [1, 2]}", Object.class);
+    assertArrayEquals(new double[] {1, 2}, (double[]) map.get("a"), 0);
+  }
+
+  @Test public void testRandomNumericArrays() {
+    Gson numeric = new GsonBuilder().readNumericArraysAsPrimitiveArrays().create();
+    String[] elements = {"0", "-1", "2.5", "1e300", "\"s\"", "true", "null", "[]", "[1]", "{\"k\": [2, 3]}"};
+    Random random = new Random(4);
+    for (int i = 0; i < 2000; i++) {
+      StringBuilder json = new StringBuilder("[");
+      // a maioria dos arrays só com números, com mais de 16 elementos em alguns
+      boolean numbers = random.nextBoolean();
+      for (int n = random.nextInt(random.nextBoolean() ? 5 : 40), m = 0; m < n; m++) {
+        json.append(m == 0 ? "" : ",").append(elements[random.nextInt(numbers ? 4 : elements.length)]);
+      }
+      json.append(']');
+      Object expected = gson.fromJson(json.toString(), Object.class);
+      Object actual = numeric.fromJson(json.toString(), Object.class);
+      assertEquals(json.toString(), expected, toLists(actual));
+      assertEquals(json.toString(), isNumbers((List<?>) expected), actual instanceof double[]);
+    }
+  }
+
+  private static boolean isNumbers(List<?> list) {
+    for (Object value : list) {
+      if (!(value instanceof Double)) {
+        return false;
+      }
+    }
+    return !list.isEmpty();
+  }
+
+  /**
+   * @return the value with each {@code double[]} replaced by a list of {@code Double}
+   */
+  @SuppressWarnings("unchecked")
+  private static Object toLists(Object value) {
+    if (value instanceof double[]) {
+      List<Object> list = new ArrayList<Object>();
+      for (double v : (double[]) value) {
+        list.add(v);
+      }
+      return list;
+    }
+    if (value instanceof List) {
+      List<Object> list = new ArrayList<Object>();
+      for (Object v : (List<?>) value) {
+        list.add(toLists(v));
+      }
+      return list;
+    }
+    if (value instanceof Map) {
+      for (Map.Entry<?, Object> entry : ((Map<?, Object>) value).entrySet()) {
+        entry.setValue(toLists(entry.getValue()));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * Asserts that the array of primitives is rejected with the same error of the array of boxed values.
+   */
+  private void assertSameError(String json, Class<?> primitive, Class<?> boxed) {
+    assertEquals(json, error(json, boxed), error(json, primitive));
+  }
+
+  private String error(String json, Class<?> type) {
+    try {
+      gson.fromJson(json, type);
+      return "no error";
+    } catch (RuntimeException e) {
+      return e.toString();
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.github.nidorx.http.gson.stream;
+
+import java.io.Reader;
+import java.util.Random;
+
+/**
+ * Returns the characters in chunks of random sizes, to split the tokens between the reads that fill the buffer of
+ * {@link JsonReader}.
+ */
+final class ChunkedReader extends Reader {
+
+  private final String value;
+  private final Random random;
+  private final int maxChunk;
+  private int pos;
+
+  ChunkedReader(String value, Random random) {
+    this.value = value;
+    this.random = random;
+    this.maxChunk = new int[] {1, 3, 17, 100, 2048}[random.nextInt(5)];
+  }
+
+  @Override public int read(char[] buffer, int offset, int length) {
+    if (pos == value.length()) {
+      return -1;
+    }
+    int count = Math.min(Math.min(length, 1 + random.nextInt(maxChunk)), value.length() - pos);
+    value.getChars(pos, pos + count, buffer, offset);
+    pos += count;
+    return count;
+  }
+
+  @Override public void close() {
+  }
+}
@@ -0,0 +1,186 @@
+package com.github.nidorx.http.gson.stream;
+
+import com.github.nidorx.http.gson.JsonParser;
+import com.github.nidorx.http.gson.internal.bind.JsonTreeReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares {@link JsonReader#selectName(JsonNames)} with {@link JsonReader#nextName()} followed by
+ * {@link JsonNames#indexOf(String)}.
+ */
+public class JsonNamesTest {
+
+  /** the names selected, with colliding hashes, escapes and names longer than the buffer of the reader */
+  private static final String[] NAMES;
+
+  /** names that are not selected, some with the same hash of a selected name */
+  private static final String[] UNKNOWN_NAMES;
+
+  static {
+    List<String> names = new ArrayList<String>();
+    List<String> unknown = new ArrayList<String>();
+    // "Aa" e "BB" têm o mesmo hash, as combinações colidem
+    for (int i = 0; i < 1 << 6; i++) {
+      StringBuilder name = new StringBuilder();
+      for (int bit = 0; bit < 6; bit++) {
+        name.append((i & (1 << bit)) == 0 ? "Aa" : "BB");
+      }
+      (i % 2 == 0 ? names : unknown).add(name.toString());
+    }
+    for (String name : new String[] {"", "id", "a", "é中😀", "a\"b", "x\\y", "line\nbreak", "tab\t", "/", "\u0001"}) {
+      names.add(name);
+    }
+    for (int length : new int[] {1000, 1022, 1023, 1024, 1025, 2100}) {
+      StringBuilder name = new StringBuilder();
+      for (int i = 0; i < length; i++) {
+        name.append((char) ('a' + i % 26));
+      }
+      names.add(name.toString());
+      // mesmo prefixo, muda o último caractere
+      name.setCharAt(length - 1, '_');
+      unknown.add(name.toString());
+    }
+    unknown.add("ID");
+    unknown.add("ids");
+    unknown.add("i");
+    NAMES = names.toArray(new String[0]);
+    UNKNOWN_NAMES = unknown.toArray(new String[0]);
+  }
+
+  @Test public void testIndexOf() {
+    JsonNames names = JsonNames.of(NAMES);
+    assertEquals(NAMES.length, names.size());
+    for (int i = 0; i < NAMES.length; i++) {
+      assertEquals(i, names.indexOf(NAMES[i]));
+      assertEquals(NAMES[i], names.get(i));
+    }
+    for (String name : UNKNOWN_NAMES) {
+      assertEquals(-1, names.indexOf(name));
+    }
+    assertEquals(-1, JsonNames.of().indexOf("a"));
+  }
+
+  @Test public void testInvalidNames() {
+    try {
+      JsonNames.of("a", "b", "a");
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      JsonNames.of("a", null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  @Test public void testSelectName() throws IOException {
+    JsonNames names = JsonNames.of(NAMES);
+    Random random = new Random(1);
+    for (int i = 0; i < 5000; i++) {
+      boolean lenient = random.nextBoolean();
+      List<String> members = new ArrayList<String>();
+      StringBuilder json = new StringBuilder();
+      // desloca os nomes em relação ao fim do buffer
+      for (int n = random.nextInt(1030); n > 0; n--) {
+        json.append(' ');
+      }
+      json.append('{');
+      for (int n = random.nextInt(8); n > 0; n--) {
+        String name = random.nextInt(3) == 0
+            ? UNKNOWN_NAMES[random.nextInt(UNKNOWN_NAMES.length)]
+            : NAMES[random.nextInt(NAMES.length)];
+        if (members.contains(name)) {
+          continue;
+        }
+        json.append(members.isEmpty() ? "" : ",").append(random.nextBoolean() ? "\n" : "")
+            .append(quote(name, lenient, random)).append(':').append(members.size());
+        members.add(name);
+      }
+      json.append('}');
+
+      JsonReader reader = new JsonReader(new ChunkedReader(json.toString(), random));
+      reader.setLenient(lenient);
+      JsonReader expected = new JsonReader(new StringReader(json.toString()));
+      expected.setLenient(lenient);
+      JsonReader tree = new JsonTreeReader(JsonParser.parseString(json.toString()));
+      reader.beginObject();
+      expected.beginObject();
+      tree.beginObject();
+      for (int m = 0; m < members.size(); m++) {
+        String message = json.toString();
+        int index = names.indexOf(expected.nextName());
+        assertEquals(message, index, names.indexOf(members.get(m)));
+        assertEquals(message, index, reader.selectName(names));
+        assertEquals(message, index, tree.selectName(names));
+        if (index >= 0) {
+          assertEquals(message, expected.getPath(), reader.getPath());
+        }
+        assertEquals(message, m, reader.nextInt());
+        assertEquals(message, m, expected.nextInt());
+        assertEquals(message, m, tree.nextInt());
+      }
+      reader.endObject();
+      assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+    }
+  }
+
+  @Test public void testUnknownNamePath() throws IOException {
+    JsonReader reader = new JsonReader(new StringReader("{\"a\": 1, \"other\": {\"b\": 2}}"));
+    JsonNames names = JsonNames.of("a", "b");
+    reader.beginObject();
+    assertEquals(0, reader.selectName(names));
+    assertEquals("$.a", reader.getPath());
+    reader.skipValue();
+    assertEquals(-1, reader.selectName(names));
+    reader.beginObject();
+    assertEquals(1, reader.selectName(names));
+    assertEquals(2, reader.nextInt());
+    reader.endObject();
+    reader.endObject();
+  }
+
+  @Test public void testUnterminatedName() throws IOException {
+    JsonReader reader = new JsonReader(new StringReader("{\"abc"));
+    reader.beginObject();
+    try {
+      reader.selectName(JsonNames.of("abc"));
+      fail();
+    } catch (MalformedJsonException expected) {
+    }
+  }
+
+  /**
+   * @return the name as JSON, in half of the names with random escapes of the characters that do not need them, in
+   *     single quotes or without quotes in lenient mode
+   */
+  private static String quote(String name, boolean lenient, Random random) {
+    if (lenient && random.nextInt(4) == 0 && name.matches("[A-Za-z]+")) {
+      return name;
+    }
+    char quote = lenient && random.nextInt(4) == 0 ? '\'' : '"';
+    // metade dos nomes sem escapes, que são comparados direto no buffer
+    boolean escape = random.nextBoolean();
+    StringBuilder json = new StringBuilder().append(quote);
+    for (int i = 0; i < name.length(); i++) {
+      char c = name.charAt(i);
+      if (c == quote || c == '\\') {
+        json.append('\\').append(c);
+      } else if (c == '\n') {
+        json.append("\\n");
+      } else if (c < 0x20 || escape && !Character.isSurrogate(c) && random.nextInt(16) == 0) {
+        json.append(String.format("\\u%04x", (int) c));
+      } else {
+        json.append(c);
+      }
+    }
+    return json.append(quote).toString();
+  }
+}
@@ -0,0 +1,288 @@
+package com.github.nidorx.http.gson.stream;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares {@link JsonReader#skipValue()} with a skip token by token, with documents in strict and lenient JSON,
+ * corrupted documents, documents read in small chunks and values that cross the end of the buffer.
+ */
+public class JsonReaderSkipTest {
+
+  private static final String[] SCALARS = {
+      "0", "-0", "7", "-12", "3.25", "0.5e-3", "1E+5", "-2.5E3", "12345678901234567890", "true", "false", "null",
+      "\"\"", "\"a\"", "\"a\\\"b\"", "\"\\\\\"", "\"\\u00e9\\n\"", "\"é中😀\"", "\"[{,:}]\""
+  };
+
+  /** rejected in strict mode, some of them also in lenient mode */
+  private static final String[] INVALID_SCALARS = {
+      "tru", "nul", "falsey", "TRUE", "Null", "01", "-01", "-", "1.", "1.2.3", "1e", "1e+", "+1", ".5", "0x10", "NaN",
+      "-Infinity", "1-2", "abc", "\"\\x\"", "\"\\u00g0\"", "é"
+  };
+
+  /** separators between the tokens, with the comments of lenient JSON */
+  private static final String[] LENIENT_WHITESPACE = {"/* c */", "// c\n", "# c\n", "/**/"};
+
+  private static final String CORRUPTION = "[]{}:,\"'\\/#;= \nx1-";
+
+  @Test public void testStrictDocuments() throws IOException {
+    Random random = new Random(1);
+    for (int i = 0; i < 20000; i++) {
+      assertSameSkip(document(random, false), false, random.nextLong());
+    }
+  }
+
+  @Test public void testLenientDocuments() throws IOException {
+    Random random = new Random(2);
+    for (int i = 0; i < 20000; i++) {
+      String json = document(random, true);
+      assertSameSkip(json, true, random.nextLong());
+      assertSameSkip(json, false, random.nextLong());
+    }
+  }
+
+  @Test public void testCorruptedDocuments() throws IOException {
+    Random random = new Random(3);
+    for (int i = 0; i < 20000; i++) {
+      boolean lenient = random.nextBoolean();
+      StringBuilder json = new StringBuilder(document(random, lenient));
+      for (int n = 1 + random.nextInt(3); n > 0 && json.length() > 0; n--) {
+        int index = random.nextInt(json.length());
+        switch (random.nextInt(4)) {
+        case 0:
+          json.deleteCharAt(index);
+          break;
+        case 1:
+          json.insert(index, CORRUPTION.charAt(random.nextInt(CORRUPTION.length())));
+          break;
+        case 2:
+          json.setCharAt(index, CORRUPTION.charAt(random.nextInt(CORRUPTION.length())));
+          break;
+        default:
+          json.setLength(index);
+        }
+      }
+      assertSameSkip(json.toString(), random.nextBoolean(), random.nextLong());
+    }
+  }
+
+  @Test public void testBufferBoundary() throws IOException {
+    Random random = new Random(4);
+    StringBuilder json = new StringBuilder();
+    for (int i = 0; i < 5000; i++) {
+      // o valor começa perto do fim do primeiro buffer, de 1024 caracteres
+      json.setLength(0);
+      for (int n = 1000 + random.nextInt(30); n > 0; n--) {
+        json.append(random.nextInt(8) == 0 ? '\n' : ' ');
+      }
+      json.append("[\n");
+      for (int n = random.nextInt(4); n > 0; n--) {
+        json.append(value(random, 0, random.nextBoolean())).append(",\n");
+      }
+      json.append(value(random, 0, false)).append(']');
+      assertSameSkip(json.toString(), random.nextBoolean(), random.nextLong());
+    }
+  }
+
+  @Test public void testPathAfterSkip() throws IOException {
+    JsonReader reader = new JsonReader(new StringReader("[1, [2, {\"a\": [3]}], {\"b\": 4, \"c\": 5}]"));
+    reader.beginArray();
+    reader.skipValue();
+    assertEquals("$[1]", reader.getPath());
+    reader.skipValue();
+    assertEquals("$[2]", reader.getPath());
+    reader.beginObject();
+    assertEquals("b", reader.nextName());
+    reader.skipValue();
+    assertEquals("$[2].null", reader.getPath());
+    assertEquals("c", reader.nextName());
+    assertEquals(5, reader.nextInt());
+    reader.endObject();
+    reader.endArray();
+    assertEquals(JsonToken.END_DOCUMENT, reader.peek());
+  }
+
+  /**
+   * Reads the document with the same random steps, skipping the values with {@link JsonReader#skipValue()} in a
+   * reader that receives the characters in small chunks and token by token in the other, and compares the tokens,
+   * the positions and the errors.
+   */
+  private static void assertSameSkip(String json, boolean lenient, long seed) throws IOException {
+    JsonReader reader = new JsonReader(new ChunkedReader(json, new Random(seed)));
+    reader.setLenient(lenient);
+    JsonReader expected = new JsonReader(new StringReader(json));
+    expected.setLenient(lenient);
+    assertEquals(json, walk(expected, new Random(seed), false), walk(reader, new Random(seed), true));
+  }
+
+  private static List<String> walk(JsonReader reader, Random random, boolean skipValue) {
+    List<String> steps = new ArrayList<String>();
+    try {
+      while (true) {
+        JsonToken token = reader.peek();
+        steps.add(token + location(reader.toString()));
+        if (token == JsonToken.END_DOCUMENT) {
+          return steps;
+        }
+        if (token != JsonToken.NAME && token != JsonToken.END_ARRAY && token != JsonToken.END_OBJECT
+            && random.nextInt(3) != 0) {
+          if (skipValue) {
+            reader.skipValue();
+          } else {
+            skipTokens(reader);
+          }
+          continue;
+        }
+        switch (token) {
+        case BEGIN_ARRAY:
+          reader.beginArray();
+          break;
+        case END_ARRAY:
+          reader.endArray();
+          break;
+        case BEGIN_OBJECT:
+          reader.beginObject();
+          break;
+        case END_OBJECT:
+          reader.endObject();
+          break;
+        case NAME:
+          steps.add(reader.nextName());
+          break;
+        case BOOLEAN:
+          steps.add(String.valueOf(reader.nextBoolean()));
+          break;
+        case NULL:
+          reader.nextNull();
+          break;
+        default:
+          steps.add(reader.nextString());
+        }
+      }
+    } catch (Exception e) {
+      steps.add(e.getClass().getName() + ": " + location(e.getMessage()));
+      return steps;
+    }
+  }
+
+  /**
+   * Skips the next value reading each token.
+   */
+  private static void skipTokens(JsonReader reader) throws IOException {
+    int depth = 0;
+    do {
+      switch (reader.peek()) {
+      case BEGIN_ARRAY:
+        reader.beginArray();
+        depth++;
+        break;
+      case END_ARRAY:
+        reader.endArray();
+        depth--;
+        break;
+      case BEGIN_OBJECT:
+        reader.beginObject();
+        depth++;
+        break;
+      case END_OBJECT:
+        reader.endObject();
+        depth--;
+        break;
+      case NAME:
+        reader.nextName();
+        break;
+      case BOOLEAN:
+        reader.nextBoolean();
+        break;
+      case NULL:
+        reader.nextNull();
+        break;
+      default:
+        reader.nextString();
+      }
+    } while (depth > 0);
+  }
+
+  /**
+   * @return the message without the path, skipValue() writes "null" as the name of the skipped member
+   */
+  private static String location(String message) {
+    int index = message == null ? -1 : message.lastIndexOf(" path ");
+    return index < 0 ? String.valueOf(message) : message.substring(0, index);
+  }
+
+  private static String document(Random random, boolean lenient) {
+    return whitespace(random, lenient) + value(random, 0, lenient) + whitespace(random, lenient);
+  }
+
+  private static String value(Random random, int depth, boolean lenient) {
+    int kind = random.nextInt(depth > 5 ? 3 : 5);
+    StringBuilder json = new StringBuilder();
+    if (kind == 3) {
+      json.append('[');
+      for (int n = random.nextInt(6), i = 0; i < n; i++) {
+        if (i > 0) {
+          json.append(whitespace(random, lenient)).append(lenient && random.nextInt(8) == 0 ? ';' : ',');
+        }
+        json.append(whitespace(random, lenient)).append(value(random, depth + 1, lenient));
+      }
+      return json.append(whitespace(random, lenient)).append(']').toString();
+    }
+    if (kind == 4) {
+      json.append('{');
+      for (int n = random.nextInt(6), i = 0; i < n; i++) {
+        if (i > 0) {
+          json.append(whitespace(random, lenient)).append(lenient && random.nextInt(8) == 0 ? ';' : ',');
+        }
+        String name = "n" + random.nextInt(20);
+        int quote = lenient ? random.nextInt(4) : 0;
+        json.append(whitespace(random, lenient))
+            .append(quote == 1 ? "'" + name + "'" : quote == 2 ? name : '"' + name + '"')
+            .append(whitespace(random, lenient));
+        int separator = lenient ? random.nextInt(6) : 0;
+        json.append(separator == 1 ? "=" : separator == 2 ? "=>" : ":")
+            .append(whitespace(random, lenient))
+            .append(value(random, depth + 1, lenient));
+      }
+      return json.append(whitespace(random, lenient)).append('}').toString();
+    }
+    int scalar = random.nextInt(40);
+    if (scalar == 0) {
+      return INVALID_SCALARS[random.nextInt(INVALID_SCALARS.length)];
+    }
+    if (scalar == 1) {
+      // números e strings maiores que o buffer
+      json.append(random.nextBoolean() ? '"' : '1');
+      for (int n = 900 + random.nextInt(300); n > 0; n--) {
+        json.append((char) ('0' + random.nextInt(10)));
+      }
+      return json.append(json.charAt(0) == '"' ? "\"" : "").toString();
+    }
+    if (lenient && scalar == 2) {
+      return random.nextBoolean() ? "'a\"b'" : "unquoted";
+    }
+    return SCALARS[random.nextInt(SCALARS.length)];
+  }
+
+  private static String whitespace(Random random, boolean lenient) {
+    switch (random.nextInt(lenient ? 8 : 6)) {
+    case 0:
+      return " ";
+    case 1:
+      return "\n  ";
+    case 2:
+      return "\r\n\t";
+    case 6:
+    case 7:
+      return LENIENT_WHITESPACE[random.nextInt(LENIENT_WHITESPACE.length)];
+    default:
+      return "";
+    }
+  }
+}
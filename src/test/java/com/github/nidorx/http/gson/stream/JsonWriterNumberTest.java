@@ -0,0 +1,69 @@
+package com.github.nidorx.http.gson.stream;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Compares the doubles and floats written by {@link JsonWriter} with {@link Double#toString(double)} and
+ * {@link Float#toString(float)} of the running Java version.
+ */
+public class JsonWriterNumberTest {
+
+  private static final int ITERATIONS = 200000;
+
+  @Test public void testSpecialValues() throws IOException {
+    double[] values = {
+        0.0, -0.0, 1.0, -1.0, 0.1, 2e-3, 9999999.0, -9999999.0, 1e7, -1e7, 1e7 - 0.5, 123456789.0, 1e22,
+        Double.MIN_VALUE, Double.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, Double.NaN, Double.POSITIVE_INFINITY,
+        Double.NEGATIVE_INFINITY
+    };
+    for (double value : values) {
+      assertDouble(value);
+      assertFloat((float) value);
+    }
+  }
+
+  @Test public void testRandomValues() throws IOException {
+    Random random = new Random(1);
+    for (int i = 0; i < ITERATIONS; i++) {
+      // inteiros perto do limite da notação decimal, e valores quaisquer
+      assertDouble(random.nextInt(40000000) - 20000000);
+      assertDouble(Double.longBitsToDouble(random.nextLong()));
+      assertFloat(random.nextInt(40000000) - 20000000);
+      assertFloat(Float.intBitsToFloat(random.nextInt()));
+    }
+  }
+
+  @Test public void testNumberValues() throws IOException {
+    assertEquals("[1.0,-2.5,3.0,4]", write(1.0, -2.5, 3.0f, 4));
+  }
+
+  private static void assertDouble(double value) throws IOException {
+    StringWriter string = new StringWriter();
+    JsonWriter writer = new JsonWriter(string);
+    writer.setLenient(true);
+    writer.value(value);
+    assertEquals(Double.toString(value), string.toString());
+    assertEquals(Double.toString(value), write(value).replaceAll("[\\[\\]]", ""));
+  }
+
+  private static void assertFloat(float value) throws IOException {
+    assertEquals(Float.toString(value), write(value).replaceAll("[\\[\\]]", ""));
+  }
+
+  private static String write(Number... values) throws IOException {
+    StringWriter string = new StringWriter();
+    JsonWriter writer = new JsonWriter(string);
+    writer.setLenient(true);
+    writer.beginArray();
+    for (Number value : values) {
+      writer.value(value);
+    }
+    writer.endArray();
+    return string.toString();
+  }
+}